@@ -0,0 +1,185 @@
+package com.nextbreakpoint.common.command;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+
+/**
+ * CancellationToken implements a signal for stopping the execution of a command cooperatively.
+ * <p>
+ * The token is checked before each stage of a command, and once the token has been cancelled,
+ * the remaining stages are skipped and the result is a failure with a {@link CancellationException}.
+ * The threads executing a command with the token are interrupted when the token is cancelled,
+ * and the token is cancelled when a thread executing a command with the token is found interrupted.
+ * The interrupt delivered by the token is cleared when the command completes, while an interrupt
+ * delivered by someone else before the token was cancelled is preserved.
+ */
+public final class CancellationToken {
+    private static final CancellationToken NONE = new CancellationToken();
+
+    private final List<Runnable> listeners = new ArrayList<>();
+    private volatile boolean cancelled;
+
+    private CancellationToken() {}
+
+    /**
+     * Creates new instance.
+     *
+     * @return new instance
+     */
+    public static CancellationToken create() {
+        return new CancellationToken();
+    }
+
+    /**
+     * Returns the token which is never cancelled.
+     *
+     * @return the token
+     */
+    public static CancellationToken none() {
+        return NONE;
+    }
+
+    /**
+     * Cancels the token and invokes the listeners.
+     *
+     * @return true if the token has been cancelled by this invocation
+     */
+    public boolean cancel() {
+        if (this == NONE) {
+            return false;
+        }
+
+        final List<Runnable> callbacks;
+
+        synchronized (listeners) {
+            if (cancelled) {
+                return false;
+            }
+            cancelled = true;
+            callbacks = new ArrayList<>(listeners);
+            listeners.clear();
+        }
+
+        callbacks.forEach(Runnable::run);
+
+        return true;
+    }
+
+    /**
+     * Returns true when the token has been cancelled.
+     *
+     * @return true when cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Registers a listener which is invoked when the token is cancelled.
+     * <p>
+     * The listener is invoked immediately if the token has already been cancelled.
+     *
+     * @param listener the listener
+     * @return the registration which removes the listener when closed
+     * @throws NullPointerException if listener is null
+     */
+    public Registration onCancel(Runnable listener) {
+        Objects.requireNonNull(listener);
+
+        if (this == NONE) {
+            return () -> {};
+        }
+
+        synchronized (listeners) {
+            if (!cancelled) {
+                listeners.add(listener);
+                return () -> {
+                    synchronized (listeners) {
+                        listeners.remove(listener);
+                    }
+                };
+            }
+        }
+
+        listener.run();
+
+        return () -> {};
+    }
+
+    /**
+     * Throws a cancellation exception if the token has been cancelled or the current thread has been interrupted.
+     *
+     * @throws CancellationException if cancelled
+     */
+    void check() {
+        if (this == NONE) {
+            return;
+        }
+        if (!cancelled && Thread.currentThread().isInterrupted()) {
+            cancel();
+        }
+        if (cancelled) {
+            throw new CancellationException("Command has been cancelled");
+        }
+    }
+
+    /**
+     * Interrupts the current thread when the token is cancelled, until the registration is closed.
+     *
+     * @return the registration
+     */
+    Registration interruptOnCancel() {
+        if (this == NONE) {
+            return () -> {};
+        }
+
+        final Interruption interruption = new Interruption(Thread.currentThread());
+
+        final Registration registration = onCancel(interruption::interrupt);
+
+        return () -> {
+            registration.close();
+            interruption.complete();
+        };
+    }
+
+    /**
+     * Registration represents a registered listener.
+     */
+    @FunctionalInterface
+    public interface Registration extends AutoCloseable {
+        /**
+         * Removes the listener.
+         */
+        @Override
+        void close();
+    }
+
+    private static class Interruption {
+        private final Thread thread;
+        private boolean active = true;
+        private boolean interrupted;
+
+        private Interruption(Thread thread) {
+            this.thread = thread;
+        }
+
+        private synchronized void interrupt() {
+            // an interrupt which has been delivered by someone else is preserved
+            if (active && !thread.isInterrupted()) {
+                interrupted = true;
+                thread.interrupt();
+            }
+        }
+
+        private synchronized void complete() {
+            active = false;
+            if (interrupted) {
+                // the interruption was only meant to stop the command
+                Thread.interrupted();
+            }
+        }
+    }
+}
@@ -13,11 +13,34 @@ import java.util.function.Function;
  * @author Andrea Medeghini
  */
 public class Command<V> {
-    private final Callable<V> callable;
+    private static final Interceptor[] NO_INTERCEPTORS = new Interceptor[0];
 
-    private Command(Callable<V> callable) {
-        Objects.requireNonNull(callable);
-        this.callable = callable;
+    private static volatile Interceptor[] globalInterceptors = NO_INTERCEPTORS;
+
+    private final Stage<V> stage;
+    private final Interceptor[] interceptors;
+    private final Context context;
+
+    private Command(Stage<V> stage) {
+        this(stage, NO_INTERCEPTORS, null);
+    }
+
+    private Command(Stage<V> stage, Interceptor[] interceptors, Context context) {
+        Objects.requireNonNull(stage);
+        this.stage = stage;
+        this.interceptors = interceptors;
+        this.context = context;
+    }
+
+    /**
+     * Replaces the interceptors which are applied to all commands. The global interceptors are invoked
+     * before the interceptors of the command.
+     *
+     * @param interceptors the interceptors, or none to remove the global interceptors
+     * @throws NullPointerException if interceptors is null or contains null
+     */
+    public static void setGlobalInterceptors(Interceptor... interceptors) {
+        globalInterceptors = copyOf(interceptors);
     }
 
     /**
@@ -54,7 +77,8 @@ public class Command<V> {
      * @param <R> the value's type
      */
     public static <R> Command<R> of(Callable<R> callable) {
-        return new Command<>(callable);
+        Objects.requireNonNull(callable);
+        return new Command<>(token -> callable.call());
     }
 
     /**
@@ -67,7 +91,19 @@ public class Command<V> {
      */
     public static <R> Command<R> of(Either<R> either) {
         Objects.requireNonNull(either);
-        return new Command<>(() -> either.orThrow().get());
+        return new Command<>(token -> either.orThrow().get());
+    }
+
+    /**
+     * Creates new instance from stage. The stage receives the token of the execution.
+     *
+     * @param stage the stage
+     * @return new instance
+     * @throws NullPointerException if stage is null
+     * @param <R> the value's type
+     */
+    static <R> Command<R> of(Stage<R> stage) {
+        return new Command<>(stage);
     }
 
     /**
@@ -76,13 +112,84 @@ public class Command<V> {
      * @return the result
      */
     public Either<V> execute() {
+        return execute(CancellationToken.none());
+    }
+
+    /**
+     * Execute with given cancellation token and returns result.
+     * <p>
+     * The token is checked before each stage, and the result is a failure with a
+     * {@link java.util.concurrent.CancellationException} when the token is cancelled before the last stage completes.
+     * The current thread is interrupted if the token is cancelled during the execution.
+     *
+     * @param token the cancellation token
+     * @return the result
+     * @throws NullPointerException if token is null
+     */
+    public Either<V> execute(CancellationToken token) {
+        Objects.requireNonNull(token);
+
+        if (context != null && Context.current() != context) {
+            return context.execute(this, token);
+        }
+
+        final Interceptor[] global = globalInterceptors;
+
+        final CancellationToken.Registration registration = token.interruptOnCancel();
+
         try {
-            return Either.success(callable.call());
+            if (global.length == 0 && interceptors.length == 0) {
+                return Either.success(evaluate(token));
+            }
+            return Either.success(new Chain<>(global, interceptors, Interceptor.Kind.EXECUTE, token, this::evaluate).proceed());
         } catch (Exception e) {
             return Either.failure(e);
+        } finally {
+            registration.close();
         }
     }
 
+    /**
+     * Returns result which is evaluated lazily.
+     * <p>
+     * The command is executed at most once, the first time the status or the value of the result is accessed.
+     * The command is never executed if the result is never accessed.
+     *
+     * @return the result
+     */
+    public Either<V> lazy() {
+        return Either.lazy(this::execute);
+    }
+
+    /**
+     * Returns a new instance with given interceptors, which replace the interceptors of this command.
+     * <p>
+     * The interceptors are applied to the execution of the command and to the evaluation of its stages,
+     * and they are inherited by the commands created with map and flatMap.
+     *
+     * @param interceptors the interceptors
+     * @return new instance
+     * @throws NullPointerException if interceptors is null or contains null
+     */
+    public Command<V> withInterceptors(Interceptor... interceptors) {
+        return new Command<>(stage, copyOf(interceptors), context);
+    }
+
+    /**
+     * Returns a new instance which binds the given context to the current thread while it is executed.
+     * <p>
+     * The context is inherited by the commands created with map and flatMap, and it is visible to the interceptors.
+     *
+     * @param context the context
+     * @return new instance
+     * @throws NullPointerException if context is null
+     * @see Context#current()
+     */
+    public Command<V> withContext(Context context) {
+        Objects.requireNonNull(context);
+        return new Command<>(stage, interceptors, context);
+    }
+
     /**
      * Creates new instance with given function.
      *
@@ -93,7 +200,7 @@ public class Command<V> {
      */
     public <R> Command<R> map(Function<V, R> function) {
         Objects.requireNonNull(function);
-        return new Command<>(() -> function.apply(evaluate()));
+        return new Command<>(token -> function.apply(evaluate(token)), interceptors, context);
     }
 
     /**
@@ -106,10 +213,102 @@ public class Command<V> {
      */
     public <R> Command<R> flatMap(Function<V, Command<R>> function) {
         Objects.requireNonNull(function);
-        return new Command<>(() -> function.apply(evaluate()).evaluate());
+        return new Command<>(token -> function.apply(evaluate(token)).evaluate(token), interceptors, context);
+    }
+
+    private V evaluate(CancellationToken token) throws Exception {
+        if (context != null && Context.current() != context) {
+            return context.call(this::evaluate, token);
+        }
+        token.check();
+        final Interceptor[] global = globalInterceptors;
+        final V value;
+        try {
+            if (global.length == 0 && interceptors.length == 0) {
+                value = stage.call(token);
+            } else {
+                value = new Chain<>(global, interceptors, Interceptor.Kind.STAGE, token, stage).proceed();
+            }
+        } catch (InterruptedException e) {
+            token.check();
+            throw e;
+        }
+        token.check();
+        return value;
     }
 
-    private V evaluate() throws Exception {
-        return execute().orThrow().orElse(null);
+    private static Interceptor[] copyOf(Interceptor[] interceptors) {
+        Objects.requireNonNull(interceptors);
+        if (interceptors.length == 0) {
+            return NO_INTERCEPTORS;
+        }
+        final Interceptor[] copy = interceptors.clone();
+        for (Interceptor interceptor : copy) {
+            Objects.requireNonNull(interceptor);
+        }
+        return copy;
+    }
+
+    private static final class Chain<V> implements Interceptor.Invocation<V> {
+        private final Interceptor[] global;
+        private final Interceptor[] local;
+        private final Interceptor.Kind kind;
+        private final CancellationToken token;
+        private final Stage<V> target;
+        private int index;
+
+        private Chain(Interceptor[] global, Interceptor[] local, Interceptor.Kind kind, CancellationToken token, Stage<V> target) {
+            this.global = global;
+            this.local = local;
+            this.kind = kind;
+            this.token = token;
+            this.target = target;
+        }
+
+        @Override
+        public Interceptor.Kind kind() {
+            return kind;
+        }
+
+        @Override
+        public CancellationToken token() {
+            return token;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V proceed() throws Exception {
+            // the interceptors are walked by index, and the index is restored so that proceed can be invoked again
+            final int current = index;
+            index = current + 1;
+            try {
+                if (current < global.length) {
+                    return (V) global[current].intercept(this);
+                }
+                if (current < global.length + local.length) {
+                    return (V) local[current - global.length].intercept(this);
+                }
+                return target.call(token);
+            } finally {
+                index = current;
+            }
+        }
+    }
+
+    /**
+     * Stage represents an operation which receives the cancellation token of the execution.
+     *
+     * @param <V> the value's type
+     */
+    @FunctionalInterface
+    interface Stage<V> {
+        /**
+         * Executes the operation.
+         *
+         * @param token the cancellation token
+         * @return the value
+         * @throws Exception some error
+         */
+        V call(CancellationToken token) throws Exception;
     }
 }
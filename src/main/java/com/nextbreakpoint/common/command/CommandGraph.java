@@ -0,0 +1,322 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * CommandGraph executes a graph of commands which depend on the results of other commands.
+ * <p>
+ * Each node of the graph is identified by a key, and it declares the keys of the nodes it depends on, which must have
+ * been added before, therefore the graph can't contain cycles. When the graph is executed, each node is executed once
+ * on the executor as soon as its dependencies have completed, so that independent nodes are executed in parallel.
+ * When a dependency fails, the node is not executed and it fails with the exception of the dependency, while the
+ * nodes which don't depend on the failed node are executed anyway. The result contains the outcome of each node.
+ * The graph is immutable, and it can be executed any number of times.
+ */
+public class CommandGraph {
+    private final List<Node<?>> nodes;
+    private final Map<Key<?>, Integer> indexes;
+
+    private CommandGraph(List<Node<?>> nodes, Map<Key<?>, Integer> indexes) {
+        this.nodes = nodes;
+        this.indexes = indexes;
+    }
+
+    /**
+     * Creates new empty graph.
+     *
+     * @return new instance
+     */
+    public static CommandGraph create() {
+        return new CommandGraph(Collections.emptyList(), Collections.emptyMap());
+    }
+
+    /**
+     * Returns a new graph with given node, which doesn't have dependencies.
+     *
+     * @param key the key of the node
+     * @param command the command of the node
+     * @return new instance
+     * @throws NullPointerException if key or command is null
+     * @throws IllegalArgumentException if the graph contains the key already
+     * @param <V> the value's type
+     */
+    public <V> CommandGraph with(Key<V> key, Command<V> command) {
+        Objects.requireNonNull(command);
+        return with(key, Collections.emptyList(), results -> command);
+    }
+
+    /**
+     * Returns a new graph with given node. The function receives the results when the dependencies have completed
+     * successfully, and it returns the command of the node.
+     *
+     * @param key the key of the node
+     * @param dependencies the keys of the dependencies
+     * @param function the function which creates the command of the node
+     * @return new instance
+     * @throws NullPointerException if key, dependencies or function is null, or dependencies contains null
+     * @throws IllegalArgumentException if the graph contains the key already, or it doesn't contain a dependency
+     * @param <V> the value's type
+     */
+    public <V> CommandGraph with(Key<V> key, List<Key<?>> dependencies, Function<Results, Command<V>> function) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(dependencies);
+        Objects.requireNonNull(function);
+        if (indexes.containsKey(key)) {
+            throw new IllegalArgumentException("graph contains key " + key + " already");
+        }
+        final int[] dependencyIndexes = new int[dependencies.size()];
+        for (int i = 0; i < dependencyIndexes.length; i++) {
+            final Integer index = indexes.get(Objects.requireNonNull(dependencies.get(i)));
+            if (index == null) {
+                throw new IllegalArgumentException("graph doesn't contain dependency " + dependencies.get(i));
+            }
+            dependencyIndexes[i] = index;
+        }
+        final List<Node<?>> newNodes = new ArrayList<>(nodes);
+        final Map<Key<?>, Integer> newIndexes = new IdentityHashMap<>(indexes);
+        newIndexes.put(key, newNodes.size());
+        newNodes.add(new Node<>(dependencyIndexes, function));
+        return new CommandGraph(Collections.unmodifiableList(newNodes), newIndexes);
+    }
+
+    /**
+     * Creates new command which executes the nodes of the graph on the given executor, and returns the results.
+     * <p>
+     * The command fails only if it is cancelled or interrupted, while the failures of the nodes are returned in the results.
+     *
+     * @param executor the executor of the nodes
+     * @return new instance
+     * @throws NullPointerException if executor is null
+     */
+    public Command<Results> command(Executor executor) {
+        Objects.requireNonNull(executor);
+        return Command.of(token -> new Execution(executor, token).run());
+    }
+
+    private class Execution {
+        private final Executor executor;
+        private final CancellationToken scope = CancellationToken.create();
+        private final Context context = Context.current();
+        private final AtomicInteger[] pending = new AtomicInteger[nodes.size()];
+        private final int[][] dependents = new int[nodes.size()][];
+        private final AtomicReferenceArray<Either<?>> outcomes = new AtomicReferenceArray<>(nodes.size());
+        private final CountDownLatch completed = new CountDownLatch(nodes.size());
+        private final Results results = new Results(indexes, outcomes);
+        private final CancellationToken token;
+
+        private Execution(Executor executor, CancellationToken token) {
+            this.executor = executor;
+            this.token = token;
+            final int[] counts = new int[nodes.size()];
+            for (Node<?> node : nodes) {
+                for (int dependency : node.dependencies) {
+                    counts[dependency] += 1;
+                }
+            }
+            for (int i = 0; i < nodes.size(); i++) {
+                pending[i] = new AtomicInteger(nodes.get(i).dependencies.length);
+                dependents[i] = new int[counts[i]];
+            }
+            for (int i = 0; i < nodes.size(); i++) {
+                for (int dependency : nodes.get(i).dependencies) {
+                    dependents[dependency][--counts[dependency]] = i;
+                }
+            }
+        }
+
+        private Results run() throws InterruptedException {
+            final CancellationToken.Registration registration = token.onCancel(scope::cancel);
+            try {
+                for (int i = 0; i < nodes.size(); i++) {
+                    if (nodes.get(i).dependencies.length == 0) {
+                        submit(i);
+                    }
+                }
+                try {
+                    completed.await();
+                } catch (InterruptedException e) {
+                    // the nodes in flight are cancelled, and the nodes which haven't started are not executed
+                    scope.cancel();
+                    throw e;
+                }
+                return results;
+            } finally {
+                registration.close();
+            }
+        }
+
+        private void submit(int index) {
+            try {
+                executor.execute(() -> {
+                    final Either<?> outcome;
+                    try {
+                        outcome = context.execute(Command.of(ignored -> evaluate(index)), scope);
+                    } catch (Throwable e) {
+                        // the node is completed anyway, otherwise its dependents and the caller would wait forever
+                        complete(index, Either.failure(new ExecutionException(e)));
+                        throw e;
+                    }
+                    complete(index, outcome);
+                });
+            } catch (RejectedExecutionException e) {
+                complete(index, Either.failure(e));
+            }
+        }
+
+        private Object evaluate(int index) throws Exception {
+            final Node<?> node = nodes.get(index);
+            return Objects.requireNonNull(node.function.apply(results)).execute(scope).orThrow().get();
+        }
+
+        private void complete(int index, Either<?> outcome) {
+            outcomes.set(index, outcome);
+            completed.countDown();
+            for (int dependent : dependents[index]) {
+                if (pending[dependent].decrementAndGet() == 0) {
+                    final Exception failure = firstFailure(nodes.get(dependent).dependencies);
+                    if (failure != null) {
+                        complete(dependent, Either.failure(failure));
+                    } else {
+                        submit(dependent);
+                    }
+                }
+            }
+        }
+
+        private Exception firstFailure(int[] dependencies) {
+            for (int dependency : dependencies) {
+                final Either<?> outcome = outcomes.get(dependency);
+                if (outcome.isFailure()) {
+                    return outcome.exception();
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class Node<V> {
+        private final int[] dependencies;
+        private final Function<Results, Command<V>> function;
+
+        private Node(int[] dependencies, Function<Results, Command<V>> function) {
+            this.dependencies = dependencies;
+            this.function = function;
+        }
+    }
+
+    /**
+     * Results contains the outcome of each node of the graph.
+     */
+    public static final class Results {
+        private final Map<Key<?>, Integer> indexes;
+        private final AtomicReferenceArray<Either<?>> outcomes;
+
+        private Results(Map<Key<?>, Integer> indexes, AtomicReferenceArray<Either<?>> outcomes) {
+            this.indexes = indexes;
+            this.outcomes = outcomes;
+        }
+
+        /**
+         * Returns the outcome of the node, or null if the node has not completed yet.
+         *
+         * @param key the key of the node
+         * @return the outcome
+         * @throws NullPointerException if key is null
+         * @throws IllegalArgumentException if the graph doesn't contain the key
+         * @param <V> the value's type
+         */
+        @SuppressWarnings("unchecked")
+        public <V> Either<V> get(Key<V> key) {
+            Objects.requireNonNull(key);
+            final Integer index = indexes.get(key);
+            if (index == null) {
+                throw new IllegalArgumentException("graph doesn't contain key " + key);
+            }
+            return (Either<V>) outcomes.get(index);
+        }
+
+        /**
+         * Returns the value of the node, or null if the node has failed or it has not completed yet.
+         * The values of the dependencies are always available to the function of a node.
+         *
+         * @param key the key of the node
+         * @return the value
+         * @throws NullPointerException if key is null
+         * @throws IllegalArgumentException if the graph doesn't contain the key
+         * @param <V> the value's type
+         */
+        public <V> V value(Key<V> key) {
+            final Either<V> outcome = get(key);
+            return outcome != null ? outcome.get() : null;
+        }
+
+        /**
+         * Returns true when all the nodes have completed successfully.
+         *
+         * @return true when success
+         */
+        public boolean isSuccess() {
+            for (int i = 0; i < outcomes.length(); i++) {
+                final Either<?> outcome = outcomes.get(i);
+                if (outcome == null || outcome.isFailure()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Key identifies a node of a graph. Keys are compared by identity.
+     *
+     * @param <V> the value's type
+     */
+    public static final class Key<V> {
+        private final String name;
+
+        private Key(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Creates new key with given name.
+         *
+         * @param name the name
+         * @return new instance
+         * @throws NullPointerException if name is null
+         * @param <V> the value's type
+         */
+        public static <V> Key<V> of(String name) {
+            Objects.requireNonNull(name);
+            return new Key<>(name);
+        }
+
+        /**
+         * Returns the name of the key.
+         *
+         * @return the name
+         */
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
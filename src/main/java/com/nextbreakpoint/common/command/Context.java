@@ -0,0 +1,238 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * Context represents immutable request-scoped data, such as a trace id or a tenant, which travels with the execution of commands.
+ * <p>
+ * A context is bound to the current thread while a command created with {@link Command#withContext(Context)} is executed,
+ * or while {@link #call(Callable)} is executed, and the stages of the command can read it with {@link #current()}.
+ * The executors of this package capture the context of the caller when a command is submitted, and bind it on the thread
+ * which executes the command. Use {@link #propagating(Executor)} to propagate the context to other executors.
+ * <p>
+ * The context is stored in a thread local, because the module targets Java 11, and a hop costs a read of the thread local
+ * when the task is submitted and two writes when the task is executed. No object is created when the context is empty.
+ */
+public final class Context {
+    private static final Context EMPTY = new Context(new Key<?>[0], new Object[0]);
+
+    private static final ThreadLocal<Context> CURRENT = ThreadLocal.withInitial(() -> EMPTY);
+
+    private final Key<?>[] keys;
+    private final Object[] values;
+
+    private Context(Key<?>[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Returns the empty context.
+     *
+     * @return the context
+     */
+    public static Context empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the context bound to the current thread, or the empty context.
+     *
+     * @return the context
+     */
+    public static Context current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Returns an executor which binds the context of the caller while the task is executed.
+     *
+     * @param executor the executor
+     * @return the executor
+     * @throws NullPointerException if executor is null
+     */
+    public static Executor propagating(Executor executor) {
+        Objects.requireNonNull(executor);
+        return task -> executor.execute(current().wrap(task));
+    }
+
+    /**
+     * Returns the value of the key, or null if the key is not present.
+     *
+     * @param key the key
+     * @return the value or null
+     * @throws NullPointerException if key is null
+     * @param <T> the value's type
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key<T> key) {
+        Objects.requireNonNull(key);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == key) {
+                return (T) values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a new context with given value, which replaces the current value of the key.
+     *
+     * @param key the key
+     * @param value the value
+     * @return new instance
+     * @throws NullPointerException if key or value is null
+     * @param <T> the value's type
+     */
+    public <T> Context with(Key<T> key, T value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == key) {
+                final Object[] newValues = values.clone();
+                newValues[i] = value;
+                return new Context(keys, newValues);
+            }
+        }
+        // contexts are small, therefore copying the arrays is cheaper than maintaining a map
+        final Key<?>[] newKeys = new Key<?>[keys.length + 1];
+        final Object[] newValues = new Object[values.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, keys.length);
+        System.arraycopy(values, 0, newValues, 0, values.length);
+        newKeys[keys.length] = key;
+        newValues[values.length] = value;
+        return new Context(newKeys, newValues);
+    }
+
+    /**
+     * Returns true when the context doesn't contain any value.
+     *
+     * @return true when empty
+     */
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    /**
+     * Invokes the callable with this context bound to the current thread.
+     *
+     * @param callable the callable
+     * @return the value returned by the callable
+     * @throws Exception the exception thrown by the callable
+     * @throws NullPointerException if callable is null
+     * @param <V> the value's type
+     */
+    public <V> V call(Callable<V> callable) throws Exception {
+        Objects.requireNonNull(callable);
+        final Context previous = CURRENT.get();
+        if (previous == this) {
+            return callable.call();
+        }
+        CURRENT.set(this);
+        try {
+            return callable.call();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Returns a task which runs the given task with this context bound to the current thread.
+     *
+     * @param task the task
+     * @return the task
+     * @throws NullPointerException if task is null
+     */
+    public Runnable wrap(Runnable task) {
+        Objects.requireNonNull(task);
+        if (this == EMPTY) {
+            // the threads of the executors are not bound to any context when they are idle
+            return task;
+        }
+        return () -> run(task);
+    }
+
+    <V> V call(Command.Stage<V> stage, CancellationToken token) throws Exception {
+        final Context previous = CURRENT.get();
+        if (previous == this) {
+            return stage.call(token);
+        }
+        CURRENT.set(this);
+        try {
+            return stage.call(token);
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    <V> Either<V> execute(Command<V> command, CancellationToken token) {
+        final Context previous = CURRENT.get();
+        if (previous == this) {
+            return command.execute(token);
+        }
+        CURRENT.set(this);
+        try {
+            return command.execute(token);
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    private void run(Runnable task) {
+        final Context previous = CURRENT.get();
+        if (previous == this) {
+            task.run();
+            return;
+        }
+        CURRENT.set(this);
+        try {
+            task.run();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Key identifies a value of a context. Keys are compared by identity, therefore they are usually constants.
+     *
+     * @param <T> the value's type
+     */
+    public static final class Key<T> {
+        private final String name;
+
+        private Key(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Creates new key with given name.
+         *
+         * @param name the name
+         * @return new instance
+         * @throws NullPointerException if name is null
+         * @param <T> the value's type
+         */
+        public static <T> Key<T> of(String name) {
+            Objects.requireNonNull(name);
+            return new Key<>(name);
+        }
+
+        /**
+         * Returns the name of the key.
+         *
+         * @return the name
+         */
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
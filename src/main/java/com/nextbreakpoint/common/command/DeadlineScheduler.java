@@ -0,0 +1,459 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * DeadlineScheduler executes commands by priority and deadline, and it sheds load when the queueing delay grows.
+ * <p>
+ * Each command is submitted with a priority class, where 0 is the highest priority, and with a deadline. The next command
+ * is taken from the class with the highest priority, and within a class the command with the earliest deadline is taken
+ * first. A class is promoted by one for each aging period its oldest command has been waiting, so that the commands
+ * with low priority are not starved. A command whose deadline has expired is not executed, and it fails with
+ * a {@link TimeoutException}. The queueing delay is controlled with the CoDel algorithm: when the delay of the commands
+ * has been above the target for a whole interval, the scheduler starts rejecting commands with a
+ * {@link RejectedExecutionException}, at a rate which increases until the delay drops below the target.
+ */
+public class DeadlineScheduler {
+    private static final Comparator<Task<?>> BY_DEADLINE = Comparator.comparingLong(task -> task.deadline);
+
+    private final Executor executor;
+    private final int concurrency;
+    private final int capacity;
+    private final long agingNanos;
+    private final long targetNanos;
+    private final long intervalNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<TaskQueue> queues;
+    private int size;
+    private int running;
+
+    private long firstAboveTime;
+    private long dropNext;
+    private int dropCount;
+    private boolean dropping;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private DeadlineScheduler(Executor executor, int concurrency, int priorities, int capacity, Duration aging, Duration target, Duration interval) {
+        this.executor = executor;
+        this.concurrency = concurrency;
+        this.capacity = capacity;
+        this.agingNanos = aging.toNanos();
+        this.targetNanos = target.toNanos();
+        this.intervalNanos = interval.toNanos();
+        this.queues = new ArrayList<>(priorities);
+        for (int i = 0; i < priorities; i++) {
+            queues.add(new TaskQueue());
+        }
+    }
+
+    /**
+     * Creates new instance with given executor, concurrency and number of priority classes. By default the capacity
+     * is 10000 commands, the aging period is 1 second, and the CoDel target and interval are 5 and 100 milliseconds.
+     *
+     * @param executor the executor of the commands
+     * @param concurrency the maximum number of commands executing at the same time
+     * @param priorities the number of priority classes
+     * @return new instance
+     * @throws NullPointerException if executor is null
+     * @throws IllegalArgumentException if concurrency or priorities is less than 1
+     */
+    public static DeadlineScheduler of(Executor executor, int concurrency, int priorities) {
+        Objects.requireNonNull(executor);
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be greater than 0");
+        }
+        if (priorities < 1) {
+            throw new IllegalArgumentException("priorities must be greater than 0");
+        }
+        return new DeadlineScheduler(executor, concurrency, priorities, 10000, Duration.ofSeconds(1), Duration.ofMillis(5), Duration.ofMillis(100));
+    }
+
+    /**
+     * Returns a new instance with given capacity.
+     *
+     * @param capacity the maximum number of waiting commands
+     * @return new instance
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    public DeadlineScheduler withCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be greater than 0");
+        }
+        return new DeadlineScheduler(executor, concurrency, queues.size(), capacity, Duration.ofNanos(agingNanos), Duration.ofNanos(targetNanos), Duration.ofNanos(intervalNanos));
+    }
+
+    /**
+     * Returns a new instance with given aging period.
+     *
+     * @param aging the waiting time after which a command is promoted by one class
+     * @return new instance
+     * @throws NullPointerException if aging is null
+     * @throws IllegalArgumentException if aging is not positive
+     */
+    public DeadlineScheduler withAging(Duration aging) {
+        Objects.requireNonNull(aging);
+        if (aging.isNegative() || aging.isZero()) {
+            throw new IllegalArgumentException("aging must be positive");
+        }
+        return new DeadlineScheduler(executor, concurrency, queues.size(), capacity, aging, Duration.ofNanos(targetNanos), Duration.ofNanos(intervalNanos));
+    }
+
+    /**
+     * Returns a new instance with given CoDel parameters.
+     *
+     * @param target the acceptable queueing delay
+     * @param interval the time the delay can stay above the target before shedding
+     * @return new instance
+     * @throws NullPointerException if target or interval is null
+     * @throws IllegalArgumentException if target is negative or interval is not positive
+     */
+    public DeadlineScheduler withCoDel(Duration target, Duration interval) {
+        Objects.requireNonNull(target);
+        Objects.requireNonNull(interval);
+        if (target.isNegative()) {
+            throw new IllegalArgumentException("target must not be negative");
+        }
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        return new DeadlineScheduler(executor, concurrency, queues.size(), capacity, Duration.ofNanos(agingNanos), target, interval);
+    }
+
+    /**
+     * Submits the command with given priority and deadline.
+     *
+     * @param command the command
+     * @param priority the priority class, where 0 is the highest priority
+     * @param timeout the time after which the command is not executed anymore
+     * @return the future result
+     * @throws NullPointerException if command or timeout is null
+     * @throws IllegalArgumentException if priority is not a valid class
+     * @param <V> the value's type
+     */
+    public <V> CompletableFuture<Either<V>> submit(Command<V> command, int priority, Duration timeout) {
+        return submit(command, priority, timeout, CancellationToken.none());
+    }
+
+    /**
+     * Submits the command with given priority, deadline and cancellation token.
+     *
+     * @param command the command
+     * @param priority the priority class, where 0 is the highest priority
+     * @param timeout the time after which the command is not executed anymore
+     * @param token the cancellation token
+     * @return the future result
+     * @throws NullPointerException if command, timeout or token is null
+     * @throws IllegalArgumentException if priority is not a valid class
+     * @param <V> the value's type
+     */
+    public <V> CompletableFuture<Either<V>> submit(Command<V> command, int priority, Duration timeout, CancellationToken token) {
+        Objects.requireNonNull(command);
+        Objects.requireNonNull(timeout);
+        Objects.requireNonNull(token);
+        if (priority < 0 || priority >= queues.size()) {
+            throw new IllegalArgumentException("priority must be between 0 and " + (queues.size() - 1));
+        }
+
+        final long now = System.nanoTime();
+        final Task<V> task = new Task<>(command, token, now, now + timeout.toNanos());
+
+        boolean start = false;
+        lock.lock();
+        try {
+            if (size >= capacity) {
+                rejected.increment();
+                task.fail(new RejectedExecutionException("Queue is full"));
+                return task.future;
+            }
+            queues.get(priority).add(task);
+            size += 1;
+            if (running < concurrency) {
+                running += 1;
+                start = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (start) {
+            start();
+        }
+
+        return task.future;
+    }
+
+    /**
+     * Returns the number of waiting commands.
+     *
+     * @return the number of waiting commands
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the statistics.
+     *
+     * @return the statistics
+     */
+    public Statistics statistics() {
+        return new Statistics(executed.sum(), expired.sum(), shed.sum(), rejected.sum());
+    }
+
+    private void start() {
+        try {
+            executor.execute(this::work);
+        } catch (RejectedExecutionException e) {
+            final List<Task<?>> tasks = new ArrayList<>();
+            lock.lock();
+            try {
+                running -= 1;
+                if (running == 0) {
+                    // no worker is left to take the waiting commands
+                    queues.forEach(queue -> queue.drainTo(tasks));
+                    size = 0;
+                }
+            } finally {
+                lock.unlock();
+            }
+            tasks.forEach(task -> task.fail(e));
+        }
+    }
+
+    private void work() {
+        final List<Task<?>> dropped = new ArrayList<>();
+        while (true) {
+            final Task<?> task;
+            lock.lock();
+            try {
+                task = next(System.nanoTime(), dropped);
+                if (task == null) {
+                    running -= 1;
+                }
+            } finally {
+                lock.unlock();
+            }
+            // the futures are completed outside the lock because they might run callbacks
+            dropped.forEach(Task::complete);
+            dropped.clear();
+            if (task == null) {
+                return;
+            }
+            try {
+                task.execute();
+            } catch (Throwable e) {
+                task.future.completeExceptionally(e);
+                // the slot is handed over to a new worker, because the error terminates this one
+                start();
+                throw e;
+            }
+            executed.increment();
+            task.complete();
+        }
+    }
+
+    private Task<?> next(long now, List<Task<?>> dropped) {
+        while (size > 0) {
+            final TaskQueue queue = select(now);
+            final Task<?> task = queue.poll();
+            size -= 1;
+            if (now - task.deadline > 0) {
+                expired.increment();
+                task.result = Either.failure(new TimeoutException("Deadline expired before execution"));
+                dropped.add(task);
+            } else if (shouldDrop(now, now - task.enqueued)) {
+                shed.increment();
+                task.result = Either.failure(new RejectedExecutionException("Queueing delay exceeds target"));
+                dropped.add(task);
+            } else {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    private TaskQueue select(long now) {
+        TaskQueue selected = null;
+        long selectedPriority = Long.MAX_VALUE;
+        for (int i = 0; i < queues.size(); i++) {
+            // the class is promoted by the waiting time of its oldest command, which is not the one with the earliest deadline
+            final Task<?> oldest = queues.get(i).oldest();
+            if (oldest != null) {
+                final long priority = i - (now - oldest.enqueued) / agingNanos;
+                if (priority < selectedPriority) {
+                    selected = queues.get(i);
+                    selectedPriority = priority;
+                }
+            }
+        }
+        return selected;
+    }
+
+    private boolean shouldDrop(long now, long delay) {
+        if (delay < targetNanos) {
+            firstAboveTime = 0;
+            dropping = false;
+            return false;
+        }
+        if (!dropping) {
+            if (firstAboveTime == 0) {
+                firstAboveTime = now + intervalNanos;
+                return false;
+            }
+            if (now - firstAboveTime < 0) {
+                return false;
+            }
+            dropping = true;
+            // the drop rate is resumed if the delay grows again soon after the last dropping state
+            dropCount = dropCount > 2 && now - dropNext < 8 * intervalNanos ? dropCount - 2 : 1;
+            dropNext = now + (long) (intervalNanos / Math.sqrt(dropCount));
+            return true;
+        }
+        if (now - dropNext >= 0) {
+            dropCount += 1;
+            dropNext += (long) (intervalNanos / Math.sqrt(dropCount));
+            return true;
+        }
+        return false;
+    }
+
+    private static class Task<V> {
+        private final Command<V> command;
+        private final CancellationToken token;
+        private final long enqueued;
+        private final long deadline;
+        private final Context context = Context.current();
+        private final CompletableFuture<Either<V>> future = new CompletableFuture<>();
+        private Either<?> result;
+        private boolean taken;
+
+        private Task(Command<V> command, CancellationToken token, long enqueued, long deadline) {
+            this.command = command;
+            this.token = token;
+            this.enqueued = enqueued;
+            this.deadline = deadline;
+        }
+
+        private void execute() {
+            result = context.execute(command, token);
+        }
+
+        private void fail(Exception exception) {
+            future.complete(Either.failure(exception));
+        }
+
+        @SuppressWarnings("unchecked")
+        private void complete() {
+            future.complete((Either<V>) result);
+        }
+    }
+
+    private static class TaskQueue {
+        private final PriorityQueue<Task<?>> byDeadline = new PriorityQueue<>(BY_DEADLINE);
+        private final ArrayDeque<Task<?>> byArrival = new ArrayDeque<>();
+
+        private void add(Task<?> task) {
+            byDeadline.add(task);
+            byArrival.addLast(task);
+        }
+
+        private Task<?> poll() {
+            final Task<?> task = byDeadline.poll();
+            if (task != null) {
+                task.taken = true;
+                // the tasks which have been taken are removed lazily from the arrival order
+                while (!byArrival.isEmpty() && byArrival.peekFirst().taken) {
+                    byArrival.pollFirst();
+                }
+            }
+            return task;
+        }
+
+        private Task<?> oldest() {
+            return byArrival.peekFirst();
+        }
+
+        private void drainTo(List<Task<?>> tasks) {
+            tasks.addAll(byDeadline);
+            byDeadline.clear();
+            byArrival.clear();
+        }
+    }
+
+    /**
+     * Statistics represents a snapshot of the statistics of the scheduler.
+     */
+    public static final class Statistics {
+        private final long executed;
+        private final long expired;
+        private final long shed;
+        private final long rejected;
+
+        private Statistics(long executed, long expired, long shed, long rejected) {
+            this.executed = executed;
+            this.expired = expired;
+            this.shed = shed;
+            this.rejected = rejected;
+        }
+
+        /**
+         * Returns the number of executed commands.
+         *
+         * @return the number of executed commands
+         */
+        public long executed() {
+            return executed;
+        }
+
+        /**
+         * Returns the number of commands which were not executed because their deadline had expired.
+         *
+         * @return the number of expired commands
+         */
+        public long expired() {
+            return expired;
+        }
+
+        /**
+         * Returns the number of commands which were rejected because the queueing delay was above the target.
+         *
+         * @return the number of shed commands
+         */
+        public long shed() {
+            return shed;
+        }
+
+        /**
+         * Returns the number of commands which were rejected because the queue was full.
+         *
+         * @return the number of rejected commands
+         */
+        public long rejected() {
+            return rejected;
+        }
+    }
+}
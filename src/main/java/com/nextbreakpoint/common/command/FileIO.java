@@ -0,0 +1,331 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+import com.nextbreakpoint.common.function.ThrowingFunction;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FileIO creates commands which read and write byte ranges of files without copying the data to the heap.
+ * <p>
+ * The ranges are read with an {@link AsynchronousFileChannel} into direct buffers taken from a pool, and the buffer
+ * is passed to a function which extracts the result, then the buffer is returned to the pool, therefore the buffer
+ * must not be used after the function has returned. The asynchronous methods don't block any thread while waiting
+ * for the file system, and the function is invoked on a thread of the channel. The ranges which are larger than
+ * the buffers of the pool are read into buffers which are not pooled. The ranges can also be mapped in memory,
+ * which doesn't copy the data at all, and the mapping is released by the garbage collector.
+ */
+public final class FileIO {
+    private final int bufferSize;
+    private final int maxBuffers;
+
+    private final ConcurrentLinkedQueue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger available = new AtomicInteger();
+
+    private FileIO(int bufferSize, int maxBuffers) {
+        this.bufferSize = bufferSize;
+        this.maxBuffers = maxBuffers;
+    }
+
+    /**
+     * Creates new instance with given pool of buffers.
+     *
+     * @param bufferSize the capacity of the buffers
+     * @param maxBuffers the maximum number of buffers retained by the pool
+     * @return new instance
+     * @throws IllegalArgumentException if bufferSize or maxBuffers is less than 1
+     */
+    public static FileIO of(int bufferSize, int maxBuffers) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be greater than 0");
+        }
+        if (maxBuffers < 1) {
+            throw new IllegalArgumentException("maxBuffers must be greater than 0");
+        }
+        return new FileIO(bufferSize, maxBuffers);
+    }
+
+    /**
+     * Creates new command which maps the range of the file in memory, and returns a read-only buffer.
+     *
+     * @param file the file
+     * @param position the position of the range
+     * @param size the size of the range
+     * @return new command
+     * @throws NullPointerException if file is null
+     * @throws IllegalArgumentException if position or size is negative
+     */
+    public static Command<ByteBuffer> map(Path file, long position, long size) {
+        Objects.requireNonNull(file);
+        if (position < 0 || size < 0) {
+            throw new IllegalArgumentException("position and size must not be negative");
+        }
+        return Command.of(() -> {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                // the mapping remains valid after the channel has been closed
+                return channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(size, Math.max(0, channel.size() - position)));
+            }
+        });
+    }
+
+    /**
+     * Creates new command which reads the range of the file, and returns the result of the function.
+     * The range is shorter than the given length if the file ends before.
+     *
+     * @param file the file
+     * @param position the position of the range
+     * @param length the length of the range
+     * @param function the function which receives the buffer containing the range
+     * @return new command
+     * @throws NullPointerException if file or function is null
+     * @throws IllegalArgumentException if position or length is negative
+     * @param <R> the result's type
+     */
+    public <R> Command<R> read(Path file, long position, int length, ThrowingFunction<ByteBuffer, R> function) {
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(function);
+        checkRange(position, length);
+        return Command.of(() -> await(readAsync(file, position, length, function)));
+    }
+
+    /**
+     * Reads the range of the file asynchronously, and returns the future result of the function.
+     * The range is shorter than the given length if the file ends before.
+     *
+     * @param file the file
+     * @param position the position of the range
+     * @param length the length of the range
+     * @param function the function which receives the buffer containing the range
+     * @return the future result
+     * @throws NullPointerException if file or function is null
+     * @throws IllegalArgumentException if position or length is negative
+     * @param <R> the result's type
+     */
+    public <R> CompletableFuture<Either<R>> readAsync(Path file, long position, int length, ThrowingFunction<ByteBuffer, R> function) {
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(function);
+        checkRange(position, length);
+        final CompletableFuture<Either<R>> future = new CompletableFuture<>();
+        final AsynchronousFileChannel channel;
+        try {
+            channel = AsynchronousFileChannel.open(file, StandardOpenOption.READ);
+        } catch (IOException | RuntimeException e) {
+            future.complete(Either.failure(e));
+            return future;
+        }
+        final ByteBuffer buffer = acquire(length);
+        buffer.limit(length);
+        final CompletionHandler<Integer, Void> handler = new CompletionHandler<Integer, Void>() {
+            @Override
+            public void completed(Integer result, Void attachment) {
+                if (result >= 0 && buffer.hasRemaining()) {
+                    read(channel, buffer, position + buffer.position(), this);
+                    return;
+                }
+                buffer.flip();
+                try {
+                    complete(Either.success(function.apply(buffer)));
+                } catch (Exception e) {
+                    complete(Either.failure(e));
+                } catch (Throwable e) {
+                    // the channel and the buffer are released, and the caller waits for the future
+                    complete(Either.failure(new ExecutionException(e)));
+                    throw e;
+                }
+            }
+
+            @Override
+            public void failed(Throwable exception, Void attachment) {
+                complete(Either.failure(asException(exception)));
+            }
+
+            private void complete(Either<R> result) {
+                close(channel);
+                release(buffer);
+                future.complete(result);
+            }
+        };
+        read(channel, buffer, position, handler);
+        return future;
+    }
+
+    /**
+     * Creates new command which writes the remaining bytes of the data at the given position of the file,
+     * and returns the number of bytes written. The file is created if it doesn't exist.
+     *
+     * @param file the file
+     * @param position the position in the file
+     * @param data the data
+     * @return new command
+     * @throws NullPointerException if file or data is null
+     * @throws IllegalArgumentException if position is negative
+     */
+    public Command<Integer> write(Path file, long position, ByteBuffer data) {
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(data);
+        checkRange(position, 0);
+        return Command.of(() -> await(writeAsync(file, position, data)));
+    }
+
+    /**
+     * Writes the remaining bytes of the data at the given position of the file asynchronously, and returns the future
+     * number of bytes written. The file is created if it doesn't exist. The position of the data is not modified, and
+     * the data must not be modified until the future has completed. The data of a heap buffer is copied into the
+     * direct buffers of the pool before writing.
+     *
+     * @param file the file
+     * @param position the position in the file
+     * @param data the data
+     * @return the future number of bytes written
+     * @throws NullPointerException if file or data is null
+     * @throws IllegalArgumentException if position is negative
+     */
+    public CompletableFuture<Either<Integer>> writeAsync(Path file, long position, ByteBuffer data) {
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(data);
+        checkRange(position, 0);
+        final CompletableFuture<Either<Integer>> future = new CompletableFuture<>();
+        final AsynchronousFileChannel channel;
+        try {
+            channel = AsynchronousFileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        } catch (IOException | RuntimeException e) {
+            future.complete(Either.failure(e));
+            return future;
+        }
+        final ByteBuffer source = data.duplicate();
+        final int total = source.remaining();
+        final ByteBuffer buffer = source.isDirect() ? source : acquire(Math.min(total, bufferSize));
+        if (buffer != source) {
+            fill(buffer, source);
+        }
+        final CompletionHandler<Integer, Void> handler = new CompletionHandler<Integer, Void>() {
+            private long written;
+
+            @Override
+            public void completed(Integer result, Void attachment) {
+                written += result;
+                if (!buffer.hasRemaining() && buffer != source && source.hasRemaining()) {
+                    buffer.clear();
+                    fill(buffer, source);
+                }
+                if (buffer.hasRemaining()) {
+                    write(channel, buffer, position + written, this);
+                } else {
+                    complete(Either.success(total));
+                }
+            }
+
+            @Override
+            public void failed(Throwable exception, Void attachment) {
+                complete(Either.failure(asException(exception)));
+            }
+
+            private void complete(Either<Integer> result) {
+                close(channel);
+                if (buffer != source) {
+                    release(buffer);
+                }
+                future.complete(result);
+            }
+        };
+        write(channel, buffer, position, handler);
+        return future;
+    }
+
+    /**
+     * Returns the number of buffers in the pool which are not in use.
+     *
+     * @return the number of available buffers
+     */
+    public int available() {
+        return available.get();
+    }
+
+    private ByteBuffer acquire(int length) {
+        if (length > bufferSize) {
+            return ByteBuffer.allocateDirect(length);
+        }
+        final ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        available.decrementAndGet();
+        return buffer;
+    }
+
+    private void release(ByteBuffer buffer) {
+        if (buffer.capacity() != bufferSize) {
+            return;
+        }
+        if (available.incrementAndGet() > maxBuffers) {
+            available.decrementAndGet();
+            return;
+        }
+        buffer.clear();
+        buffers.offer(buffer);
+    }
+
+    private static void fill(ByteBuffer buffer, ByteBuffer source) {
+        final int length = Math.min(buffer.remaining(), source.remaining());
+        final ByteBuffer slice = source.duplicate();
+        slice.limit(slice.position() + length);
+        buffer.put(slice);
+        source.position(source.position() + length);
+        buffer.flip();
+    }
+
+    private static void read(AsynchronousFileChannel channel, ByteBuffer buffer, long position, CompletionHandler<Integer, Void> handler) {
+        try {
+            channel.read(buffer, position, null, handler);
+        } catch (RuntimeException e) {
+            // the channel throws instead of invoking the handler when the operation can't be started
+            handler.failed(e, null);
+        }
+    }
+
+    private static void write(AsynchronousFileChannel channel, ByteBuffer buffer, long position, CompletionHandler<Integer, Void> handler) {
+        try {
+            channel.write(buffer, position, null, handler);
+        } catch (RuntimeException e) {
+            // the channel throws instead of invoking the handler when the operation can't be started
+            handler.failed(e, null);
+        }
+    }
+
+    private static void checkRange(long position, int length) {
+        if (position < 0 || length < 0) {
+            throw new IllegalArgumentException("position and length must not be negative");
+        }
+    }
+
+    private static <R> R await(CompletableFuture<Either<R>> future) throws Exception {
+        try {
+            return future.get().orThrow().get();
+        } catch (ExecutionException e) {
+            throw asException(e.getCause());
+        }
+    }
+
+    private static Exception asException(Throwable throwable) {
+        return throwable instanceof Exception ? (Exception) throwable : new ExecutionException(throwable);
+    }
+
+    private static void close(AsynchronousFileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // the operation has completed already
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hedging implements a policy for reducing the tail latency of a command.
+ * <p>
+ * The decorated command executes the original command on the executor, and when the execution has not completed
+ * after the hedging delay, it executes the original command again, up to the maximum number of attempts.
+ * The result is the first successful result, or the last failure when all attempts fail, and the pending attempts
+ * are cancelled as soon as the result is known. Failures don't trigger new attempts.
+ * The attempts are cancelled too when the cancellation token of the execution is cancelled.
+ * <p>
+ * The hedging delay is either fixed or the given percentile of the observed latency. The budget limits the extra load:
+ * each execution earns a fraction of an attempt, and each additional attempt spends a whole attempt.
+ * The policy keeps the statistics and the budget, therefore it should be shared by the commands which call the same backend.
+ */
+public class Hedging {
+    private static final long TOKEN = 1000;
+    private static final long WINDOW = 10000;
+    private static final long MIN_SAMPLES = 100;
+    private static final long BURST = 100;
+
+    private final ExecutorService executor;
+    private final Duration delay;
+    private final double percentile;
+    private final int maxAttempts;
+    private final double budget;
+    private final long maxTokens;
+    private final AtomicLong tokens;
+    private final AtomicLong hedges = new AtomicLong();
+    private final LatencyHistogram histogram = new LatencyHistogram(WINDOW);
+
+    private Hedging(ExecutorService executor, Duration delay, double percentile, int maxAttempts, double budget) {
+        this.executor = executor;
+        this.delay = delay;
+        this.percentile = percentile;
+        this.maxAttempts = maxAttempts;
+        this.budget = budget;
+        this.maxTokens = budget > 0 ? (long) Math.max(TOKEN, budget * TOKEN * BURST) : 0;
+        this.tokens = new AtomicLong(maxTokens);
+    }
+
+    /**
+     * Creates new instance with given executor and delay.
+     * <p>
+     * The default policy makes at most two attempts and lets hedging add up to 10% of extra load.
+     *
+     * @param executor the executor of the attempts
+     * @param delay the delay after which a new attempt is executed
+     * @return new instance
+     * @throws NullPointerException if executor or delay is null
+     * @throws IllegalArgumentException if delay is negative
+     */
+    public static Hedging of(ExecutorService executor, Duration delay) {
+        Objects.requireNonNull(executor);
+        Objects.requireNonNull(delay);
+        if (delay.isNegative()) {
+            throw new IllegalArgumentException("delay must not be negative");
+        }
+        return new Hedging(executor, delay, 0, 2, 0.1);
+    }
+
+    /**
+     * Returns a new instance with given maximum number of attempts.
+     *
+     * @param maxAttempts the maximum number of attempts, including the first one
+     * @return new instance
+     * @throws IllegalArgumentException if maxAttempts is less than 1
+     */
+    public Hedging withMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be greater than 0");
+        }
+        return new Hedging(executor, delay, percentile, maxAttempts, budget);
+    }
+
+    /**
+     * Returns a new instance which uses the given percentile of the observed latency as delay.
+     * <p>
+     * The fixed delay is used until enough latencies have been observed.
+     *
+     * @param percentile the percentile between 0 and 1, or 0 to always use the fixed delay
+     * @return new instance
+     * @throws IllegalArgumentException if percentile is not between 0 and 1
+     */
+    public Hedging withPercentile(double percentile) {
+        if (percentile < 0 || percentile > 1) {
+            throw new IllegalArgumentException("percentile must be between 0 and 1");
+        }
+        return new Hedging(executor, delay, percentile, maxAttempts, budget);
+    }
+
+    /**
+     * Returns a new instance with given budget.
+     *
+     * @param budget the maximum number of additional attempts per execution, for instance 0.05 for 5% of extra load
+     * @return new instance
+     * @throws IllegalArgumentException if budget is negative
+     */
+    public Hedging withBudget(double budget) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("budget must not be negative");
+        }
+        return new Hedging(executor, delay, percentile, maxAttempts, budget);
+    }
+
+    /**
+     * Returns the number of additional attempts executed so far.
+     *
+     * @return the number of hedges
+     */
+    public long hedges() {
+        return hedges.get();
+    }
+
+    /**
+     * Returns the current hedging delay.
+     *
+     * @return the delay
+     */
+    public Duration delay() {
+        if (percentile > 0 && histogram.count() >= MIN_SAMPLES) {
+            return Duration.ofNanos(histogram.percentile(percentile));
+        }
+        return delay;
+    }
+
+    /**
+     * Creates new command which executes the given command with this policy.
+     *
+     * @param command the command
+     * @return new instance
+     * @throws NullPointerException if command is null
+     * @param <V> the value's type
+     */
+    public <V> Command<V> apply(Command<V> command) {
+        Objects.requireNonNull(command);
+        return Command.of(token -> execute(command, token).orThrow().get());
+    }
+
+    private <V> Either<V> execute(Command<V> command, CancellationToken token) throws InterruptedException {
+        deposit();
+
+        final BlockingQueue<Either<V>> results = new LinkedBlockingQueue<>();
+        final List<Future<?>> futures = new ArrayList<>(maxAttempts);
+
+        // the attempts have their own token, because cancelling an attempt must not cancel the caller
+        final CancellationToken attemptToken = CancellationToken.create();
+
+        final CancellationToken.Registration registration = token.onCancel(attemptToken::cancel);
+
+        try {
+            futures.add(submit(command, attemptToken, results));
+
+            final long delayNanos = delay().toNanos();
+
+            long deadline = System.nanoTime() + delayNanos;
+
+            boolean hedging = maxAttempts > 1;
+
+            int completed = 0;
+
+            while (true) {
+                final Either<V> result = hedging ? results.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS) : results.take();
+
+                if (result == null) {
+                    hedging = withdraw() && hedge(command, attemptToken, results, futures);
+                    deadline = System.nanoTime() + delayNanos;
+                } else {
+                    completed += 1;
+                    if (result.isSuccess() || completed == futures.size()) {
+                        return result;
+                    }
+                }
+            }
+        } finally {
+            registration.close();
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private <V> boolean hedge(Command<V> command, CancellationToken token, BlockingQueue<Either<V>> results, List<Future<?>> futures) {
+        try {
+            futures.add(submit(command, token, results));
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+        hedges.incrementAndGet();
+        return futures.size() < maxAttempts;
+    }
+
+    private <V> Future<?> submit(Command<V> command, CancellationToken token, BlockingQueue<Either<V>> results) {
+        final Context context = Context.current();
+        return executor.submit(() -> {
+            final long time = System.nanoTime();
+            final Either<V> result = context.execute(command, token);
+            if (result.isSuccess()) {
+                histogram.record(System.nanoTime() - time);
+            }
+            results.add(result);
+        });
+    }
+
+    private void deposit() {
+        final long amount = (long) (budget * TOKEN);
+        long current;
+        do {
+            current = tokens.get();
+            if (current >= maxTokens) {
+                return;
+            }
+        } while (!tokens.compareAndSet(current, Math.min(maxTokens, current + amount)));
+    }
+
+    private boolean withdraw() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+}
@@ -0,0 +1,68 @@
+package com.nextbreakpoint.common.command;
+
+/**
+ * Interceptor implements a behaviour which is applied around the execution of commands and their stages.
+ * <p>
+ * The interceptors are invoked in order, the global interceptors before the interceptors of the command,
+ * and each interceptor decides whether and when to proceed with the next interceptor, or with the operation
+ * when it is the last interceptor. An interceptor can return a different value or throw an exception,
+ * and the exception becomes the failure of the command.
+ *
+ * @see Command#setGlobalInterceptors(Interceptor...)
+ * @see Command#withInterceptors(Interceptor...)
+ */
+@FunctionalInterface
+public interface Interceptor {
+    /**
+     * Intercepts the invocation.
+     *
+     * @param invocation the invocation
+     * @return the value returned by the invocation, or a value of the same type
+     * @throws Exception some error
+     */
+    Object intercept(Invocation<?> invocation) throws Exception;
+
+    /**
+     * Kind represents the operation which is intercepted.
+     */
+    enum Kind {
+        /**
+         * The execution of a command, which includes all the stages of the command.
+         */
+        EXECUTE,
+        /**
+         * The evaluation of a stage, which includes the stages it depends on.
+         */
+        STAGE
+    }
+
+    /**
+     * Invocation represents the intercepted operation and the remaining interceptors.
+     *
+     * @param <V> the value's type
+     */
+    interface Invocation<V> {
+        /**
+         * Returns the kind of the operation.
+         *
+         * @return the kind
+         */
+        Kind kind();
+
+        /**
+         * Returns the cancellation token of the execution.
+         *
+         * @return the token
+         */
+        CancellationToken token();
+
+        /**
+         * Proceeds with the next interceptor, or with the operation. It can be invoked more than once,
+         * for instance to retry the operation, but not concurrently.
+         *
+         * @return the value
+         * @throws Exception some error
+         */
+        V proceed() throws Exception;
+    }
+}
@@ -0,0 +1,135 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+import com.nextbreakpoint.common.internal.SerialQueue;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * KeyedExecutor executes commands with the same key in submission order, and commands with different keys in parallel.
+ * <p>
+ * The keys are mapped to a fixed number of lanes, and each lane is a lock-free queue which is drained by at most one
+ * thread of the executor at a time, therefore no thread is dedicated to a key. Commands with keys mapped to the same lane
+ * are executed in submission order too. The backlog of each lane is bounded, and a command submitted to a full lane is
+ * rejected with a failure.
+ */
+public class KeyedExecutor {
+    private final SerialQueue<Task<?>>[] lanes;
+
+    @SuppressWarnings("unchecked")
+    private KeyedExecutor(Executor executor, int lanes, int maxBacklog) {
+        this.lanes = (SerialQueue<Task<?>>[]) new SerialQueue<?>[lanes];
+        for (int i = 0; i < lanes; i++) {
+            this.lanes[i] = SerialQueue.of(executor, maxBacklog, Task::run, Task::reject);
+        }
+    }
+
+    /**
+     * Creates new instance with given executor, number of lanes and maximum backlog.
+     *
+     * @param executor the executor
+     * @param lanes the number of lanes, which is rounded up to a power of two
+     * @param maxBacklog the maximum number of pending commands per lane
+     * @return new instance
+     * @throws NullPointerException if executor is null
+     * @throws IllegalArgumentException if lanes or maxBacklog is less than 1
+     */
+    public static KeyedExecutor of(Executor executor, int lanes, int maxBacklog) {
+        Objects.requireNonNull(executor);
+        if (lanes < 1 || lanes > 1 << 30) {
+            throw new IllegalArgumentException("lanes must be between 1 and 2^30");
+        }
+        if (maxBacklog < 1) {
+            throw new IllegalArgumentException("maxBacklog must be greater than 0");
+        }
+        int size = 1;
+        while (size < lanes) {
+            size <<= 1;
+        }
+        return new KeyedExecutor(executor, size, maxBacklog);
+    }
+
+    /**
+     * Submits a command for the given key.
+     *
+     * @param key the key
+     * @param command the command
+     * @return the future result
+     * @throws NullPointerException if key or command is null
+     * @param <V> the value's type
+     */
+    public <V> CompletableFuture<Either<V>> submit(Object key, Command<V> command) {
+        return submit(key, command, CancellationToken.none());
+    }
+
+    /**
+     * Submits a command for the given key. The command is skipped if the token is cancelled before the command is executed.
+     *
+     * @param key the key
+     * @param command the command
+     * @param token the cancellation token
+     * @return the future result
+     * @throws NullPointerException if key, command or token is null
+     * @param <V> the value's type
+     */
+    public <V> CompletableFuture<Either<V>> submit(Object key, Command<V> command, CancellationToken token) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(command);
+        Objects.requireNonNull(token);
+
+        final CompletableFuture<Either<V>> future = new CompletableFuture<>();
+
+        final SerialQueue<Task<?>> lane = lanes[spread(key.hashCode()) & (lanes.length - 1)];
+
+        if (!lane.offer(new Task<>(command, token, future))) {
+            future.complete(Either.failure(new RejectedExecutionException("Backlog is full")));
+        }
+
+        return future;
+    }
+
+    /**
+     * Returns the number of pending or running commands for the given key, including the commands of other keys in the same lane.
+     *
+     * @param key the key
+     * @return the number of pending commands
+     * @throws NullPointerException if key is null
+     */
+    public int backlog(Object key) {
+        Objects.requireNonNull(key);
+        return lanes[spread(key.hashCode()) & (lanes.length - 1)].size();
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static class Task<V> {
+        private final Command<V> command;
+        private final CancellationToken token;
+        private final CompletableFuture<Either<V>> future;
+        private final Context context = Context.current();
+
+        private Task(Command<V> command, CancellationToken token, CompletableFuture<Either<V>> future) {
+            this.command = command;
+            this.token = token;
+            this.future = future;
+        }
+
+        private void run() {
+            try {
+                future.complete(context.execute(command, token));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        private void reject(Exception exception) {
+            future.complete(Either.failure(exception));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.nextbreakpoint.common.command;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram records latencies in logarithmic buckets without locking.
+ * <p>
+ * Each power of two is divided into four sub-buckets, therefore the relative error of a percentile is at most 25%.
+ * Old samples decay: when the number of samples reaches the window, all the counts are halved.
+ */
+class LatencyHistogram {
+    private static final int SUB_BUCKETS = 4;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final long window;
+
+    LatencyHistogram(long window) {
+        if (window < 2) {
+            throw new IllegalArgumentException("window must be greater than 1");
+        }
+        this.window = window;
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    void record(long nanos) {
+        counts.incrementAndGet(index(Math.max(nanos, 0)));
+        if (total.incrementAndGet() >= window) {
+            decay();
+        }
+    }
+
+    /**
+     * Returns the number of recorded samples, after decay.
+     *
+     * @return the number of samples
+     */
+    long count() {
+        return total.get();
+    }
+
+    /**
+     * Returns the upper bound of the bucket which contains the given percentile.
+     *
+     * @param percentile the percentile between 0 and 1
+     * @return the latency in nanoseconds or -1 if there are no samples
+     */
+    long percentile(double percentile) {
+        final long[] snapshot = new long[BUCKETS];
+        long sum = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            sum += snapshot[i];
+        }
+        if (sum == 0) {
+            return -1;
+        }
+        final long rank = (long) Math.ceil(percentile * sum);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank && snapshot[i] > 0) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    private void decay() {
+        synchronized (this) {
+            if (total.get() < window) {
+                return;
+            }
+            long sum = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                long count;
+                do {
+                    count = counts.get(i);
+                } while (!counts.compareAndSet(i, count, count / 2));
+                sum += count / 2;
+            }
+            total.set(sum);
+        }
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int fraction = (int) (value >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+        return Math.min((exponent - 1) * SUB_BUCKETS + fraction, BUCKETS - 1);
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int exponent = index / SUB_BUCKETS + 1;
+        final int fraction = index % SUB_BUCKETS;
+        if (exponent >= 62) {
+            return Long.MAX_VALUE;
+        }
+        return ((long) (SUB_BUCKETS + fraction + 1) << (exponent - 2)) - 1;
+    }
+}
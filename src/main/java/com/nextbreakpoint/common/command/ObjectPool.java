@@ -0,0 +1,472 @@
+package com.nextbreakpoint.common.command;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * ObjectPool lends expensive objects to commands, and it guarantees that each object is returned when the command completes.
+ * <p>
+ * The idle objects are kept in a lock-free stack, and each thread remembers the last object it has returned, so that
+ * a thread which executes commands repeatedly gets the same object without touching the shared stack. The objects
+ * are claimed with a compare-and-set, therefore an object remembered by a thread can still be taken by other threads.
+ * The number of objects is bounded, and a command waits for an idle object up to the maximum wait when the pool is
+ * exhausted, then it fails with a {@link RejectedExecutionException}. An object is validated before being lent,
+ * and the invalid objects are destroyed and replaced. The objects which have been idle longer than the maximum idle
+ * time are destroyed when they are found by a command, or when {@link #evict()} is invoked.
+ *
+ * @param <T> the object's type
+ */
+public final class ObjectPool<T> implements AutoCloseable {
+    private static final int IDLE = 0;
+    private static final int IN_USE = 1;
+    private static final int REMOVED = 2;
+
+    private final Callable<T> factory;
+    private final int maxSize;
+    private final Predicate<? super T> validator;
+    private final Consumer<? super T> destroyer;
+    private final long maxIdleNanos;
+    private final long maxWaitNanos;
+
+    private final AtomicReference<Node<T>> stack = new AtomicReference<>();
+    private final ThreadLocal<Entry<T>> lastReleased = new ThreadLocal<>();
+    private final Set<Entry<T>> entries = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile boolean closed;
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder invalid = new LongAdder();
+
+    private ObjectPool(Callable<T> factory, int maxSize, Predicate<? super T> validator, Consumer<? super T> destroyer, long maxIdleNanos, long maxWaitNanos) {
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.validator = validator;
+        this.destroyer = destroyer;
+        this.maxIdleNanos = maxIdleNanos;
+        this.maxWaitNanos = maxWaitNanos;
+    }
+
+    /**
+     * Creates new pool with given factory and maximum size. By default the objects are always valid, they are not
+     * destroyed explicitly, they are never evicted, and a command doesn't wait when the pool is exhausted.
+     *
+     * @param factory the factory of the objects
+     * @param maxSize the maximum number of objects
+     * @return new instance
+     * @throws NullPointerException if factory is null
+     * @throws IllegalArgumentException if maxSize is less than 1
+     * @param <T> the object's type
+     */
+    public static <T> ObjectPool<T> of(Callable<T> factory, int maxSize) {
+        Objects.requireNonNull(factory);
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be greater than 0");
+        }
+        return new ObjectPool<>(factory, maxSize, object -> true, object -> {}, Long.MAX_VALUE, 0);
+    }
+
+    /**
+     * Returns a new empty pool with given validator, which is invoked before lending an object.
+     *
+     * @param validator the validator
+     * @return new instance
+     * @throws NullPointerException if validator is null
+     */
+    public ObjectPool<T> withValidator(Predicate<? super T> validator) {
+        Objects.requireNonNull(validator);
+        return new ObjectPool<>(factory, maxSize, validator, destroyer, maxIdleNanos, maxWaitNanos);
+    }
+
+    /**
+     * Returns a new empty pool with given destroyer, which is invoked when an object is removed from the pool.
+     *
+     * @param destroyer the destroyer
+     * @return new instance
+     * @throws NullPointerException if destroyer is null
+     */
+    public ObjectPool<T> withDestroyer(Consumer<? super T> destroyer) {
+        Objects.requireNonNull(destroyer);
+        return new ObjectPool<>(factory, maxSize, validator, destroyer, maxIdleNanos, maxWaitNanos);
+    }
+
+    /**
+     * Returns a new empty pool with given maximum idle time.
+     *
+     * @param maxIdle the time after which an idle object is evicted
+     * @return new instance
+     * @throws NullPointerException if maxIdle is null
+     * @throws IllegalArgumentException if maxIdle is not positive
+     */
+    public ObjectPool<T> withMaxIdle(Duration maxIdle) {
+        Objects.requireNonNull(maxIdle);
+        if (maxIdle.isNegative() || maxIdle.isZero()) {
+            throw new IllegalArgumentException("maxIdle must be positive");
+        }
+        return new ObjectPool<>(factory, maxSize, validator, destroyer, maxIdle.toNanos(), maxWaitNanos);
+    }
+
+    /**
+     * Returns a new empty pool with given maximum wait.
+     *
+     * @param maxWait the time a command waits for an idle object when the pool is exhausted
+     * @return new instance
+     * @throws NullPointerException if maxWait is null
+     * @throws IllegalArgumentException if maxWait is negative
+     */
+    public ObjectPool<T> withMaxWait(Duration maxWait) {
+        Objects.requireNonNull(maxWait);
+        if (maxWait.isNegative()) {
+            throw new IllegalArgumentException("maxWait must not be negative");
+        }
+        return new ObjectPool<>(factory, maxSize, validator, destroyer, maxIdleNanos, maxWait.toNanos());
+    }
+
+    /**
+     * Creates new command which borrows an object, executes the command returned by the function with the object,
+     * and returns the object to the pool when the command completes, either with success or failure.
+     * The object must not be used after the command has completed.
+     *
+     * @param function the function which creates the command using the object
+     * @return new command
+     * @throws NullPointerException if function is null
+     * @param <R> the value's type
+     */
+    public <R> Command<R> bracket(Function<? super T, Command<R>> function) {
+        Objects.requireNonNull(function);
+        return Command.of(token -> {
+            final Entry<T> entry = acquire();
+            try {
+                return Objects.requireNonNull(function.apply(entry.object)).execute(token).orThrow().get();
+            } finally {
+                release(entry);
+            }
+        });
+    }
+
+    /**
+     * Destroys the idle objects which have been idle longer than the maximum idle time.
+     *
+     * @return the number of destroyed objects
+     */
+    public int evict() {
+        final long now = System.nanoTime();
+        int count = 0;
+        for (Entry<T> entry : entries) {
+            if (entry.state.get() == IDLE && now - entry.idleSince > maxIdleNanos && entry.state.compareAndSet(IDLE, REMOVED)) {
+                destroy(entry);
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns a snapshot of the statistics.
+     *
+     * @return the statistics
+     */
+    public Statistics statistics() {
+        int idle = 0;
+        for (Entry<T> entry : entries) {
+            if (entry.state.get() == IDLE) {
+                idle += 1;
+            }
+        }
+        return new Statistics(size.get(), idle, created.sum(), destroyed.sum(), acquired.sum(), localHits.sum(), timeouts.sum(), invalid.sum());
+    }
+
+    /**
+     * Closes the pool. The idle objects are destroyed, and the objects in use are destroyed when they are returned.
+     * The commands executed after closing the pool fail with an {@link IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Entry<T> entry : entries) {
+            if (entry.state.compareAndSet(IDLE, REMOVED)) {
+                destroy(entry);
+            }
+        }
+    }
+
+    private Entry<T> acquire() throws Exception {
+        final long start = System.nanoTime();
+        long backoff = 1000;
+        while (true) {
+            if (closed) {
+                throw new IllegalStateException("Pool closed");
+            }
+            Entry<T> entry = claimLocal();
+            if (entry == null) {
+                entry = claimShared();
+            }
+            if (entry == null) {
+                entry = create();
+            }
+            if (entry != null) {
+                if (check(entry)) {
+                    acquired.increment();
+                    return entry;
+                }
+                continue;
+            }
+            if (System.nanoTime() - start >= maxWaitNanos) {
+                timeouts.increment();
+                throw new RejectedExecutionException("Pool exhausted");
+            }
+            LockSupport.parkNanos(backoff);
+            backoff = Math.min(backoff * 2, 1_000_000);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    private Entry<T> claimLocal() {
+        final Entry<T> entry = lastReleased.get();
+        if (entry == null) {
+            return null;
+        }
+        if (entry.state.compareAndSet(IDLE, IN_USE)) {
+            localHits.increment();
+            return entry;
+        }
+        if (entry.state.get() == REMOVED) {
+            // the thread must not retain an object which has been destroyed
+            lastReleased.remove();
+        }
+        return null;
+    }
+
+    private Entry<T> claimShared() {
+        while (true) {
+            final Node<T> head = stack.get();
+            if (head == null) {
+                return null;
+            }
+            if (stack.compareAndSet(head, head.next)) {
+                head.entry.inStack.set(false);
+                // the entry might have been claimed by the thread which has released it last
+                if (head.entry.state.compareAndSet(IDLE, IN_USE)) {
+                    return head.entry;
+                }
+            }
+        }
+    }
+
+    private Entry<T> create() throws Exception {
+        while (true) {
+            final int current = size.get();
+            if (current >= maxSize) {
+                return null;
+            }
+            if (size.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+        final T object;
+        try {
+            object = factory.call();
+        } catch (Exception | Error e) {
+            size.decrementAndGet();
+            throw e;
+        }
+        final Entry<T> entry = new Entry<>(Objects.requireNonNull(object));
+        entries.add(entry);
+        created.increment();
+        return entry;
+    }
+
+    private boolean check(Entry<T> entry) {
+        if (System.nanoTime() - entry.idleSince > maxIdleNanos) {
+            entry.state.set(REMOVED);
+            destroy(entry);
+            return false;
+        }
+        final boolean valid;
+        try {
+            valid = validator.test(entry.object);
+        } catch (Throwable e) {
+            entry.state.set(REMOVED);
+            destroy(entry);
+            throw e;
+        }
+        if (!valid) {
+            invalid.increment();
+            entry.state.set(REMOVED);
+            destroy(entry);
+        }
+        return valid;
+    }
+
+    private void release(Entry<T> entry) {
+        entry.idleSince = System.nanoTime();
+        entry.state.set(IDLE);
+        if (closed) {
+            if (entry.state.compareAndSet(IDLE, REMOVED)) {
+                destroy(entry);
+            }
+            return;
+        }
+        lastReleased.set(entry);
+        if (entry.inStack.compareAndSet(false, true)) {
+            push(entry);
+        }
+    }
+
+    private void push(Entry<T> entry) {
+        final Node<T> node = new Node<>(entry);
+        while (true) {
+            final Node<T> head = stack.get();
+            node.next = head;
+            if (stack.compareAndSet(head, node)) {
+                return;
+            }
+        }
+    }
+
+    private void destroy(Entry<T> entry) {
+        entries.remove(entry);
+        size.decrementAndGet();
+        destroyed.increment();
+        try {
+            destroyer.accept(entry.object);
+        } catch (RuntimeException e) {
+            final Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    private static class Entry<T> {
+        private final T object;
+        private final AtomicInteger state = new AtomicInteger(IN_USE);
+        private final AtomicBoolean inStack = new AtomicBoolean();
+        private volatile long idleSince = System.nanoTime();
+
+        private Entry(T object) {
+            this.object = object;
+        }
+    }
+
+    private static class Node<T> {
+        private final Entry<T> entry;
+        private Node<T> next;
+
+        private Node(Entry<T> entry) {
+            this.entry = entry;
+        }
+    }
+
+    /**
+     * Statistics represents a snapshot of the statistics of the pool.
+     */
+    public static final class Statistics {
+        private final int size;
+        private final int idle;
+        private final long created;
+        private final long destroyed;
+        private final long acquired;
+        private final long localHits;
+        private final long timeouts;
+        private final long invalid;
+
+        private Statistics(int size, int idle, long created, long destroyed, long acquired, long localHits, long timeouts, long invalid) {
+            this.size = size;
+            this.idle = idle;
+            this.created = created;
+            this.destroyed = destroyed;
+            this.acquired = acquired;
+            this.localHits = localHits;
+            this.timeouts = timeouts;
+            this.invalid = invalid;
+        }
+
+        /**
+         * Returns the number of objects, idle or in use.
+         *
+         * @return the number of objects
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Returns the number of idle objects.
+         *
+         * @return the number of idle objects
+         */
+        public int idle() {
+            return idle;
+        }
+
+        /**
+         * Returns the number of objects which have been created.
+         *
+         * @return the number of created objects
+         */
+        public long created() {
+            return created;
+        }
+
+        /**
+         * Returns the number of objects which have been destroyed.
+         *
+         * @return the number of destroyed objects
+         */
+        public long destroyed() {
+            return destroyed;
+        }
+
+        /**
+         * Returns the number of objects which have been lent.
+         *
+         * @return the number of acquisitions
+         */
+        public long acquired() {
+            return acquired;
+        }
+
+        /**
+         * Returns the number of objects which have been lent from the cache of the thread.
+         *
+         * @return the number of local hits
+         */
+        public long localHits() {
+            return localHits;
+        }
+
+        /**
+         * Returns the number of commands which have failed because the pool was exhausted.
+         *
+         * @return the number of timeouts
+         */
+        public long timeouts() {
+            return timeouts;
+        }
+
+        /**
+         * Returns the number of objects which have been destroyed because they were not valid.
+         *
+         * @return the number of invalid objects
+         */
+        public long invalid() {
+            return invalid;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * PersistentCache stores the results of commands in a file, so that they survive a restart.
+ * <p>
+ * The file is an append-only log of records, and each record contains the encoded key, the encoded value and a checksum.
+ * The file is memory-mapped and indexed lazily the first time the cache is used, and the values are decoded directly from
+ * the mapped memory. The records appended after the file has been mapped are read with positional reads, and the file
+ * is mapped again only when it has doubled in size, so that a growing file isn't mapped again on every read. The scan
+ * stops at the first incomplete or corrupted record, and the next records overwrite it.
+ * When a key is stored more than once, the last record wins. Only successful results are stored.
+ * The size of the file is limited to 2GB, and the results are not stored anymore when the limit is reached.
+ *
+ * @param <K> the key's type
+ * @param <V> the value's type
+ */
+public class PersistentCache<K, V> implements AutoCloseable {
+    private static final int HEADER_SIZE = 16;
+    private static final int NULL_LENGTH = -1;
+    private static final long MAX_SIZE = Integer.MAX_VALUE;
+    private static final long MIN_MAPPED_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+    private final ConcurrentHashMap<ByteBuffer, Integer> index = new ConcurrentHashMap<>();
+
+    private volatile MappedByteBuffer mapped;
+    private volatile boolean loaded;
+    private long position;
+
+    private PersistentCache(FileChannel channel, Codec<K> keyCodec, Codec<V> valueCodec) {
+        this.channel = channel;
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+    }
+
+    /**
+     * Opens or creates the cache file.
+     *
+     * @param file the file
+     * @param keyCodec the codec of the keys
+     * @param valueCodec the codec of the values
+     * @return new instance
+     * @throws IOException if the file can't be opened
+     * @throws NullPointerException if file, keyCodec or valueCodec is null
+     * @param <K> the key's type
+     * @param <V> the value's type
+     */
+    public static <K, V> PersistentCache<K, V> open(Path file, Codec<K> keyCodec, Codec<V> valueCodec) throws IOException {
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(keyCodec);
+        Objects.requireNonNull(valueCodec);
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new PersistentCache<>(channel, keyCodec, valueCodec);
+    }
+
+    /**
+     * Creates new command which returns the stored result for the given key, or executes the given command and stores its result.
+     *
+     * @param key the key
+     * @param command the command
+     * @return new instance
+     * @throws NullPointerException if key or command is null
+     */
+    public Command<V> apply(K key, Command<V> command) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(command);
+        return Command.of(token -> {
+            final ByteBuffer encodedKey = ByteBuffer.wrap(keyCodec.encode(key));
+            final Either<V> stored = read(encodedKey);
+            if (stored != null) {
+                return stored.orThrow().get();
+            }
+            final Either<V> result = command.execute(token);
+            if (result.isSuccess()) {
+                write(encodedKey, result.get());
+            }
+            return result.orThrow().get();
+        });
+    }
+
+    /**
+     * Returns the number of stored keys.
+     *
+     * @return the number of keys
+     * @throws IOException if the file can't be read
+     */
+    public int size() throws IOException {
+        load();
+        return index.size();
+    }
+
+    /**
+     * Forces the stored results to the storage device.
+     *
+     * @throws IOException if the file can't be written
+     */
+    public void flush() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException if the file can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private Either<V> read(ByteBuffer key) throws Exception {
+        load();
+
+        final Integer offset = index.get(key);
+
+        if (offset == null) {
+            return null;
+        }
+
+        final ByteBuffer header = slice(offset, HEADER_SIZE);
+        final int keyLength = header.getInt(0);
+        final int valueLength = header.getInt(4);
+
+        if (valueLength == NULL_LENGTH) {
+            return Either.success(null);
+        }
+
+        final ByteBuffer value = slice((long) offset + HEADER_SIZE + keyLength, valueLength);
+
+        return Either.success(valueCodec.decode(value.asReadOnlyBuffer()));
+    }
+
+    private synchronized void write(ByteBuffer key, V value) throws Exception {
+        final byte[] encodedValue = value != null ? valueCodec.encode(value) : null;
+        final int keyLength = key.remaining();
+        final int valueLength = encodedValue != null ? encodedValue.length : 0;
+        final long size = HEADER_SIZE + (long) keyLength + valueLength;
+
+        if (position + size > MAX_SIZE) {
+            return;
+        }
+
+        final CRC32 crc = new CRC32();
+        crc.update(key.duplicate());
+        if (encodedValue != null) {
+            crc.update(encodedValue);
+        }
+
+        final ByteBuffer record = ByteBuffer.allocate((int) size);
+        record.putInt(keyLength);
+        record.putInt(encodedValue != null ? valueLength : NULL_LENGTH);
+        record.putLong(crc.getValue());
+        record.put(key.duplicate());
+        if (encodedValue != null) {
+            record.put(encodedValue);
+        }
+        record.flip();
+
+        long offset = position;
+        while (record.hasRemaining()) {
+            offset += channel.write(record, offset);
+        }
+
+        index.put(ByteBuffer.wrap(key.array().clone()), (int) position);
+
+        position = offset;
+    }
+
+    private void load() throws IOException {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            final long length = Math.min(channel.size(), MAX_SIZE);
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            position = scan(buffer);
+            mapped = buffer;
+            loaded = true;
+        }
+    }
+
+    private int scan(ByteBuffer buffer) {
+        int offset = 0;
+        final int limit = buffer.limit();
+        final CRC32 crc = new CRC32();
+        while (offset + HEADER_SIZE <= limit) {
+            final int keyLength = buffer.getInt(offset);
+            final int valueLength = buffer.getInt(offset + 4);
+            final long checksum = buffer.getLong(offset + 8);
+            final int storedLength = valueLength == NULL_LENGTH ? 0 : valueLength;
+            if (keyLength < 0 || storedLength < 0 || (long) offset + HEADER_SIZE + keyLength + storedLength > limit) {
+                break;
+            }
+            final ByteBuffer key = buffer.duplicate();
+            key.position(offset + HEADER_SIZE).limit(offset + HEADER_SIZE + keyLength + storedLength);
+            crc.reset();
+            crc.update(key.duplicate());
+            if (crc.getValue() != checksum) {
+                break;
+            }
+            key.limit(offset + HEADER_SIZE + keyLength);
+            index.put(key.slice(), offset);
+            offset += HEADER_SIZE + keyLength + storedLength;
+        }
+        return offset;
+    }
+
+    private ByteBuffer slice(long start, int length) throws IOException {
+        final long end = start + length;
+        MappedByteBuffer buffer = mapped;
+        if (end > buffer.limit()) {
+            buffer = remap(end);
+        }
+        if (end <= buffer.limit()) {
+            final ByteBuffer slice = buffer.duplicate();
+            slice.position((int) start).limit((int) end);
+            return slice.slice();
+        }
+        // the record has been appended after the file was mapped
+        final ByteBuffer slice = ByteBuffer.allocate(length);
+        while (slice.hasRemaining()) {
+            if (channel.read(slice, start + slice.position()) < 0) {
+                throw new EOFException("Record is truncated");
+            }
+        }
+        return slice.flip();
+    }
+
+    private synchronized MappedByteBuffer remap(long end) throws IOException {
+        MappedByteBuffer buffer = mapped;
+        if (end > buffer.limit()) {
+            final long size = Math.min(channel.size(), MAX_SIZE);
+            if (size >= Math.max(MIN_MAPPED_SIZE, 2L * buffer.limit())) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                mapped = buffer;
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Codec converts values to bytes and back.
+     *
+     * @param <T> the value's type
+     */
+    public interface Codec<T> {
+        /**
+         * Encodes the value.
+         *
+         * @param value the value, never null
+         * @return the bytes
+         * @throws Exception some error
+         */
+        byte[] encode(T value) throws Exception;
+
+        /**
+         * Decodes the value. The buffer is a read-only view of the mapped file, or of a copy of the recently appended
+         * records, and it must not be retained.
+         *
+         * @param buffer the bytes
+         * @return the value
+         * @throws Exception some error
+         */
+        T decode(ByteBuffer buffer) throws Exception;
+
+        /**
+         * Returns the codec of strings encoded as UTF-8.
+         *
+         * @return the codec
+         */
+        static Codec<String> string() {
+            return new Codec<>() {
+                @Override
+                public byte[] encode(String value) {
+                    return value.getBytes(StandardCharsets.UTF_8);
+                }
+
+                @Override
+                public String decode(ByteBuffer buffer) {
+                    return StandardCharsets.UTF_8.decode(buffer).toString();
+                }
+            };
+        }
+    }
+}
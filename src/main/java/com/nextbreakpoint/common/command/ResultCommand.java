@@ -0,0 +1,177 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+import com.nextbreakpoint.common.either.Result;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * ResultCommand implements a fluent interface for composing operations with errors of any type.
+ * <p>
+ * The result of the execution has two channels: the expected errors are returned as a failed {@link Result},
+ * and the unexpected exceptions, including cancellation, are returned as a failed {@link Either}.
+ * The composition stops at the first error of either kind.
+ *
+ * @param <V> the value's type
+ * @param <E> the error's type
+ */
+public class ResultCommand<V, E> {
+    private final Command<Result<V, E>> command;
+
+    private ResultCommand(Command<Result<V, E>> command) {
+        Objects.requireNonNull(command);
+        this.command = command;
+    }
+
+    /**
+     * Creates new instance with given value.
+     *
+     * @param value the value
+     * @return new instance
+     * @param <R> the value's type
+     * @param <E> the error's type
+     */
+    public static <R, E> ResultCommand<R, E> value(R value) {
+        return new ResultCommand<>(Command.value(Result.success(value)));
+    }
+
+    /**
+     * Creates new instance with given error.
+     *
+     * @param error the error
+     * @return new instance
+     * @throws NullPointerException if error is null
+     * @param <R> the value's type
+     * @param <E> the error's type
+     */
+    public static <R, E> ResultCommand<R, E> error(E error) {
+        return new ResultCommand<>(Command.value(Result.failure(error)));
+    }
+
+    /**
+     * Creates new instance from callable.
+     *
+     * @param callable the callable
+     * @return new instance
+     * @throws NullPointerException if callable is null
+     * @param <R> the value's type
+     * @param <E> the error's type
+     */
+    public static <R, E> ResultCommand<R, E> of(Callable<Result<R, E>> callable) {
+        Objects.requireNonNull(callable);
+        return new ResultCommand<>(Command.of(() -> Objects.requireNonNull(callable.call())));
+    }
+
+    /**
+     * Creates new instance from command. The failures of the command are returned as unexpected exceptions.
+     *
+     * @param command the command
+     * @return new instance
+     * @throws NullPointerException if command is null
+     * @param <R> the value's type
+     * @param <E> the error's type
+     */
+    public static <R, E> ResultCommand<R, E> of(Command<R> command) {
+        Objects.requireNonNull(command);
+        return new ResultCommand<>(command.map(Result::success));
+    }
+
+    /**
+     * Execute and returns result.
+     *
+     * @return the result
+     */
+    public Either<Result<V, E>> execute() {
+        return command.execute();
+    }
+
+    /**
+     * Execute with given cancellation token and returns result.
+     *
+     * @param token the cancellation token
+     * @return the result
+     * @throws NullPointerException if token is null
+     */
+    public Either<Result<V, E>> execute(CancellationToken token) {
+        return command.execute(token);
+    }
+
+    /**
+     * Creates new instance with given function.
+     *
+     * @param function the function
+     * @return new instance
+     * @throws NullPointerException if function is null
+     * @param <R> the value's type
+     */
+    public <R> ResultCommand<R, E> map(Function<V, R> function) {
+        Objects.requireNonNull(function);
+        return new ResultCommand<>(command.map(result -> result.map(function)));
+    }
+
+    /**
+     * Creates new instance with given function.
+     *
+     * @param function the function
+     * @return new instance
+     * @throws NullPointerException if function is null
+     * @param <R> the value's type
+     */
+    public <R> ResultCommand<R, E> flatMap(Function<V, ResultCommand<R, E>> function) {
+        Objects.requireNonNull(function);
+        return new ResultCommand<>(command.flatMap(result -> {
+            if (result.isFailure()) {
+                return Command.value(coerce(result));
+            }
+            return function.apply(result.get()).command;
+        }));
+    }
+
+    /**
+     * Creates new instance with given function applied to the error.
+     *
+     * @param function the function
+     * @return new instance
+     * @throws NullPointerException if function is null
+     * @param <F> the error's type
+     */
+    public <F> ResultCommand<V, F> mapError(Function<E, F> function) {
+        Objects.requireNonNull(function);
+        return new ResultCommand<>(command.map(result -> result.mapError(function)));
+    }
+
+    /**
+     * Creates new command which returns the output of the function matching the outcome.
+     *
+     * @param onSuccess the function applied to the value
+     * @param onFailure the function applied to the error
+     * @return new instance
+     * @throws NullPointerException if onSuccess or onFailure is null
+     * @param <R> the output's type
+     */
+    public <R> Command<R> fold(Function<V, R> onSuccess, Function<E, R> onFailure) {
+        Objects.requireNonNull(onSuccess);
+        Objects.requireNonNull(onFailure);
+        return command.map(result -> result.fold(onSuccess, onFailure));
+    }
+
+    /**
+     * Creates new command which fails with the exception created from the error.
+     *
+     * @param function the function which creates the exception
+     * @return new instance
+     * @throws NullPointerException if function is null
+     */
+    public Command<V> toCommand(Function<E, Exception> function) {
+        Objects.requireNonNull(function);
+        return command.flatMap(result -> Command.of(result.toEither(function)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R, E> Result<R, E> coerce(Result<?, E> result) {
+        // a failure doesn't contain any value, therefore it can be returned as result of any type
+        return (Result<R, E>) result;
+    }
+}
@@ -0,0 +1,291 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * StaleWhileRevalidate implements a policy for caching the result of a read-mostly command.
+ * <p>
+ * The decorated command returns the cached result while it is younger than the soft time to live. When the result
+ * is older than the soft time to live, the decorated command still returns the cached result immediately, and it
+ * refreshes the result on the executor, with at most one refresh in flight. When the result is older than the hard
+ * time to live, or there is no result yet, the decorated command executes the original command on the executor and
+ * waits for it, and concurrent executions wait for the same result. A cancelled execution stops waiting, while the
+ * original command keeps running for the other executions. When the executor rejects a blocking execution, the original
+ * command is executed on the current thread, while a rejected refresh is skipped and counted as a failure. Only successful
+ * results are cached, therefore the stale result keeps being returned while the refreshes fail, until it reaches the hard
+ * time to live.
+ * <p>
+ * The policy keeps the statistics of all the commands it decorates, while each decorated command has its own cache.
+ */
+public class StaleWhileRevalidate {
+    private final Executor executor;
+    private final long softTtlNanos;
+    private final long hardTtlNanos;
+
+    private final LongAdder freshHits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private StaleWhileRevalidate(Executor executor, Duration softTtl, Duration hardTtl) {
+        this.executor = executor;
+        this.softTtlNanos = softTtl.toNanos();
+        this.hardTtlNanos = hardTtl.toNanos();
+    }
+
+    /**
+     * Creates new instance with given executor and times to live.
+     *
+     * @param executor the executor of the refreshes
+     * @param softTtl the age after which the result is refreshed in background
+     * @param hardTtl the age after which the result is not returned anymore
+     * @return new instance
+     * @throws NullPointerException if executor, softTtl or hardTtl is null
+     * @throws IllegalArgumentException if softTtl is negative or hardTtl is less than softTtl
+     */
+    public static StaleWhileRevalidate of(Executor executor, Duration softTtl, Duration hardTtl) {
+        Objects.requireNonNull(executor);
+        Objects.requireNonNull(softTtl);
+        Objects.requireNonNull(hardTtl);
+        if (softTtl.isNegative()) {
+            throw new IllegalArgumentException("softTtl must not be negative");
+        }
+        if (hardTtl.compareTo(softTtl) < 0) {
+            throw new IllegalArgumentException("hardTtl must not be less than softTtl");
+        }
+        return new StaleWhileRevalidate(executor, softTtl, hardTtl);
+    }
+
+    /**
+     * Creates new command which caches the result of the given command with this policy.
+     *
+     * @param command the command
+     * @return new instance
+     * @throws NullPointerException if command is null
+     * @param <V> the value's type
+     */
+    public <V> Command<V> apply(Command<V> command) {
+        Objects.requireNonNull(command);
+        final Cache<V> cache = new Cache<>(command);
+        return Command.of(() -> cache.get().orThrow().get());
+    }
+
+    /**
+     * Returns a snapshot of the statistics.
+     *
+     * @return the statistics
+     */
+    public Statistics statistics() {
+        return new Statistics(freshHits.sum(), staleHits.sum(), misses.sum(), refreshes.sum(), failures.sum());
+    }
+
+    private class Cache<V> {
+        private final Command<V> command;
+        private final AtomicReference<Entry<V>> entry = new AtomicReference<>();
+        private final AtomicReference<CompletableFuture<Either<V>>> loading = new AtomicReference<>();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Cache(Command<V> command) {
+            this.command = command;
+        }
+
+        private Either<V> get() throws InterruptedException {
+            final Entry<V> current = entry.get();
+
+            if (current != null) {
+                final long age = System.nanoTime() - current.time;
+                if (age < softTtlNanos) {
+                    freshHits.increment();
+                    return current.result;
+                }
+                if (age < hardTtlNanos) {
+                    staleHits.increment();
+                    refresh();
+                    return current.result;
+                }
+            }
+
+            misses.increment();
+
+            return load();
+        }
+
+        private Either<V> load() throws InterruptedException {
+            while (true) {
+                final CompletableFuture<Either<V>> pending = loading.get();
+
+                if (pending != null) {
+                    return await(pending);
+                }
+
+                final CompletableFuture<Either<V>> future = new CompletableFuture<>();
+
+                if (loading.compareAndSet(null, future)) {
+                    start(future);
+                    return await(future);
+                }
+            }
+        }
+
+        private void start(CompletableFuture<Either<V>> future) {
+            final Context context = Context.current();
+
+            // the load doesn't use the token of the caller, because the other callers wait for the same result
+            // the load is removed before completing the future, therefore the waiters don't see it anymore
+            final Runnable task = () -> {
+                final Either<V> result;
+                try {
+                    result = context.execute(command, CancellationToken.none());
+                    store(result);
+                } catch (Throwable e) {
+                    loading.compareAndSet(future, null);
+                    future.completeExceptionally(e);
+                    throw e;
+                }
+                loading.compareAndSet(future, null);
+                future.complete(result);
+            };
+
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        }
+
+        private Either<V> await(CompletableFuture<Either<V>> future) throws InterruptedException {
+            // the thread is interrupted when the token of the caller is cancelled
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                return Either.failure(e);
+            }
+        }
+
+        private void refresh() {
+            if (!refreshing.compareAndSet(false, true)) {
+                return;
+            }
+
+            refreshes.increment();
+
+            final Context context = Context.current();
+
+            try {
+                executor.execute(() -> {
+                    try {
+                        store(context.execute(command, CancellationToken.none()));
+                    } finally {
+                        refreshing.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                failures.increment();
+                refreshing.set(false);
+            }
+        }
+
+        private void store(Either<V> result) {
+            if (result.isSuccess()) {
+                entry.set(new Entry<>(result, System.nanoTime()));
+            } else {
+                failures.increment();
+            }
+        }
+    }
+
+    private static class Entry<V> {
+        private final Either<V> result;
+        private final long time;
+
+        private Entry(Either<V> result, long time) {
+            this.result = result;
+            this.time = time;
+        }
+    }
+
+    /**
+     * Statistics represents a snapshot of the statistics of the policy.
+     */
+    public static final class Statistics {
+        private final long freshHits;
+        private final long staleHits;
+        private final long misses;
+        private final long refreshes;
+        private final long failures;
+
+        private Statistics(long freshHits, long staleHits, long misses, long refreshes, long failures) {
+            this.freshHits = freshHits;
+            this.staleHits = staleHits;
+            this.misses = misses;
+            this.refreshes = refreshes;
+            this.failures = failures;
+        }
+
+        /**
+         * Returns the number of executions which returned a result younger than the soft time to live.
+         *
+         * @return the number of fresh hits
+         */
+        public long freshHits() {
+            return freshHits;
+        }
+
+        /**
+         * Returns the number of executions which returned a result older than the soft time to live.
+         *
+         * @return the number of stale hits
+         */
+        public long staleHits() {
+            return staleHits;
+        }
+
+        /**
+         * Returns the number of executions which waited for the original command.
+         *
+         * @return the number of misses
+         */
+        public long misses() {
+            return misses;
+        }
+
+        /**
+         * Returns the number of refreshes started in background.
+         *
+         * @return the number of refreshes
+         */
+        public long refreshes() {
+            return refreshes;
+        }
+
+        /**
+         * Returns the number of executions of the original command which failed, or refreshes which couldn't start.
+         *
+         * @return the number of failures
+         */
+        public long failures() {
+            return failures;
+        }
+
+        /**
+         * Returns the ratio of fresh hits to executions.
+         *
+         * @return the freshness ratio, or 0 if there are no executions
+         */
+        public double freshRatio() {
+            final long total = freshHits + staleHits + misses;
+            return total == 0 ? 0 : (double) freshHits / total;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * StreamingExecutor executes a sequence of commands with a bounded number of commands in flight.
+ * <p>
+ * The commands are pulled from the source only when the results are consumed, and at most window commands are
+ * executing or waiting to be consumed at any time, therefore the memory doesn't depend on the length of the sequence.
+ * The results are returned in the order of the commands, or in the order of completion when the executor is unordered.
+ */
+public class StreamingExecutor {
+    private final Executor executor;
+    private final int window;
+    private final boolean ordered;
+
+    private StreamingExecutor(Executor executor, int window, boolean ordered) {
+        this.executor = executor;
+        this.window = window;
+        this.ordered = ordered;
+    }
+
+    /**
+     * Creates new instance which returns the results in the order of the commands.
+     *
+     * @param executor the executor of the commands
+     * @param window the maximum number of commands in flight
+     * @return new instance
+     * @throws NullPointerException if executor is null
+     * @throws IllegalArgumentException if window is less than 1
+     */
+    public static StreamingExecutor of(Executor executor, int window) {
+        Objects.requireNonNull(executor);
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be greater than 0");
+        }
+        return new StreamingExecutor(executor, window, true);
+    }
+
+    /**
+     * Returns a new instance which returns the results in the order of completion.
+     *
+     * @return new instance
+     */
+    public StreamingExecutor unordered() {
+        return new StreamingExecutor(executor, window, false);
+    }
+
+    /**
+     * Executes the commands of the given stream and returns the stream of results.
+     * <p>
+     * Closing the returned stream closes the source stream and cancels the commands in flight.
+     *
+     * @param commands the commands
+     * @return the results
+     * @throws NullPointerException if commands is null
+     * @param <V> the value's type
+     */
+    public <V> Stream<Either<V>> execute(Stream<Command<V>> commands) {
+        return execute(commands, CancellationToken.none());
+    }
+
+    /**
+     * Executes the commands of the given stream with the given cancellation token and returns the stream of results.
+     * <p>
+     * Closing the returned stream closes the source stream and cancels the commands in flight.
+     *
+     * @param commands the commands
+     * @param token the cancellation token
+     * @return the results
+     * @throws NullPointerException if commands or token is null
+     * @param <V> the value's type
+     */
+    public <V> Stream<Either<V>> execute(Stream<Command<V>> commands, CancellationToken token) {
+        Objects.requireNonNull(commands);
+        Objects.requireNonNull(token);
+        final CancellationToken scope = CancellationToken.create();
+        final CancellationToken.Registration registration = token.onCancel(scope::cancel);
+        final Iterator<Either<V>> results = execute(commands.iterator(), scope);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(results, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(scope::cancel)
+                .onClose(registration::close)
+                .onClose(commands::close);
+    }
+
+    /**
+     * Executes the commands of the given iterator and returns the iterator of results.
+     *
+     * @param commands the commands
+     * @return the results
+     * @throws NullPointerException if commands is null
+     * @param <V> the value's type
+     */
+    public <V> Iterator<Either<V>> execute(Iterator<Command<V>> commands) {
+        return execute(commands, CancellationToken.none());
+    }
+
+    /**
+     * Executes the commands of the given iterator with the given cancellation token and returns the iterator of results.
+     * <p>
+     * No more commands are pulled from the source once the token is cancelled.
+     *
+     * @param commands the commands
+     * @param token the cancellation token
+     * @return the results
+     * @throws NullPointerException if commands or token is null
+     * @param <V> the value's type
+     */
+    public <V> Iterator<Either<V>> execute(Iterator<Command<V>> commands, CancellationToken token) {
+        Objects.requireNonNull(commands);
+        Objects.requireNonNull(token);
+        return ordered ? new OrderedResults<>(commands, token) : new UnorderedResults<>(commands, token);
+    }
+
+    private <V> void submit(Command<V> command, CancellationToken token, CompletableFuture<Either<V>> future) {
+        if (command == null) {
+            future.complete(Either.failure(new NullPointerException("command is null")));
+            return;
+        }
+        final Context context = Context.current();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(context.execute(command, token));
+                } catch (Throwable e) {
+                    // the consumer waits for the future, therefore it must be completed anyway
+                    future.complete(Either.failure(new ExecutionException(e)));
+                    throw e;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.complete(Either.failure(e));
+        }
+    }
+
+    private static <V> Either<V> await(CompletableFuture<Either<V>> future, CancellationToken token) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    // the commands in flight are cancelled, but their results are still returned
+                    interrupted = true;
+                    token.cancel();
+                } catch (ExecutionException e) {
+                    return Either.failure(e);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private class OrderedResults<V> implements Iterator<Either<V>> {
+        private final ArrayDeque<CompletableFuture<Either<V>>> inflight = new ArrayDeque<>();
+        private final Iterator<Command<V>> commands;
+        private final CancellationToken token;
+
+        private OrderedResults(Iterator<Command<V>> commands, CancellationToken token) {
+            this.commands = commands;
+            this.token = token;
+        }
+
+        @Override
+        public boolean hasNext() {
+            fill();
+            return !inflight.isEmpty();
+        }
+
+        @Override
+        public Either<V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return await(inflight.poll(), token);
+        }
+
+        private void fill() {
+            while (inflight.size() < window && !token.isCancelled() && commands.hasNext()) {
+                final CompletableFuture<Either<V>> future = new CompletableFuture<>();
+                inflight.add(future);
+                submit(commands.next(), token, future);
+            }
+        }
+    }
+
+    private class UnorderedResults<V> implements Iterator<Either<V>> {
+        private final BlockingQueue<CompletableFuture<Either<V>>> completed = new LinkedBlockingQueue<>();
+        private final Iterator<Command<V>> commands;
+        private final CancellationToken token;
+        private int inflight;
+
+        private UnorderedResults(Iterator<Command<V>> commands, CancellationToken token) {
+            this.commands = commands;
+            this.token = token;
+        }
+
+        @Override
+        public boolean hasNext() {
+            fill();
+            return inflight > 0;
+        }
+
+        @Override
+        public Either<V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    try {
+                        final CompletableFuture<Either<V>> future = completed.take();
+                        inflight -= 1;
+                        return future.join();
+                    } catch (InterruptedException e) {
+                        // the commands in flight are cancelled, but their results are still returned
+                        interrupted = true;
+                        token.cancel();
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private void fill() {
+            while (inflight < window && !token.isCancelled() && commands.hasNext()) {
+                final CompletableFuture<Either<V>> future = new CompletableFuture<>();
+                future.thenRun(() -> completed.add(future));
+                inflight += 1;
+                submit(commands.next(), token, future);
+            }
+        }
+    }
+}
@@ -0,0 +1,491 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * TimerWheel executes commands after a delay or at a fixed rate, and it is designed for very large numbers of timers.
+ * <p>
+ * The timers are kept in a hashed wheel of slots, where each slot contains the timers expiring in a tick modulo the number
+ * of slots, and a timer which expires after more than one revolution of the wheel waits for the remaining rounds. Scheduling
+ * and cancelling a timer only add the timer to a queue, and the timers are moved into and out of the slots by the ticker,
+ * therefore both operations are O(1) and they don't contend on a lock. The ticker runs on a thread of the executor, and
+ * it executes the expired commands on the executor, delivering the result to the callback. The delay is rounded up to the
+ * next tick, therefore the tick is the resolution of the timers. A command executed at fixed rate is not executed again
+ * until the previous execution has completed, and the executions which are late run immediately one after the other.
+ * Closing the timer wheel stops the ticker, and the pending timers are completed with a {@link CancellationException}.
+ */
+public class TimerWheel implements AutoCloseable {
+    private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+    private static final int PENDING = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+    private static final int CANCELLED = 3;
+    private static final int FIRING = 4;
+
+    private final Executor executor;
+    private final long tickNanos;
+    private final Slot[] slots;
+    private final int mask;
+
+    private final ConcurrentLinkedQueue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private final long startTime = System.nanoTime();
+
+    private volatile boolean running = true;
+    private long tick;
+
+    private TimerWheel(Executor executor, Duration tick, int slots) {
+        this.executor = executor;
+        this.tickNanos = tick.toNanos();
+        this.slots = new Slot[slots];
+        this.mask = slots - 1;
+        for (int i = 0; i < slots; i++) {
+            this.slots[i] = new Slot();
+        }
+    }
+
+    /**
+     * Creates new instance with given executor, a tick of 10 milliseconds and 512 slots.
+     *
+     * @param executor the executor of the ticker and of the commands, which must provide a thread for the ticker
+     * @return new instance
+     * @throws NullPointerException if executor is null
+     */
+    public static TimerWheel of(Executor executor) {
+        Objects.requireNonNull(executor);
+        return new TimerWheel(executor, Duration.ofMillis(10), 512);
+    }
+
+    /**
+     * Returns a new instance, which is not started, with given tick.
+     *
+     * @param tick the duration of a tick
+     * @return new instance
+     * @throws NullPointerException if tick is null
+     * @throws IllegalArgumentException if tick is less than 1 millisecond
+     */
+    public TimerWheel withTick(Duration tick) {
+        Objects.requireNonNull(tick);
+        if (tick.compareTo(Duration.ofMillis(1)) < 0) {
+            throw new IllegalArgumentException("tick must be at least 1 millisecond");
+        }
+        return new TimerWheel(executor, tick, slots.length);
+    }
+
+    /**
+     * Returns a new instance, which is not started, with given number of slots.
+     *
+     * @param slots the number of slots, which is rounded up to a power of 2
+     * @return new instance
+     * @throws IllegalArgumentException if slots is less than 1 or greater than 2^30
+     */
+    public TimerWheel withSlots(int slots) {
+        if (slots < 1 || slots > 1 << 30) {
+            throw new IllegalArgumentException("slots must be between 1 and 2^30");
+        }
+        return new TimerWheel(executor, Duration.ofNanos(tickNanos), 1 << -Integer.numberOfLeadingZeros(slots - 1));
+    }
+
+    /**
+     * Schedules the command for execution after the given delay. The ticker is started by the first timer.
+     *
+     * @param command the command
+     * @param delay the delay
+     * @param callback the callback which receives the result
+     * @return the timeout which can be used to cancel the timer
+     * @throws NullPointerException if command, delay or callback is null
+     * @throws IllegalArgumentException if delay is negative
+     * @throws IllegalStateException if the timer wheel has been closed
+     * @param <V> the value's type
+     */
+    public <V> Timeout schedule(Command<V> command, Duration delay, Consumer<? super Either<V>> callback) {
+        Objects.requireNonNull(delay);
+        if (delay.isNegative()) {
+            throw new IllegalArgumentException("delay must not be negative");
+        }
+        return schedule(command, delay.toNanos(), 0, callback);
+    }
+
+    /**
+     * Schedules the command for execution after the given delay, and returns the future result.
+     * Cancelling the future cancels the timer.
+     *
+     * @param command the command
+     * @param delay the delay
+     * @return the future result
+     * @throws NullPointerException if command or delay is null
+     * @throws IllegalArgumentException if delay is negative
+     * @throws IllegalStateException if the timer wheel has been closed
+     * @param <V> the value's type
+     */
+    public <V> CompletableFuture<Either<V>> schedule(Command<V> command, Duration delay) {
+        final CompletableFuture<Either<V>> future = new CompletableFuture<>();
+        final Timeout timeout = schedule(command, delay, future::complete);
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                timeout.cancel();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Schedules the command for execution at fixed rate, until the timer is cancelled or the timer wheel is closed.
+     *
+     * @param command the command
+     * @param initialDelay the delay of the first execution
+     * @param period the period between the start of two consecutive executions
+     * @param callback the callback which receives the result of each execution
+     * @return the timeout which can be used to cancel the timer
+     * @throws NullPointerException if command, initialDelay, period or callback is null
+     * @throws IllegalArgumentException if initialDelay is negative or period is not positive
+     * @throws IllegalStateException if the timer wheel has been closed
+     * @param <V> the value's type
+     */
+    public <V> Timeout scheduleAtFixedRate(Command<V> command, Duration initialDelay, Duration period, Consumer<? super Either<V>> callback) {
+        Objects.requireNonNull(initialDelay);
+        Objects.requireNonNull(period);
+        if (initialDelay.isNegative()) {
+            throw new IllegalArgumentException("initialDelay must not be negative");
+        }
+        if (period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+        return schedule(command, initialDelay.toNanos(), period.toNanos(), callback);
+    }
+
+    /**
+     * Returns the number of timers which have not expired or been cancelled.
+     *
+     * @return the number of pending timers
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * Stops the ticker, and completes the pending timers with a {@link CancellationException}.
+     * The commands which are executing are not cancelled. If the current thread is interrupted while waiting
+     * for the ticker, it stops waiting and its interrupt status is restored, and the ticker completes the
+     * pending timers when it stops.
+     */
+    @Override
+    public void close() {
+        running = false;
+        if (started.compareAndSet(false, true)) {
+            terminated.countDown();
+        }
+        try {
+            terminated.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        cancelAll();
+    }
+
+    /**
+     * Waits until the ticker has stopped, after the timer wheel has been closed.
+     *
+     * @param timeout the timeout
+     * @return true if the ticker has stopped before the timeout
+     * @throws NullPointerException if timeout is null
+     * @throws InterruptedException if the current thread has been interrupted while waiting
+     */
+    public boolean awaitTermination(Duration timeout) throws InterruptedException {
+        Objects.requireNonNull(timeout);
+        return terminated.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> Timeout schedule(Command<V> command, long delayNanos, long periodNanos, Consumer<? super Either<V>> callback) {
+        Objects.requireNonNull(command);
+        Objects.requireNonNull(callback);
+        if (!running) {
+            throw new IllegalStateException("Timer wheel closed");
+        }
+        final long deadline = System.nanoTime() - startTime + delayNanos;
+        final Timeout timeout = new Timeout(this, (Command<Object>) command, (Consumer<Either<?>>) callback, deadline, periodNanos);
+        pending.incrementAndGet();
+        scheduled.offer(timeout);
+        if (started.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::run);
+            } catch (RejectedExecutionException e) {
+                running = false;
+                terminated.countDown();
+                throw e;
+            }
+        }
+        // the timer might have been added after the ticker has drained the queue for the last time
+        if (!running && terminated.getCount() == 0) {
+            cancelAll();
+        }
+        return timeout;
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                final long now = waitForNextTick();
+                if (!running) {
+                    break;
+                }
+                removeCancelled();
+                transferScheduled();
+                expire(slots[(int) (tick & mask)], now);
+                tick += 1;
+            }
+        } finally {
+            terminated.countDown();
+            cancelAll();
+        }
+    }
+
+    private long waitForNextTick() {
+        final long deadline = tickNanos * (tick + 1);
+        while (running) {
+            final long now = System.nanoTime() - startTime;
+            final long remaining = deadline - now;
+            if (remaining <= 0) {
+                return now;
+            }
+            LockSupport.parkNanos(remaining);
+        }
+        return deadline;
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.slot != null) {
+                timeout.slot.remove(timeout);
+            }
+        }
+    }
+
+    private void transferScheduled() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            final Timeout timeout = scheduled.poll();
+            if (timeout == null) {
+                break;
+            }
+            if (timeout.state.get() != PENDING) {
+                continue;
+            }
+            // the slot of a tick is expired at the end of the tick
+            final long ticks = timeout.deadline / tickNanos;
+            // the timers which are already late expire in the current tick
+            timeout.rounds = Math.max(0, (ticks - tick) / slots.length);
+            slots[(int) (Math.max(ticks, tick) & mask)].add(timeout);
+        }
+    }
+
+    private void expire(Slot slot, long now) {
+        Timeout timeout = slot.head;
+        while (timeout != null) {
+            final Timeout next = timeout.next;
+            if (timeout.rounds <= 0) {
+                slot.remove(timeout);
+                if (timeout.state.compareAndSet(PENDING, RUNNING)) {
+                    submit(timeout);
+                }
+            } else {
+                timeout.rounds -= 1;
+            }
+            timeout = next;
+        }
+    }
+
+    private void submit(Timeout timeout) {
+        try {
+            executor.execute(timeout::execute);
+        } catch (RejectedExecutionException e) {
+            timeout.state.set(DONE);
+            pending.decrementAndGet();
+            timeout.complete(Either.failure(e));
+        }
+    }
+
+    private void reschedule(Timeout timeout) {
+        timeout.deadline += timeout.period;
+        if (timeout.state.compareAndSet(RUNNING, PENDING)) {
+            scheduled.offer(timeout);
+            if (!running && terminated.getCount() == 0) {
+                cancelAll();
+            }
+        }
+    }
+
+    private synchronized void cancelAll() {
+        final Either<Object> failure = Either.failure(new CancellationException("Timer wheel closed"));
+        for (Slot slot : slots) {
+            while (slot.head != null) {
+                final Timeout timeout = slot.head;
+                slot.remove(timeout);
+                if (timeout.state.compareAndSet(PENDING, CANCELLED)) {
+                    pending.decrementAndGet();
+                    timeout.complete(failure);
+                }
+            }
+        }
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            if (timeout.state.compareAndSet(PENDING, CANCELLED)) {
+                pending.decrementAndGet();
+                timeout.complete(failure);
+            }
+        }
+        cancelled.clear();
+    }
+
+    private static class Slot {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.slot = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.slot = null;
+        }
+    }
+
+    /**
+     * Timeout represents a scheduled timer, and it can be used to cancel the timer.
+     */
+    public static final class Timeout {
+        private final TimerWheel wheel;
+        private final Command<Object> command;
+        private final Consumer<Either<?>> callback;
+        private final long period;
+        private final CancellationToken token = CancellationToken.create();
+        private final Context context = Context.current();
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private long deadline;
+
+        // the following fields are accessed only by the ticker
+        private long rounds;
+        private Slot slot;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(TimerWheel wheel, Command<Object> command, Consumer<Either<?>> callback, long deadline, long period) {
+            this.wheel = wheel;
+            this.command = command;
+            this.callback = callback;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        /**
+         * Cancels the timer. The command is not executed anymore, and the execution in progress, if any, is cancelled.
+         * The callback is not invoked after the timer has been cancelled, although an invocation which has already started
+         * might still be in progress, and a periodic timer is not rescheduled after that invocation.
+         *
+         * @return true if the timer has been cancelled by this invocation
+         */
+        public boolean cancel() {
+            while (true) {
+                final int current = state.get();
+                if (current == DONE || current == CANCELLED) {
+                    return false;
+                }
+                if (state.compareAndSet(current, CANCELLED)) {
+                    wheel.pending.decrementAndGet();
+                    if (current == PENDING) {
+                        wheel.cancelled.offer(this);
+                    } else {
+                        token.cancel();
+                    }
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Returns true when the timer has been cancelled.
+         *
+         * @return true if cancelled
+         */
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        /**
+         * Returns true when the timer has expired and its last execution has completed, or it has been cancelled.
+         *
+         * @return true if done
+         */
+        public boolean isDone() {
+            final int current = state.get();
+            return current == DONE || current == CANCELLED;
+        }
+
+        private void execute() {
+            final Either<Object> result = context.execute(command, token);
+            if (period > 0) {
+                // the timer might have been cancelled during the execution, or it might be cancelled while the callback runs
+                if (state.compareAndSet(RUNNING, FIRING)) {
+                    try {
+                        complete(result);
+                    } finally {
+                        if (state.compareAndSet(FIRING, RUNNING)) {
+                            wheel.reschedule(this);
+                        }
+                    }
+                }
+            } else if (state.compareAndSet(RUNNING, DONE)) {
+                wheel.pending.decrementAndGet();
+                complete(result);
+            }
+        }
+
+        private void complete(Either<?> result) {
+            try {
+                callback.accept(result);
+            } catch (RuntimeException e) {
+                final Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * WorkStealingExecutor executes short commands on a fixed set of workers, each with its own deque of tasks.
+ * <p>
+ * A task submitted by a worker is pushed on the deque of the same worker, which executes the most recent task first,
+ * therefore the continuations of a command, such as the callbacks of its future or the commands it submits, run on the
+ * worker which has produced the value while the data is still in its cache. A task submitted from another thread is
+ * pushed on the deques in round-robin order. An idle worker steals the oldest tasks from the other deques, and it parks
+ * after spinning for a while when there are no tasks. A batch of tasks is pushed at once, and it wakes up only as many
+ * idle workers as the tasks in the batch. Closing the executor rejects new tasks, and waits until the workers have
+ * executed the submitted tasks, unless the caller is interrupted.
+ */
+public class WorkStealingExecutor implements Executor, AutoCloseable {
+    private static final int SPIN_TRIES = 64;
+
+    private final Worker[] workers;
+    private final ThreadLocal<Worker> current = new ThreadLocal<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger wake = new AtomicInteger();
+    private final AtomicInteger idle = new AtomicInteger();
+    private final CountDownLatch terminated;
+    private volatile boolean running = true;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder stolen = new LongAdder();
+
+    private WorkStealingExecutor(int parallelism, ThreadFactory threadFactory) {
+        this.workers = new Worker[parallelism];
+        this.terminated = new CountDownLatch(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            workers[i] = new Worker(i);
+        }
+        for (Worker worker : workers) {
+            worker.thread = threadFactory.newThread(worker::run);
+            worker.thread.start();
+        }
+    }
+
+    /**
+     * Creates new executor with given parallelism and daemon threads.
+     *
+     * @param parallelism the number of workers
+     * @return new instance
+     * @throws IllegalArgumentException if parallelism is less than 1
+     */
+    public static WorkStealingExecutor of(int parallelism) {
+        final AtomicInteger counter = new AtomicInteger();
+        return of(parallelism, runnable -> {
+            final Thread thread = new Thread(runnable, "work-stealing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates new executor with given parallelism and thread factory.
+     *
+     * @param parallelism the number of workers
+     * @param threadFactory the factory of the threads of the workers
+     * @return new instance
+     * @throws NullPointerException if threadFactory is null
+     * @throws IllegalArgumentException if parallelism is less than 1
+     */
+    public static WorkStealingExecutor of(int parallelism, ThreadFactory threadFactory) {
+        Objects.requireNonNull(threadFactory);
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than 0");
+        }
+        return new WorkStealingExecutor(parallelism, threadFactory);
+    }
+
+    /**
+     * Executes the task on a worker.
+     *
+     * @param task the task
+     * @throws NullPointerException if task is null
+     * @throws RejectedExecutionException if the executor has been closed
+     */
+    @Override
+    public void execute(Runnable task) {
+        Objects.requireNonNull(task);
+        checkRunning();
+        final Worker worker = currentWorker();
+        if (worker != null) {
+            worker.deque.addLast(task);
+        } else {
+            workers[Math.floorMod(next.getAndIncrement(), workers.length)].deque.addLast(task);
+        }
+        if (!running) {
+            reject(List.of(task));
+        }
+        signal(1);
+    }
+
+    /**
+     * Executes the tasks on the workers as a batch.
+     *
+     * @param tasks the tasks
+     * @throws NullPointerException if tasks is null or contains null
+     * @throws RejectedExecutionException if the executor has been closed
+     */
+    public void executeAll(Collection<? extends Runnable> tasks) {
+        Objects.requireNonNull(tasks);
+        tasks.forEach(Objects::requireNonNull);
+        checkRunning();
+        if (tasks.isEmpty()) {
+            return;
+        }
+        final Worker worker = currentWorker();
+        if (worker != null) {
+            // the other workers steal from the batch while the current worker executes the most recent tasks
+            worker.deque.addAll(tasks);
+        } else {
+            final int chunk = (tasks.size() + workers.length - 1) / workers.length;
+            final int first = Math.floorMod(next.getAndIncrement(), workers.length);
+            int index = 0;
+            for (Runnable task : tasks) {
+                workers[(first + index / chunk) % workers.length].deque.addLast(task);
+                index += 1;
+            }
+        }
+        if (!running) {
+            reject(tasks);
+        }
+        signal(tasks.size());
+    }
+
+    /**
+     * Submits the command, and returns the future result.
+     *
+     * @param command the command
+     * @return the future result
+     * @throws NullPointerException if command is null
+     * @throws RejectedExecutionException if the executor has been closed
+     * @param <V> the value's type
+     */
+    public <V> CompletableFuture<Either<V>> submit(Command<V> command) {
+        Objects.requireNonNull(command);
+        final Context context = Context.current();
+        final CompletableFuture<Either<V>> future = new CompletableFuture<>();
+        execute(task(context, command, future));
+        return future;
+    }
+
+    /**
+     * Submits the commands as a batch, and returns the future results in the same order.
+     *
+     * @param commands the commands
+     * @return the future results
+     * @throws NullPointerException if commands is null or contains null
+     * @throws RejectedExecutionException if the executor has been closed
+     * @param <V> the value's type
+     */
+    public <V> List<CompletableFuture<Either<V>>> submitAll(List<Command<V>> commands) {
+        Objects.requireNonNull(commands);
+        final Context context = Context.current();
+        final List<CompletableFuture<Either<V>>> futures = new ArrayList<>(commands.size());
+        final List<Runnable> tasks = new ArrayList<>(commands.size());
+        for (Command<V> command : commands) {
+            Objects.requireNonNull(command);
+            final CompletableFuture<Either<V>> future = new CompletableFuture<>();
+            futures.add(future);
+            tasks.add(task(context, command, future));
+        }
+        executeAll(tasks);
+        return futures;
+    }
+
+    /**
+     * Returns a snapshot of the statistics.
+     *
+     * @return the statistics
+     */
+    public Statistics statistics() {
+        return new Statistics(executed.sum(), stolen.sum());
+    }
+
+    /**
+     * Rejects new tasks, and waits until the workers have executed the submitted tasks.
+     * If the current thread is interrupted while waiting, it stops waiting and its interrupt status is restored,
+     * while the workers keep executing the submitted tasks.
+     */
+    @Override
+    public void close() {
+        running = false;
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker.thread);
+        }
+        if (currentWorker() == null) {
+            try {
+                terminated.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Waits until the workers have terminated, or the timeout has elapsed.
+     *
+     * @param timeout the timeout
+     * @param unit the unit of the timeout
+     * @return true if the workers have terminated
+     * @throws InterruptedException if the current thread has been interrupted while waiting
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    private static <V> Runnable task(Context context, Command<V> command, CompletableFuture<Either<V>> future) {
+        return () -> {
+            try {
+                future.complete(context.execute(command, CancellationToken.none()));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+                throw e;
+            }
+        };
+    }
+
+    private void checkRunning() {
+        if (!running) {
+            throw new RejectedExecutionException("Executor closed");
+        }
+    }
+
+    private Worker currentWorker() {
+        return current.get();
+    }
+
+    private void reject(Collection<? extends Runnable> tasks) {
+        // the workers might have terminated before the tasks have been pushed
+        boolean removed = false;
+        for (Runnable task : tasks) {
+            for (Worker worker : workers) {
+                removed |= worker.deque.removeLastOccurrence(task);
+            }
+        }
+        if (removed) {
+            throw new RejectedExecutionException("Executor closed");
+        }
+    }
+
+    private void signal(int tasks) {
+        // the parked workers publish the idle count before checking the deques for the last time
+        // the scan starts from a different worker each time, so that the same workers are not always woken up first
+        final int first = Math.floorMod(wake.getAndIncrement(), workers.length);
+        for (int i = 0; i < workers.length && tasks > 0 && idle.get() > 0; i++) {
+            final Worker worker = workers[(first + i) % workers.length];
+            if (worker.parked.compareAndSet(true, false)) {
+                idle.decrementAndGet();
+                LockSupport.unpark(worker.thread);
+                tasks -= 1;
+            }
+        }
+    }
+
+    private final class Worker {
+        private final int index;
+        private final ConcurrentLinkedDeque<Runnable> deque = new ConcurrentLinkedDeque<>();
+        private final AtomicBoolean parked = new AtomicBoolean();
+        private Thread thread;
+
+        private Worker(int index) {
+            this.index = index;
+        }
+
+        private void run() {
+            current.set(this);
+            try {
+                int spins = 0;
+                while (true) {
+                    // the state is read before the deques, so that a task pushed before the executor stopped is found
+                    final boolean stopped = !running;
+                    final Runnable task = find();
+                    if (task != null) {
+                        spins = 0;
+                        execute(task);
+                    } else if (stopped) {
+                        break;
+                    } else if (spins++ < SPIN_TRIES) {
+                        Thread.onSpinWait();
+                    } else {
+                        park();
+                        spins = 0;
+                    }
+                }
+            } finally {
+                terminated.countDown();
+            }
+        }
+
+        private Runnable find() {
+            final Runnable task = deque.pollLast();
+            if (task != null) {
+                return task;
+            }
+            for (int i = 1; i < workers.length; i++) {
+                final Runnable stolenTask = workers[(index + i) % workers.length].deque.pollFirst();
+                if (stolenTask != null) {
+                    stolen.increment();
+                    return stolenTask;
+                }
+            }
+            return null;
+        }
+
+        private boolean hasTasks() {
+            for (Worker worker : workers) {
+                if (!worker.deque.isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void park() {
+            parked.set(true);
+            idle.incrementAndGet();
+            if (hasTasks() || !running) {
+                if (parked.compareAndSet(true, false)) {
+                    idle.decrementAndGet();
+                }
+                return;
+            }
+            while (parked.get() && running) {
+                LockSupport.park(this);
+            }
+            if (parked.compareAndSet(true, false)) {
+                idle.decrementAndGet();
+            }
+        }
+
+        private void execute(Runnable task) {
+            try {
+                task.run();
+            } catch (Throwable e) {
+                // the worker survives the errors too, because its deque would be drained only by stealing
+                final Thread current = Thread.currentThread();
+                current.getUncaughtExceptionHandler().uncaughtException(current, e);
+            }
+            executed.increment();
+        }
+    }
+
+    /**
+     * Statistics represents a snapshot of the statistics of the executor.
+     */
+    public static final class Statistics {
+        private final long executed;
+        private final long stolen;
+
+        private Statistics(long executed, long stolen) {
+            this.executed = executed;
+            this.stolen = stolen;
+        }
+
+        /**
+         * Returns the number of executed tasks.
+         *
+         * @return the number of executed tasks
+         */
+        public long executed() {
+            return executed;
+        }
+
+        /**
+         * Returns the number of tasks which have been stolen from another worker.
+         *
+         * @return the number of stolen tasks
+         */
+        public long stolen() {
+            return stolen;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * WriteBehindSink collects items and writes them in batches.
+ * <p>
+ * A batch is written when it reaches the maximum size, or when its oldest item reaches the maximum delay.
+ * The batch is written by executing the command created by the batch function on the scheduler,
+ * and the result of each item is the result of its batch. The number of items which have been accepted
+ * but not yet written is bounded, and writing an item blocks the caller while the sink is full.
+ * Closing the sink rejects new items and waits until the accepted items have been written, unless the caller is
+ * interrupted, and {@link #awaitTermination(Duration)} waits with a timeout.
+ *
+ * @param <T> the item's type
+ */
+public class WriteBehindSink<T> implements AutoCloseable {
+    private final ScheduledExecutorService scheduler;
+    private final Function<List<T>, Command<Void>> function;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final Semaphore permits;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final CountDownLatch terminated = new CountDownLatch(1);
+
+    private List<Item<T>> batch;
+    private long generation;
+    private long pending;
+    private boolean closed;
+
+    private WriteBehindSink(ScheduledExecutorService scheduler, Function<List<T>, Command<Void>> function, int maxBatchSize, Duration maxDelay, int capacity) {
+        this.scheduler = scheduler;
+        this.function = function;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.permits = new Semaphore(capacity);
+        this.batch = new ArrayList<>(Math.min(maxBatchSize, 1024));
+    }
+
+    /**
+     * Creates new instance.
+     *
+     * @param scheduler the scheduler which writes the batches
+     * @param function the function which creates the command for writing a batch
+     * @param maxBatchSize the maximum number of items in a batch
+     * @param maxDelay the maximum delay before the oldest item of a batch is written
+     * @param capacity the maximum number of items which have been accepted but not yet written
+     * @return new instance
+     * @throws NullPointerException if scheduler, function or maxDelay is null
+     * @throws IllegalArgumentException if maxBatchSize or capacity is less than 1, or maxDelay is negative
+     * @param <T> the item's type
+     */
+    public static <T> WriteBehindSink<T> of(ScheduledExecutorService scheduler, Function<List<T>, Command<Void>> function, int maxBatchSize, Duration maxDelay, int capacity) {
+        Objects.requireNonNull(scheduler);
+        Objects.requireNonNull(function);
+        Objects.requireNonNull(maxDelay);
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be greater than 0");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be greater than 0");
+        }
+        if (maxDelay.isNegative()) {
+            throw new IllegalArgumentException("maxDelay must not be negative");
+        }
+        return new WriteBehindSink<>(scheduler, function, maxBatchSize, maxDelay, capacity);
+    }
+
+    /**
+     * Accepts an item and returns a command which waits for the result of the item's batch.
+     * <p>
+     * The caller is blocked while the sink is full. The command is a failure if the sink has been closed,
+     * or if the caller has been interrupted while waiting.
+     *
+     * @param item the item
+     * @return new command
+     */
+    public Command<Void> write(T item) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Command.error(e);
+        }
+
+        final Item<T> entry = new Item<>(item);
+
+        List<Item<T>> ready = null;
+
+        long expired = -1;
+
+        lock.lock();
+        try {
+            if (closed) {
+                permits.release();
+                return Command.error(new RejectedExecutionException("Sink has been closed"));
+            }
+
+            pending += 1;
+
+            batch.add(entry);
+
+            if (batch.size() >= maxBatchSize) {
+                ready = take();
+            } else if (batch.size() == 1) {
+                expired = generation;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (ready != null) {
+            final List<Item<T>> items = ready;
+            schedule(() -> process(items), 0);
+        } else if (expired != -1) {
+            final long current = expired;
+            schedule(() -> flush(current), maxDelayNanos);
+        }
+
+        return Command.of(token -> entry.future.get().orThrow().get());
+    }
+
+    /**
+     * Writes the current batch without waiting for the maximum size or the maximum delay.
+     */
+    public void flush() {
+        final List<Item<T>> ready;
+
+        lock.lock();
+        try {
+            ready = take();
+        } finally {
+            lock.unlock();
+        }
+
+        if (!ready.isEmpty()) {
+            schedule(() -> process(ready), 0);
+        }
+    }
+
+    /**
+     * Rejects new items and waits until the accepted items have been written.
+     * If the current thread is interrupted while waiting, it stops waiting and its interrupt status is restored,
+     * while the accepted items keep being written.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (!closed) {
+                closed = true;
+                if (pending == 0) {
+                    terminated.countDown();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        flush();
+
+        try {
+            terminated.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits until the accepted items have been written, after the sink has been closed.
+     *
+     * @param timeout the timeout
+     * @return true if the accepted items have been written before the timeout
+     * @throws InterruptedException if the current thread has been interrupted while waiting
+     */
+    public boolean awaitTermination(Duration timeout) throws InterruptedException {
+        return terminated.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void flush(long expectedGeneration) {
+        final List<Item<T>> ready;
+
+        lock.lock();
+        try {
+            if (generation != expectedGeneration) {
+                // the batch has already been written
+                return;
+            }
+            ready = take();
+        } finally {
+            lock.unlock();
+        }
+
+        if (!ready.isEmpty()) {
+            process(ready);
+        }
+    }
+
+    private List<Item<T>> take() {
+        final List<Item<T>> ready = batch;
+        if (!ready.isEmpty()) {
+            batch = new ArrayList<>(Math.min(maxBatchSize, 1024));
+            generation += 1;
+        }
+        return ready;
+    }
+
+    private void schedule(Runnable task, long delayNanos) {
+        try {
+            if (delayNanos > 0) {
+                scheduler.schedule(task, delayNanos, TimeUnit.NANOSECONDS);
+            } else {
+                scheduler.execute(task);
+            }
+        } catch (RejectedExecutionException e) {
+            // the batch is written on the caller thread when the scheduler is not available anymore
+            task.run();
+        }
+    }
+
+    private void process(List<Item<T>> items) {
+        final List<T> values = new ArrayList<>(items.size());
+        for (Item<T> item : items) {
+            values.add(item.value);
+        }
+
+        try {
+            final Either<Void> result;
+            try {
+                result = Command.value(Collections.unmodifiableList(values)).flatMap(function).execute();
+            } catch (Throwable e) {
+                // the writers wait for the futures, therefore they must be completed anyway
+                complete(items, Either.failure(new ExecutionException(e)));
+                throw e;
+            }
+            complete(items, result);
+        } finally {
+            permits.release(items.size());
+
+            lock.lock();
+            try {
+                pending -= items.size();
+                if (closed && pending == 0) {
+                    terminated.countDown();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static <T> void complete(List<Item<T>> items, Either<Void> result) {
+        for (Item<T> item : items) {
+            item.future.complete(result);
+        }
+    }
+
+    private static class Item<T> {
+        private final T value;
+        private final CompletableFuture<Either<Void>> future = new CompletableFuture<>();
+
+        private Item(T value) {
+            this.value = value;
+        }
+    }
+}
@@ -9,17 +9,16 @@ import java.util.stream.Stream;
 
 /**
  * Either implements a fluent interface for composing operations and handling errors.
+ * <p>
+ * Either is either a success or a failure. Each outcome is represented by its own final subtype,
+ * so that every operation is resolved by a direct override rather than by checking the state.
+ * The subtypes are not part of the public API, and the only way to create an instance is
+ * by using the factory methods.
  *
  * @param <V> the value's type
  */
-public class Either<V> {
-    private final V value;
-    private final Exception exception;
-
-    private Either(V value, Exception exception) {
-        this.value = value;
-        this.exception = exception;
-    }
+public abstract class Either<V> {
+    private Either() {}
 
     /**
      * Creates new instance with given value.
@@ -29,7 +28,7 @@ public class Either<V> {
      * @param <R> the value's type
      */
     public static <R> Either<R> success(R value) {
-        return new Either<>(value, null);
+        return new Success<>(value);
     }
 
     /**
@@ -42,7 +41,24 @@ public class Either<V> {
      */
     public static <R> Either<R> failure(Exception exception) {
         Objects.requireNonNull(exception);
-        return new Either<>(null, exception);
+        return new Failure<>(exception);
+    }
+
+    /**
+     * Creates new instance which is evaluated lazily.
+     * <p>
+     * The supplier is invoked at most once, the first time the status or the value of the instance is accessed.
+     * The result is safely published, therefore the instance can be shared between threads.
+     * The instance is a failure if the supplier throws an exception or returns null.
+     *
+     * @param supplier the supplier
+     * @return new instance
+     * @throws NullPointerException if supplier is null
+     * @param <R> the value's type
+     */
+    public static <R> Either<R> lazy(Supplier<Either<R>> supplier) {
+        Objects.requireNonNull(supplier);
+        return new Lazy<>(supplier);
     }
 
     /**
@@ -50,9 +66,7 @@ public class Either<V> {
      *
      * @return true when success
      */
-    public boolean isSuccess() {
-        return exception == null;
-    }
+    public abstract boolean isSuccess();
 
     /**
      * Returns true when exception is present.
@@ -68,18 +82,14 @@ public class Either<V> {
      *
      * @return the exception if present or null
      */
-    public Exception exception() {
-        return exception;
-    }
+    public abstract Exception exception();
 
     /**
      * Returns the value if present or null.
      *
      * @return the value if present or null
      */
-    public V get() {
-        return value;
-    }
+    public abstract V get();
 
     /**
      * Returns the value if present or the default value.
@@ -98,10 +108,7 @@ public class Either<V> {
      * @throws NullPointerException if supplier is null
      * @return the value if present or the supplied value
      */
-    public V orElseGet(Supplier<V> supplier) {
-        Objects.requireNonNull(supplier);
-        return this.value != null ? this.value : supplier.get();
-    }
+    public abstract V orElseGet(Supplier<V> supplier);
 
     /**
      * Throws the exception if the exception is present.
@@ -121,13 +128,7 @@ public class Either<V> {
      * @throws E the transformed exception
      * @param <E> the exception's type
      */
-    public <E extends Exception> Either<V> orThrow(Function<Exception, E> function) throws E {
-        if (exception != null) {
-            throw function.apply(exception);
-        }
-
-        return this;
-    }
+    public abstract <E extends Exception> Either<V> orThrow(Function<Exception, E> function) throws E;
 
     /**
      * Returns same instance or alternative instance if failure.
@@ -135,13 +136,7 @@ public class Either<V> {
      * @param supplier the supplier of alternative instance
      * @return same instance or alternative instance if failure
      */
-    public Either<V> or(Supplier<Either<V>> supplier) {
-        if (exception != null) {
-            return supplier.get();
-        }
-
-        return this;
-    }
+    public abstract Either<V> or(Supplier<Either<V>> supplier);
 
     /**
      * Creates new instance with given function.
@@ -151,19 +146,7 @@ public class Either<V> {
      * @throws NullPointerException if function is null
      * @param <R> the value's type
      */
-    public <R> Either<R> map(Function<V, R> function) {
-        Objects.requireNonNull(function);
-
-        if (exception != null) {
-            return Either.failure(exception);
-        }
-
-        try {
-            return Either.success(function.apply(value));
-        } catch (Exception e) {
-            return Either.failure(e);
-        }
-    }
+    public abstract <R> Either<R> map(Function<V, R> function);
 
     /**
      * Creates new instance with given function.
@@ -173,19 +156,7 @@ public class Either<V> {
      * @throws NullPointerException if function is null
      * @param <R> the value's type
      */
-    public <R> Either<R> flatMap(Function<V, Either<R>> function) {
-        Objects.requireNonNull(function);
-
-        if (exception != null) {
-            return Either.failure(exception);
-        }
-
-        try {
-            return Either.success(function.apply(value).orThrow().get());
-        } catch (Exception e) {
-            return Either.failure(e);
-        }
-    }
+    public abstract <R> Either<R> flatMap(Function<V, Either<R>> function);
 
     /**
      * Returns a new observable.
@@ -196,13 +167,24 @@ public class Either<V> {
         return new Observable<>(this, null, null);
     }
 
+    /**
+     * Notifies the status to the listeners of the given observer.
+     *
+     * @param observer the observer
+     * @return the same either
+     * @throws NullPointerException if observer is null
+     */
+    public Either<V> observe(Observer<V> observer) {
+        return observer.observe(this);
+    }
+
     /**
      * Returns a new optional with same value.
      *
      * @return the optional
      */
     public Optional<V> optional() {
-        return Optional.ofNullable(value);
+        return Optional.ofNullable(get());
     }
 
     /**
@@ -211,7 +193,272 @@ public class Either<V> {
      * @return the stream
      */
     public Stream<V> stream() {
-        return Stream.ofNullable(value);
+        return Stream.ofNullable(get());
+    }
+
+    private static final class Success<V> extends Either<V> {
+        private final V value;
+
+        private Success(V value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean isSuccess() {
+            return true;
+        }
+
+        @Override
+        public boolean isFailure() {
+            return false;
+        }
+
+        @Override
+        public Exception exception() {
+            return null;
+        }
+
+        @Override
+        public V get() {
+            return value;
+        }
+
+        @Override
+        public V orElse(V value) {
+            return this.value != null ? this.value : value;
+        }
+
+        @Override
+        public V orElseGet(Supplier<V> supplier) {
+            Objects.requireNonNull(supplier);
+            return value != null ? value : supplier.get();
+        }
+
+        @Override
+        public Either<V> orThrow() {
+            return this;
+        }
+
+        @Override
+        public <E extends Exception> Either<V> orThrow(Function<Exception, E> function) {
+            return this;
+        }
+
+        @Override
+        public Either<V> or(Supplier<Either<V>> supplier) {
+            return this;
+        }
+
+        @Override
+        public <R> Either<R> map(Function<V, R> function) {
+            Objects.requireNonNull(function);
+
+            try {
+                return new Success<>(function.apply(value));
+            } catch (Exception e) {
+                return new Failure<>(e);
+            }
+        }
+
+        @Override
+        public <R> Either<R> flatMap(Function<V, Either<R>> function) {
+            Objects.requireNonNull(function);
+
+            try {
+                return Objects.requireNonNull(function.apply(value));
+            } catch (Exception e) {
+                return new Failure<>(e);
+            }
+        }
+
+        @Override
+        public Optional<V> optional() {
+            return Optional.ofNullable(value);
+        }
+
+        @Override
+        public Stream<V> stream() {
+            return Stream.ofNullable(value);
+        }
+    }
+
+    private static final class Failure<V> extends Either<V> {
+        private final Exception exception;
+
+        private Failure(Exception exception) {
+            this.exception = exception;
+        }
+
+        @Override
+        public boolean isSuccess() {
+            return false;
+        }
+
+        @Override
+        public boolean isFailure() {
+            return true;
+        }
+
+        @Override
+        public Exception exception() {
+            return exception;
+        }
+
+        @Override
+        public V get() {
+            return null;
+        }
+
+        @Override
+        public V orElse(V value) {
+            return value;
+        }
+
+        @Override
+        public V orElseGet(Supplier<V> supplier) {
+            Objects.requireNonNull(supplier);
+            return supplier.get();
+        }
+
+        @Override
+        public Either<V> orThrow() throws Exception {
+            throw exception;
+        }
+
+        @Override
+        public <E extends Exception> Either<V> orThrow(Function<Exception, E> function) throws E {
+            throw function.apply(exception);
+        }
+
+        @Override
+        public Either<V> or(Supplier<Either<V>> supplier) {
+            return supplier.get();
+        }
+
+        @Override
+        public <R> Either<R> map(Function<V, R> function) {
+            Objects.requireNonNull(function);
+            return coerce();
+        }
+
+        @Override
+        public <R> Either<R> flatMap(Function<V, Either<R>> function) {
+            Objects.requireNonNull(function);
+            return coerce();
+        }
+
+        @Override
+        public Optional<V> optional() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Stream<V> stream() {
+            return Stream.empty();
+        }
+
+        @SuppressWarnings("unchecked")
+        private <R> Either<R> coerce() {
+            return (Either<R>) this;
+        }
+    }
+
+    private static final class Lazy<V> extends Either<V> {
+        private Supplier<Either<V>> supplier;
+        private volatile Either<V> either;
+
+        private Lazy(Supplier<Either<V>> supplier) {
+            this.supplier = supplier;
+        }
+
+        @Override
+        public boolean isSuccess() {
+            return evaluate().isSuccess();
+        }
+
+        @Override
+        public boolean isFailure() {
+            return evaluate().isFailure();
+        }
+
+        @Override
+        public Exception exception() {
+            return evaluate().exception();
+        }
+
+        @Override
+        public V get() {
+            return evaluate().get();
+        }
+
+        @Override
+        public V orElse(V value) {
+            return evaluate().orElse(value);
+        }
+
+        @Override
+        public V orElseGet(Supplier<V> supplier) {
+            return evaluate().orElseGet(supplier);
+        }
+
+        @Override
+        public Either<V> orThrow() throws Exception {
+            return evaluate().orThrow();
+        }
+
+        @Override
+        public <E extends Exception> Either<V> orThrow(Function<Exception, E> function) throws E {
+            return evaluate().orThrow(function);
+        }
+
+        @Override
+        public Either<V> or(Supplier<Either<V>> supplier) {
+            return evaluate().or(supplier);
+        }
+
+        @Override
+        public <R> Either<R> map(Function<V, R> function) {
+            return evaluate().map(function);
+        }
+
+        @Override
+        public <R> Either<R> flatMap(Function<V, Either<R>> function) {
+            return evaluate().flatMap(function);
+        }
+
+        @Override
+        public Optional<V> optional() {
+            return evaluate().optional();
+        }
+
+        @Override
+        public Stream<V> stream() {
+            return evaluate().stream();
+        }
+
+        private Either<V> evaluate() {
+            Either<V> result = either;
+            if (result == null) {
+                synchronized (this) {
+                    result = either;
+                    if (result == null) {
+                        result = compute();
+                        either = result;
+                        // the supplier is not needed anymore and might retain a large graph
+                        supplier = null;
+                    }
+                }
+            }
+            return result;
+        }
+
+        private Either<V> compute() {
+            try {
+                return Objects.requireNonNull(supplier.get());
+            } catch (Exception e) {
+                return new Failure<>(e);
+            }
+        }
     }
 
     /**
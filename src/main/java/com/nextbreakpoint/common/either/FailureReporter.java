@@ -0,0 +1,234 @@
+package com.nextbreakpoint.common.either;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * FailureReporter logs failures in aggregate, so that a burst of identical failures doesn't flood the logs.
+ * <p>
+ * The failures are counted by kind, which is the class of the exception and its message with the numbers replaced by #,
+ * and a summary of the counters is logged once per window. The first failure of each kind in a window is logged with its
+ * stack trace, unless configured otherwise, and then only a sampled fraction of the failures. The summary is logged by the
+ * first failure reported after the end of the window, or by {@link #flush()}, therefore no thread is required, but the summary
+ * of the last window is not logged until another failure is reported: invoke {@link #flush()} periodically, or before shutting
+ * down, to log it on time. The number of kinds in a window is bounded, and the failures of the other kinds are counted together.
+ * The reporter can be used as failure callback of an observable.
+ */
+public final class FailureReporter implements Consumer<Exception> {
+    private static final String OTHER = "other";
+    private static final int MAX_MESSAGE_LENGTH = 200;
+
+    private final Logger logger;
+    private final long windowNanos;
+    private final double sampleRate;
+    private final Level level;
+    private final int maxKinds;
+    private final boolean sampleFirst;
+
+    private final AtomicReference<ConcurrentHashMap<String, LongAdder>> counters = new AtomicReference<>(new ConcurrentHashMap<>());
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+
+    private FailureReporter(Logger logger, long windowNanos, double sampleRate, Level level, int maxKinds, boolean sampleFirst) {
+        this.logger = logger;
+        this.windowNanos = windowNanos;
+        this.sampleRate = sampleRate;
+        this.level = level;
+        this.maxKinds = maxKinds;
+        this.sampleFirst = sampleFirst;
+    }
+
+    /**
+     * Creates new instance with given logger and window. By default the failures are logged with level WARNING,
+     * one failure in a thousand is logged with its stack trace, and the summary contains up to 100 kinds.
+     *
+     * @param logger the logger
+     * @param window the duration of the window
+     * @return new instance
+     * @throws NullPointerException if logger or window is null
+     * @throws IllegalArgumentException if window is not positive
+     */
+    public static FailureReporter of(Logger logger, Duration window) {
+        Objects.requireNonNull(logger);
+        Objects.requireNonNull(window);
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+        return new FailureReporter(logger, window.toNanos(), 0.001, Level.WARNING, 100, false);
+    }
+
+    /**
+     * Returns a new instance with given sample rate.
+     *
+     * @param sampleRate the fraction of failures which are logged with their stack trace
+     * @return new instance
+     * @throws IllegalArgumentException if sampleRate is not between 0 and 1
+     */
+    public FailureReporter withSampleRate(double sampleRate) {
+        if (!(sampleRate >= 0 && sampleRate <= 1)) {
+            throw new IllegalArgumentException("sampleRate must be between 0 and 1");
+        }
+        return new FailureReporter(logger, windowNanos, sampleRate, level, maxKinds, sampleFirst);
+    }
+
+    /**
+     * Returns a new instance with given level.
+     *
+     * @param level the level of the records
+     * @return new instance
+     * @throws NullPointerException if level is null
+     */
+    public FailureReporter withLevel(Level level) {
+        Objects.requireNonNull(level);
+        return new FailureReporter(logger, windowNanos, sampleRate, level, maxKinds, sampleFirst);
+    }
+
+    /**
+     * Returns a new instance with given maximum number of kinds in a window.
+     *
+     * @param maxKinds the maximum number of kinds
+     * @return new instance
+     * @throws IllegalArgumentException if maxKinds is less than 1
+     */
+    public FailureReporter withMaxKinds(int maxKinds) {
+        if (maxKinds < 1) {
+            throw new IllegalArgumentException("maxKinds must be greater than 0");
+        }
+        return new FailureReporter(logger, windowNanos, sampleRate, level, maxKinds, sampleFirst);
+    }
+
+    /**
+     * Returns a new instance which samples the first failure of each kind in a window like the other failures,
+     * instead of always logging it with its stack trace.
+     *
+     * @return new instance
+     */
+    public FailureReporter withSampledFirstFailures() {
+        return new FailureReporter(logger, windowNanos, sampleRate, level, maxKinds, true);
+    }
+
+    /**
+     * Reports the failure.
+     *
+     * @param exception the exception
+     * @throws NullPointerException if exception is null
+     */
+    @Override
+    public void accept(Exception exception) {
+        Objects.requireNonNull(exception);
+
+        final long now = System.nanoTime();
+        final long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            flush();
+        }
+
+        if (!logger.isLoggable(level)) {
+            return;
+        }
+
+        final ConcurrentHashMap<String, LongAdder> current = counters.get();
+        final String kind = kindOf(exception);
+
+        boolean first = false;
+        LongAdder counter = current.get(kind);
+        if (counter == null) {
+            final LongAdder created = new LongAdder();
+            // the size is checked before adding, therefore concurrent threads can exceed the limit slightly
+            counter = current.size() < maxKinds ? current.putIfAbsent(kind, created) : current.computeIfAbsent(OTHER, key -> new LongAdder());
+            if (counter == null) {
+                counter = created;
+                first = true;
+            }
+        }
+        if (first && !sampleFirst) {
+            logger.log(level, "Failure " + kind, exception);
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            logger.log(level, "Failure " + kind + " (sampled)", exception);
+        }
+        counter.increment();
+
+        // the window might have been flushed before the increment, then the count is moved to the next window
+        ConcurrentHashMap<String, LongAdder> window = current;
+        while (counters.get() != window) {
+            final long count = counter.sumThenReset();
+            if (count == 0) {
+                break;
+            }
+            window = counters.get();
+            counter = window.get(kind);
+            if (counter == null) {
+                counter = window.computeIfAbsent(window.size() < maxKinds ? kind : OTHER, key -> new LongAdder());
+            }
+            counter.add(count);
+        }
+    }
+
+    /**
+     * Logs the summary of the current window, and starts a new window.
+     */
+    public void flush() {
+        final ConcurrentHashMap<String, LongAdder> current = counters.getAndSet(new ConcurrentHashMap<>());
+
+        if (current.isEmpty() || !logger.isLoggable(level)) {
+            return;
+        }
+
+        final List<Map.Entry<String, Long>> entries = new ArrayList<>(current.size());
+        // the counters are reset, so that a late increment is counted either here or in the next window
+        current.forEach((kind, counter) -> {
+            final long count = counter.sumThenReset();
+            if (count > 0) {
+                entries.add(Map.entry(kind, count));
+            }
+        });
+        if (entries.isEmpty()) {
+            return;
+        }
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+
+        final long total = entries.stream().mapToLong(Map.Entry::getValue).sum();
+
+        final StringBuilder builder = new StringBuilder();
+        builder.append("Failures in last window: ").append(total);
+        for (Map.Entry<String, Long> entry : entries) {
+            builder.append("\n  ").append(entry.getValue()).append(" x ").append(entry.getKey());
+        }
+
+        logger.log(level, builder.toString());
+    }
+
+    private static String kindOf(Exception exception) {
+        final String message = exception.getMessage();
+        if (message == null) {
+            return exception.getClass().getName();
+        }
+        final int length = Math.min(message.length(), MAX_MESSAGE_LENGTH);
+        final StringBuilder builder = new StringBuilder(exception.getClass().getName().length() + 2 + length);
+        builder.append(exception.getClass().getName()).append(": ");
+        boolean digits = false;
+        for (int i = 0; i < length; i++) {
+            final char c = message.charAt(i);
+            if (Character.isDigit(c)) {
+                if (!digits) {
+                    builder.append('#');
+                    digits = true;
+                }
+            } else {
+                builder.append(c);
+                digits = false;
+            }
+        }
+        return builder.toString();
+    }
+}
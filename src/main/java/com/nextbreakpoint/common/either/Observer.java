@@ -0,0 +1,176 @@
+package com.nextbreakpoint.common.either;
+
+import com.nextbreakpoint.common.internal.SerialQueue;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Observer notifies the status of many Either instances to a list of listeners.
+ * <p>
+ * Unlike {@link Either.Observable}, an observer is built once and then applied to any number of instances,
+ * and observing an instance doesn't create any object. The listeners are invoked in the order they have been added.
+ * The asynchronous mode invokes the listeners in batches on an executor, so that slow listeners don't delay the caller.
+ *
+ * @param <V> the value's type
+ */
+public final class Observer<V> {
+    private static final Consumer<?>[] NO_LISTENERS = new Consumer<?>[0];
+
+    private final Consumer<?>[] successListeners;
+    private final Consumer<?>[] failureListeners;
+
+    private Observer(Consumer<?>[] successListeners, Consumer<?>[] failureListeners) {
+        this.successListeners = successListeners;
+        this.failureListeners = failureListeners;
+    }
+
+    /**
+     * Creates new instance without listeners.
+     *
+     * @return new instance
+     * @param <V> the value's type
+     */
+    public static <V> Observer<V> create() {
+        return new Observer<>(NO_LISTENERS, NO_LISTENERS);
+    }
+
+    /**
+     * Returns a new instance with given success listener added to the listeners.
+     *
+     * @param consumer the listener
+     * @return new instance
+     * @throws NullPointerException if consumer is null
+     */
+    public Observer<V> onSuccess(Consumer<? super V> consumer) {
+        Objects.requireNonNull(consumer);
+        return new Observer<>(append(successListeners, consumer), failureListeners);
+    }
+
+    /**
+     * Returns a new instance with given failure listener added to the listeners.
+     *
+     * @param consumer the listener
+     * @return new instance
+     * @throws NullPointerException if consumer is null
+     */
+    public Observer<V> onFailure(Consumer<? super Exception> consumer) {
+        Objects.requireNonNull(consumer);
+        return new Observer<>(successListeners, append(failureListeners, consumer));
+    }
+
+    /**
+     * Invokes the listeners matching the status of the given either in the current thread.
+     *
+     * @param either the either
+     * @return the same either
+     * @throws NullPointerException if either is null
+     */
+    public Either<V> observe(Either<V> either) {
+        Objects.requireNonNull(either);
+        notify(either, false);
+        return either;
+    }
+
+    /**
+     * Returns an asynchronous observer which invokes the listeners of this observer on the given executor.
+     *
+     * @param executor the executor of the listeners
+     * @param capacity the maximum number of pending notifications
+     * @return new instance
+     * @throws NullPointerException if executor is null
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    public Async<V> async(Executor executor, int capacity) {
+        Objects.requireNonNull(executor);
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be greater than 0");
+        }
+        return new Async<>(this, executor, capacity);
+    }
+
+    private void notify(Either<V> either, boolean isolated) {
+        if (either.isSuccess()) {
+            notify(successListeners, either.get(), isolated);
+        } else {
+            notify(failureListeners, either.exception(), isolated);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void notify(Consumer<?>[] listeners, Object value, boolean isolated) {
+        for (Consumer<?> listener : listeners) {
+            if (!isolated) {
+                ((Consumer<Object>) listener).accept(value);
+                continue;
+            }
+            try {
+                ((Consumer<Object>) listener).accept(value);
+            } catch (RuntimeException e) {
+                final Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+
+    private static Consumer<?>[] append(Consumer<?>[] listeners, Consumer<?> listener) {
+        final Consumer<?>[] result = new Consumer<?>[listeners.length + 1];
+        System.arraycopy(listeners, 0, result, 0, listeners.length);
+        result[listeners.length] = listener;
+        return result;
+    }
+
+    /**
+     * Async notifies the status of many Either instances to the listeners of an observer on an executor.
+     * <p>
+     * The instances are queued, and the queue is drained in batches by at most one thread of the executor at a time,
+     * therefore the listeners are invoked in the order the instances have been observed. The queue is bounded, and
+     * the instances observed when the queue is full are dropped. An exception thrown by a listener is passed to the
+     * uncaught exception handler of the thread, and it doesn't stop the notification of the other listeners.
+     *
+     * @param <V> the value's type
+     */
+    public static final class Async<V> {
+        private final SerialQueue<Either<V>> queue;
+        private final LongAdder dropped = new LongAdder();
+
+        private Async(Observer<V> observer, Executor executor, int capacity) {
+            this.queue = SerialQueue.of(executor, capacity, either -> observer.notify(either, true), (either, e) -> dropped.increment());
+        }
+
+        /**
+         * Queues the given either for notification, or drops it if the queue is full.
+         *
+         * @param either the either
+         * @return the same either
+         * @throws NullPointerException if either is null
+         */
+        public Either<V> observe(Either<V> either) {
+            Objects.requireNonNull(either);
+            if (!queue.offer(either)) {
+                dropped.increment();
+            }
+            return either;
+        }
+
+        /**
+         * Returns the number of pending notifications.
+         *
+         * @return the number of pending notifications
+         */
+        public int pending() {
+            return queue.size();
+        }
+
+        /**
+         * Returns the number of instances which have been dropped because the queue was full.
+         *
+         * @return the number of dropped instances
+         */
+        public long dropped() {
+            return dropped.sum();
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.nextbreakpoint.common.either;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Result implements a fluent interface for composing operations with errors of any type.
+ * <p>
+ * Result is either a success or an error, like Either, but the error can be any object, such as an enum
+ * constant, therefore expected errors can be represented without creating exceptions. The functions are
+ * not guarded: an exception thrown by a function is propagated to the caller, because it can't be converted
+ * to an error of the declared type. Use {@link #of(Either)} and {@link #toEither(Function)} to convert
+ * between Result and Either.
+ *
+ * @param <V> the value's type
+ * @param <E> the error's type
+ */
+public abstract class Result<V, E> {
+    private Result() {}
+
+    /**
+     * Creates new instance with given value.
+     *
+     * @param value the value
+     * @return new instance
+     * @param <R> the value's type
+     * @param <E> the error's type
+     */
+    public static <R, E> Result<R, E> success(R value) {
+        return new Success<>(value);
+    }
+
+    /**
+     * Creates new instance with given error.
+     *
+     * @param error the error
+     * @return new instance
+     * @throws NullPointerException if error is null
+     * @param <R> the value's type
+     * @param <E> the error's type
+     */
+    public static <R, E> Result<R, E> failure(E error) {
+        Objects.requireNonNull(error);
+        return new Failure<>(error);
+    }
+
+    /**
+     * Creates new instance from either. The error is the exception of the either.
+     *
+     * @param either the either
+     * @return new instance
+     * @throws NullPointerException if either is null
+     * @param <R> the value's type
+     */
+    public static <R> Result<R, Exception> of(Either<R> either) {
+        Objects.requireNonNull(either);
+        return either.isSuccess() ? new Success<>(either.get()) : new Failure<>(either.exception());
+    }
+
+    /**
+     * Returns true when error is not present.
+     *
+     * @return true when success
+     */
+    public abstract boolean isSuccess();
+
+    /**
+     * Returns true when error is present.
+     *
+     * @return true when failure
+     */
+    public boolean isFailure() {
+        return !isSuccess();
+    }
+
+    /**
+     * Returns the error if present or null.
+     *
+     * @return the error if present or null
+     */
+    public abstract E error();
+
+    /**
+     * Returns the value if present or null.
+     *
+     * @return the value if present or null
+     */
+    public abstract V get();
+
+    /**
+     * Returns the value if present or the default value.
+     *
+     * @param value the default value
+     * @return the value if present or the default value
+     */
+    public abstract V orElse(V value);
+
+    /**
+     * Returns the value if present or the supplied value.
+     *
+     * @param supplier the supplier
+     * @throws NullPointerException if supplier is null
+     * @return the value if present or the supplied value
+     */
+    public abstract V orElseGet(Supplier<V> supplier);
+
+    /**
+     * Returns same instance or alternative instance if failure.
+     *
+     * @param supplier the supplier of alternative instance
+     * @return same instance or alternative instance if failure
+     */
+    public abstract Result<V, E> or(Supplier<Result<V, E>> supplier);
+
+    /**
+     * Creates new instance with given function.
+     *
+     * @param function the function
+     * @return new instance
+     * @throws NullPointerException if function is null
+     * @param <R> the value's type
+     */
+    public abstract <R> Result<R, E> map(Function<V, R> function);
+
+    /**
+     * Creates new instance with given function.
+     *
+     * @param function the function
+     * @return new instance
+     * @throws NullPointerException if function is null or returns null
+     * @param <R> the value's type
+     */
+    public abstract <R> Result<R, E> flatMap(Function<V, Result<R, E>> function);
+
+    /**
+     * Creates new instance with given function applied to the error.
+     *
+     * @param function the function
+     * @return new instance
+     * @throws NullPointerException if function is null or returns null
+     * @param <F> the error's type
+     */
+    public abstract <F> Result<V, F> mapError(Function<E, F> function);
+
+    /**
+     * Returns the output of the function matching the outcome.
+     *
+     * @param onSuccess the function applied to the value
+     * @param onFailure the function applied to the error
+     * @return the output of the function
+     * @throws NullPointerException if onSuccess or onFailure is null
+     * @param <R> the output's type
+     */
+    public abstract <R> R fold(Function<V, R> onSuccess, Function<E, R> onFailure);
+
+    /**
+     * Returns a new either with same value, or with the exception created from the error.
+     *
+     * @param function the function which creates the exception
+     * @return the either
+     * @throws NullPointerException if function is null
+     */
+    public abstract Either<V> toEither(Function<E, Exception> function);
+
+    /**
+     * Returns a new optional with same value.
+     *
+     * @return the optional
+     */
+    public Optional<V> optional() {
+        return Optional.ofNullable(get());
+    }
+
+    private static final class Success<V, E> extends Result<V, E> {
+        private final V value;
+
+        private Success(V value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean isSuccess() {
+            return true;
+        }
+
+        @Override
+        public boolean isFailure() {
+            return false;
+        }
+
+        @Override
+        public E error() {
+            return null;
+        }
+
+        @Override
+        public V get() {
+            return value;
+        }
+
+        @Override
+        public V orElse(V value) {
+            return this.value != null ? this.value : value;
+        }
+
+        @Override
+        public V orElseGet(Supplier<V> supplier) {
+            Objects.requireNonNull(supplier);
+            return value != null ? value : supplier.get();
+        }
+
+        @Override
+        public Result<V, E> or(Supplier<Result<V, E>> supplier) {
+            return this;
+        }
+
+        @Override
+        public <R> Result<R, E> map(Function<V, R> function) {
+            Objects.requireNonNull(function);
+            return new Success<>(function.apply(value));
+        }
+
+        @Override
+        public <R> Result<R, E> flatMap(Function<V, Result<R, E>> function) {
+            Objects.requireNonNull(function);
+            return Objects.requireNonNull(function.apply(value));
+        }
+
+        @Override
+        public <F> Result<V, F> mapError(Function<E, F> function) {
+            Objects.requireNonNull(function);
+            return coerce();
+        }
+
+        @Override
+        public <R> R fold(Function<V, R> onSuccess, Function<E, R> onFailure) {
+            Objects.requireNonNull(onSuccess);
+            Objects.requireNonNull(onFailure);
+            return onSuccess.apply(value);
+        }
+
+        @Override
+        public Either<V> toEither(Function<E, Exception> function) {
+            Objects.requireNonNull(function);
+            return Either.success(value);
+        }
+
+        @Override
+        public Optional<V> optional() {
+            return Optional.ofNullable(value);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <F> Result<V, F> coerce() {
+            return (Result<V, F>) this;
+        }
+    }
+
+    private static final class Failure<V, E> extends Result<V, E> {
+        private final E error;
+
+        private Failure(E error) {
+            this.error = error;
+        }
+
+        @Override
+        public boolean isSuccess() {
+            return false;
+        }
+
+        @Override
+        public boolean isFailure() {
+            return true;
+        }
+
+        @Override
+        public E error() {
+            return error;
+        }
+
+        @Override
+        public V get() {
+            return null;
+        }
+
+        @Override
+        public V orElse(V value) {
+            return value;
+        }
+
+        @Override
+        public V orElseGet(Supplier<V> supplier) {
+            Objects.requireNonNull(supplier);
+            return supplier.get();
+        }
+
+        @Override
+        public Result<V, E> or(Supplier<Result<V, E>> supplier) {
+            return supplier.get();
+        }
+
+        @Override
+        public <R> Result<R, E> map(Function<V, R> function) {
+            Objects.requireNonNull(function);
+            return coerce();
+        }
+
+        @Override
+        public <R> Result<R, E> flatMap(Function<V, Result<R, E>> function) {
+            Objects.requireNonNull(function);
+            return coerce();
+        }
+
+        @Override
+        public <F> Result<V, F> mapError(Function<E, F> function) {
+            Objects.requireNonNull(function);
+            return new Failure<>(Objects.requireNonNull(function.apply(error)));
+        }
+
+        @Override
+        public <R> R fold(Function<V, R> onSuccess, Function<E, R> onFailure) {
+            Objects.requireNonNull(onSuccess);
+            Objects.requireNonNull(onFailure);
+            return onFailure.apply(error);
+        }
+
+        @Override
+        public Either<V> toEither(Function<E, Exception> function) {
+            Objects.requireNonNull(function);
+            return Either.failure(function.apply(error));
+        }
+
+        @Override
+        public Optional<V> optional() {
+            return Optional.empty();
+        }
+
+        @SuppressWarnings("unchecked")
+        private <R> Result<R, E> coerce() {
+            return (Result<R, E>) this;
+        }
+    }
+}
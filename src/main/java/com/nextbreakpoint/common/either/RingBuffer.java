@@ -0,0 +1,395 @@
+package com.nextbreakpoint.common.either;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * RingBuffer broadcasts Either instances to many consumers, with the design of the LMAX Disruptor.
+ * <p>
+ * The slots are preallocated, and each slot is published once and then read by every consumer, therefore publishing
+ * an instance doesn't create any object. Each consumer runs on its own thread and keeps its own sequence, and it
+ * receives all the instances available since its last read as a batch. The producers wait while the slowest consumer
+ * is one lap behind. A single producer publishes with a volatile write, while multiple producers claim the sequences
+ * with a compare-and-set. The wait strategy decides how the consumers wait for new instances: spinning gives the lowest
+ * latency but burns a core per consumer, while blocking doesn't burn any core but adds the cost of a signal per instance.
+ * The slots retain the last instances until they are overwritten.
+ *
+ * @param <V> the value's type
+ */
+public final class RingBuffer<V> implements AutoCloseable {
+    private static final int SPIN_TRIES = 100;
+
+    private final int capacity;
+    private final WaitStrategy waitStrategy;
+    private final boolean multipleProducers;
+
+    private final Object[] slots;
+    private final int mask;
+    private final int shift;
+    private final AtomicIntegerArray available;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+
+    private volatile boolean running = true;
+    private volatile AtomicLong[] sequences = new AtomicLong[0];
+    private volatile CountDownLatch terminated = new CountDownLatch(0);
+    private long nextSequence = -1;
+    private long cachedGatingSequence = -1;
+
+    private RingBuffer(int capacity, WaitStrategy waitStrategy, boolean multipleProducers) {
+        this.capacity = capacity;
+        this.waitStrategy = waitStrategy;
+        this.multipleProducers = multipleProducers;
+        this.slots = new Object[capacity];
+        this.mask = capacity - 1;
+        this.shift = Integer.numberOfTrailingZeros(capacity);
+        this.available = multipleProducers ? new AtomicIntegerArray(capacity) : null;
+        if (available != null) {
+            for (int i = 0; i < capacity; i++) {
+                available.set(i, -1);
+            }
+        }
+    }
+
+    /**
+     * Creates new instance for a single producer, with given capacity and the yielding wait strategy.
+     *
+     * @param capacity the number of slots, which is rounded up to a power of 2
+     * @return new instance
+     * @throws IllegalArgumentException if capacity is less than 1 or greater than 2^30
+     * @param <V> the value's type
+     */
+    public static <V> RingBuffer<V> of(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        }
+        return new RingBuffer<>(1 << -Integer.numberOfLeadingZeros(capacity - 1), WaitStrategy.YIELDING, false);
+    }
+
+    /**
+     * Returns a new instance, which is not started, with given wait strategy.
+     *
+     * @param waitStrategy the wait strategy of the consumers
+     * @return new instance
+     * @throws NullPointerException if waitStrategy is null
+     */
+    public RingBuffer<V> withWaitStrategy(WaitStrategy waitStrategy) {
+        Objects.requireNonNull(waitStrategy);
+        return new RingBuffer<>(capacity, waitStrategy, multipleProducers);
+    }
+
+    /**
+     * Returns a new instance, which is not started, which can be used by multiple producers concurrently.
+     *
+     * @return new instance
+     */
+    public RingBuffer<V> withMultipleProducers() {
+        return new RingBuffer<>(capacity, waitStrategy, true);
+    }
+
+    /**
+     * Starts the consumers. Each consumer runs on a thread of the executor until the ring buffer is closed.
+     *
+     * @param executor the executor of the consumers, which must provide a thread for each consumer
+     * @param handlers the handlers of the consumers
+     * @throws NullPointerException if executor or handlers is null or contains null
+     * @throws IllegalArgumentException if handlers is empty
+     * @throws IllegalStateException if the ring buffer has been started already
+     */
+    @SafeVarargs
+    public final void start(Executor executor, Handler<V>... handlers) {
+        Objects.requireNonNull(executor);
+        Objects.requireNonNull(handlers);
+        if (handlers.length == 0) {
+            throw new IllegalArgumentException("handlers must not be empty");
+        }
+        for (Handler<V> handler : handlers) {
+            Objects.requireNonNull(handler);
+        }
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ring buffer already started");
+        }
+        final AtomicLong[] consumerSequences = new AtomicLong[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            consumerSequences[i] = new AtomicLong(-1);
+        }
+        terminated = new CountDownLatch(handlers.length);
+        sequences = consumerSequences;
+        for (int i = 0; i < handlers.length; i++) {
+            final Handler<V> handler = handlers[i];
+            final AtomicLong sequence = consumerSequences[i];
+            executor.execute(() -> consume(handler, sequence));
+        }
+    }
+
+    /**
+     * Publishes the given either, and waits while the ring buffer is full.
+     * An instance published while the ring buffer is being closed might not be consumed, and it is reported as not published.
+     *
+     * @param either the either
+     * @return true if published, false if the ring buffer has been closed
+     * @throws NullPointerException if either is null
+     * @throws IllegalStateException if the ring buffer has not been started
+     */
+    public boolean publish(Either<V> either) {
+        return publish(either, true);
+    }
+
+    /**
+     * Publishes the given either if the ring buffer is not full.
+     * An instance published while the ring buffer is being closed might not be consumed, and it is reported as not published.
+     *
+     * @param either the either
+     * @return true if published, false if the ring buffer is full or it has been closed
+     * @throws NullPointerException if either is null
+     * @throws IllegalStateException if the ring buffer has not been started
+     */
+    public boolean tryPublish(Either<V> either) {
+        return publish(either, false);
+    }
+
+    /**
+     * Returns the number of published instances which have not been consumed by the slowest consumer.
+     *
+     * @return the number of pending instances
+     */
+    public long pending() {
+        return Math.max(0, cursor.get() - minimumSequence());
+    }
+
+    /**
+     * Stops accepting new instances, and waits until the consumers have consumed the published instances.
+     * If the current thread is interrupted while waiting, it stops waiting and its interrupt status is restored,
+     * while the consumers keep consuming the published instances.
+     */
+    @Override
+    public void close() {
+        running = false;
+        signal();
+        try {
+            terminated.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits until the consumers have consumed the published instances, after the ring buffer has been closed.
+     *
+     * @param timeout the timeout
+     * @return true if the consumers have terminated before the timeout
+     * @throws NullPointerException if timeout is null
+     * @throws InterruptedException if the current thread has been interrupted while waiting
+     */
+    public boolean awaitTermination(Duration timeout) throws InterruptedException {
+        Objects.requireNonNull(timeout);
+        return terminated.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private boolean publish(Either<V> either, boolean wait) {
+        Objects.requireNonNull(either);
+        // the sequences of the consumers are assigned after the ring buffer has been marked as started
+        if (sequences.length == 0) {
+            throw new IllegalStateException("Ring buffer not started");
+        }
+        if (!running) {
+            return false;
+        }
+        final long sequence = multipleProducers ? claimShared(wait) : claim(wait);
+        if (sequence < 0) {
+            return false;
+        }
+        slots[(int) sequence & mask] = either;
+        if (multipleProducers) {
+            available.set((int) sequence & mask, (int) (sequence >>> shift));
+        } else {
+            cursor.set(sequence);
+        }
+        if (waitStrategy == WaitStrategy.BLOCKING) {
+            signal();
+        }
+        // the consumers might have stopped before the instance has been published
+        return running;
+    }
+
+    private long claim(boolean wait) {
+        final long next = nextSequence + 1;
+        final long wrapPoint = next - capacity;
+        if (wrapPoint > cachedGatingSequence) {
+            long gating;
+            while (wrapPoint > (gating = minimumSequence())) {
+                if (!wait || !running) {
+                    return -1;
+                }
+                LockSupport.parkNanos(1);
+            }
+            cachedGatingSequence = gating;
+        }
+        nextSequence = next;
+        return next;
+    }
+
+    private long claimShared(boolean wait) {
+        while (true) {
+            final long current = cursor.get();
+            final long next = current + 1;
+            if (next - capacity > minimumSequence()) {
+                if (!wait || !running) {
+                    return -1;
+                }
+                LockSupport.parkNanos(1);
+            } else if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private long minimumSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (AtomicLong sequence : sequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum == Long.MAX_VALUE ? cursor.get() : minimum;
+    }
+
+    private long highestPublished(long next) {
+        final long claimed = cursor.get();
+        if (!multipleProducers) {
+            return claimed;
+        }
+        // the sequences are claimed in order but they might be published out of order
+        for (long sequence = next; sequence <= claimed; sequence++) {
+            if (available.get((int) sequence & mask) != (int) (sequence >>> shift)) {
+                return sequence - 1;
+            }
+        }
+        return claimed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void consume(Handler<V> handler, AtomicLong sequence) {
+        try {
+            long next = sequence.get() + 1;
+            while (true) {
+                final long highest = waitFor(next);
+                if (highest < next) {
+                    break;
+                }
+                for (long current = next; current <= highest; current++) {
+                    try {
+                        handler.onEvent((Either<V>) slots[(int) current & mask], current, current == highest);
+                    } catch (Exception e) {
+                        final Thread thread = Thread.currentThread();
+                        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                    }
+                }
+                sequence.set(highest);
+                next = highest + 1;
+            }
+        } finally {
+            terminated.countDown();
+        }
+    }
+
+    private long waitFor(long next) {
+        int counter = 0;
+        while (true) {
+            final long highest = highestPublished(next);
+            if (highest >= next) {
+                return highest;
+            }
+            if (!running) {
+                // the instances published before closing have been consumed
+                return highestPublished(next);
+            }
+            switch (waitStrategy) {
+                case BUSY_SPIN:
+                    Thread.onSpinWait();
+                    break;
+                case YIELDING:
+                    if (counter++ < SPIN_TRIES) {
+                        Thread.onSpinWait();
+                    } else {
+                        Thread.yield();
+                    }
+                    break;
+                case SLEEPING:
+                    if (counter++ < SPIN_TRIES) {
+                        Thread.onSpinWait();
+                    } else {
+                        LockSupport.parkNanos(100_000);
+                    }
+                    break;
+                default:
+                    lock.lock();
+                    try {
+                        if (highestPublished(next) < next && running) {
+                            published.awaitUninterruptibly();
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+            }
+        }
+    }
+
+    private void signal() {
+        lock.lock();
+        try {
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * WaitStrategy represents how the consumers wait for new instances.
+     */
+    public enum WaitStrategy {
+        /**
+         * The consumers spin, with the lowest latency and one core busy per consumer.
+         */
+        BUSY_SPIN,
+        /**
+         * The consumers spin for a while and then yield the processor.
+         */
+        YIELDING,
+        /**
+         * The consumers spin for a while and then sleep for 100 microseconds.
+         */
+        SLEEPING,
+        /**
+         * The consumers block on a condition, which is signalled on each publish.
+         */
+        BLOCKING
+    }
+
+    /**
+     * Handler consumes the instances published to the ring buffer.
+     *
+     * @param <V> the value's type
+     */
+    @FunctionalInterface
+    public interface Handler<V> {
+        /**
+         * Consumes the instance.
+         *
+         * @param either the either
+         * @param sequence the sequence of the instance
+         * @param endOfBatch true when the instance is the last instance available
+         * @throws Exception some error
+         */
+        void onEvent(Either<V> either, long sequence, boolean endOfBatch) throws Exception;
+    }
+}
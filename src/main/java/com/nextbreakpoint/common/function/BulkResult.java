@@ -0,0 +1,220 @@
+package com.nextbreakpoint.common.function;
+
+import com.nextbreakpoint.common.either.Either;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * BulkResult contains the outputs of a function applied to an array of inputs.
+ * <p>
+ * The outputs are stored as a struct of arrays rather than as an array of Either: the values are stored in an array,
+ * the failures are marked in a bitset, and the exceptions are stored in a sparse map, therefore no object is created
+ * for the outputs, and the cost of the failures depends only on their number. The accessors take the index of the input.
+ * The parallel mode splits the inputs in chunks of 64 elements, so that each word of the bitset is written by one thread.
+ *
+ * @param <R> the output's type
+ */
+public final class BulkResult<R> implements Iterable<Either<R>> {
+    private static final int CHUNK_SIZE = 64;
+
+    private final Object[] values;
+    private final long[] failures;
+    private final Map<Integer, Exception> exceptions;
+
+    private BulkResult(int size, Map<Integer, Exception> exceptions) {
+        this.values = new Object[size];
+        this.failures = new long[(size + CHUNK_SIZE - 1) / CHUNK_SIZE];
+        this.exceptions = exceptions;
+    }
+
+    /**
+     * Applies the function to each input in the current thread.
+     *
+     * @param function the function
+     * @param inputs the inputs
+     * @return new instance
+     * @throws NullPointerException if function or inputs is null
+     * @param <T> the input's type
+     * @param <R> the output's type
+     */
+    public static <T, R> BulkResult<R> of(ThrowingFunction<T, R> function, T[] inputs) {
+        Objects.requireNonNull(function);
+        Objects.requireNonNull(inputs);
+        final BulkResult<R> result = new BulkResult<>(inputs.length, new HashMap<>());
+        result.fill(function, inputs, 0, inputs.length);
+        return result;
+    }
+
+    /**
+     * Applies the function to the inputs in parallel, using the common fork-join pool.
+     *
+     * @param function the function
+     * @param inputs the inputs
+     * @return new instance
+     * @throws NullPointerException if function or inputs is null
+     * @param <T> the input's type
+     * @param <R> the output's type
+     */
+    public static <T, R> BulkResult<R> parallel(ThrowingFunction<T, R> function, T[] inputs) {
+        Objects.requireNonNull(function);
+        Objects.requireNonNull(inputs);
+        final BulkResult<R> result = new BulkResult<>(inputs.length, new ConcurrentHashMap<>());
+        IntStream.range(0, result.failures.length).parallel().forEach(chunk -> {
+            final int from = chunk * CHUNK_SIZE;
+            result.fill(function, inputs, from, Math.min(from + CHUNK_SIZE, inputs.length));
+        });
+        return result;
+    }
+
+    /**
+     * Returns the number of outputs.
+     *
+     * @return the number of outputs
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Returns the number of failures.
+     *
+     * @return the number of failures
+     */
+    public int failureCount() {
+        return exceptions.size();
+    }
+
+    /**
+     * Returns true when the function didn't throw an exception for the given input.
+     *
+     * @param index the index of the input
+     * @return true when success
+     * @throws IndexOutOfBoundsException if index is out of bounds
+     */
+    public boolean isSuccess(int index) {
+        return !isFailure(index);
+    }
+
+    /**
+     * Returns true when the function threw an exception for the given input.
+     *
+     * @param index the index of the input
+     * @return true when failure
+     * @throws IndexOutOfBoundsException if index is out of bounds
+     */
+    public boolean isFailure(int index) {
+        Objects.checkIndex(index, values.length);
+        return (failures[index / CHUNK_SIZE] & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns the output if present or null.
+     *
+     * @param index the index of the input
+     * @return the output if present or null
+     * @throws IndexOutOfBoundsException if index is out of bounds
+     */
+    @SuppressWarnings("unchecked")
+    public R get(int index) {
+        Objects.checkIndex(index, values.length);
+        return (R) values[index];
+    }
+
+    /**
+     * Returns the exception if present or null.
+     *
+     * @param index the index of the input
+     * @return the exception if present or null
+     * @throws IndexOutOfBoundsException if index is out of bounds
+     */
+    public Exception exception(int index) {
+        return isFailure(index) ? exceptions.get(index) : null;
+    }
+
+    /**
+     * Returns a new either with the output or the exception.
+     *
+     * @param index the index of the input
+     * @return the either
+     * @throws IndexOutOfBoundsException if index is out of bounds
+     */
+    public Either<R> either(int index) {
+        return isFailure(index) ? Either.failure(exceptions.get(index)) : Either.success(get(index));
+    }
+
+    /**
+     * Performs the given action for each output, in the order of the inputs.
+     *
+     * @param consumer the action which receives the output and the index of the input
+     * @throws NullPointerException if consumer is null
+     */
+    public void forEachSuccess(ObjIntConsumer<R> consumer) {
+        Objects.requireNonNull(consumer);
+        for (int i = 0; i < values.length; i++) {
+            if ((failures[i / CHUNK_SIZE] & (1L << i)) == 0) {
+                consumer.accept(get(i), i);
+            }
+        }
+    }
+
+    /**
+     * Performs the given action for each exception, in the order of the inputs.
+     *
+     * @param consumer the action which receives the exception and the index of the input
+     * @throws NullPointerException if consumer is null
+     */
+    public void forEachFailure(ObjIntConsumer<Exception> consumer) {
+        Objects.requireNonNull(consumer);
+        for (int word = 0; word < failures.length; word++) {
+            long bits = failures[word];
+            while (bits != 0) {
+                final int index = word * CHUNK_SIZE + Long.numberOfTrailingZeros(bits);
+                consumer.accept(exceptions.get(index), index);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * Returns an iterator which creates an either for each output, in the order of the inputs.
+     *
+     * @return the iterator
+     */
+    @Override
+    public Iterator<Either<R>> iterator() {
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < values.length;
+            }
+
+            @Override
+            public Either<R> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return either(index++);
+            }
+        };
+    }
+
+    private <T> void fill(ThrowingFunction<T, R> function, T[] inputs, int from, int to) {
+        for (int i = from; i < to; i++) {
+            try {
+                values[i] = function.apply(inputs[i]);
+            } catch (Exception e) {
+                failures[i / CHUNK_SIZE] |= 1L << i;
+                exceptions.put(i, e);
+            }
+        }
+    }
+}
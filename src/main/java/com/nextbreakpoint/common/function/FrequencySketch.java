@@ -0,0 +1,99 @@
+package com.nextbreakpoint.common.function;
+
+/**
+ * FrequencySketch estimates the frequency of keys with a count-min sketch of 4-bit counters.
+ * <p>
+ * The counters are halved when the number of increments reaches ten times the width of the sketch,
+ * so that the sketch forgets the old history. The sketch starts small and grows with the number of entries,
+ * so that a cache with a large maximum weight doesn't allocate a large table upfront. The sketch is not thread-safe.
+ */
+class FrequencySketch {
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private static final int MINIMUM_LENGTH = 16;
+    private static final int MAXIMUM_LENGTH = 1 << 24;
+
+    private long[] table;
+    private int mask;
+    private int sampleSize;
+    private int size;
+
+    FrequencySketch() {
+        allocate(MINIMUM_LENGTH);
+    }
+
+    /**
+     * Grows the sketch if it is too small for the given number of entries.
+     * The estimated frequencies are lost when the sketch grows.
+     *
+     * @param entries the number of entries
+     */
+    void ensureCapacity(long entries) {
+        final int length = (int) Math.min(MAXIMUM_LENGTH, Math.max(MINIMUM_LENGTH, Long.highestOneBit(Math.max(1, entries - 1)) << 1));
+        if (length > table.length) {
+            allocate(length);
+        }
+    }
+
+    /**
+     * Returns the estimated frequency of the key, between 0 and 15.
+     *
+     * @param hash the hash of the key
+     * @return the frequency
+     */
+    int frequency(int hash) {
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            final long h = rehash(hash, i);
+            final int index = (int) h & mask;
+            final int offset = (int) ((h >>> 32) & 15) << 2;
+            frequency = Math.min(frequency, (int) ((table[index] >>> offset) & 15));
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the estimated frequency of the key.
+     *
+     * @param hash the hash of the key
+     */
+    void increment(int hash) {
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            final long h = rehash(hash, i);
+            final int index = (int) h & mask;
+            final int offset = (int) ((h >>> 32) & 15) << 2;
+            if (((table[index] >>> offset) & 15) < 15) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void allocate(int length) {
+        table = new long[length];
+        mask = length - 1;
+        sampleSize = 10 * length;
+        size = 0;
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size /= 2;
+    }
+
+    private static long rehash(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return h;
+    }
+}
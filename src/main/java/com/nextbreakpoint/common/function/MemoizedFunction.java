@@ -0,0 +1,458 @@
+package com.nextbreakpoint.common.function;
+
+import com.nextbreakpoint.common.either.Either;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * MemoizedFunction caches the outputs of a function in a bounded concurrent cache.
+ * <p>
+ * The cache follows the W-TinyLFU policy: new entries are added to a small LRU window, and an entry evicted from
+ * the window is admitted to the main segmented LRU only if its estimated frequency is higher than the frequency of
+ * the entry which would be evicted in its place. The size of the cache is either the number of entries, or the sum
+ * of the weights of the entries. Entries can expire after a fixed time since they have been added, and failures are
+ * not cached unless explicitly configured. Concurrent invocations with the same input invoke the function only once.
+ *
+ * @param <T> the input's type
+ * @param <R> the output's type
+ */
+public final class MemoizedFunction<T, R> implements ThrowingFunction<T, R> {
+    private static final Object NULL = new Object();
+
+    private final ThrowingFunction<T, R> function;
+    private final ToLongBiFunction<? super T, ? super R> weigher;
+    private final long maximumWeight;
+    private final long expireAfterNanos;
+    private final boolean cacheFailures;
+
+    private final ConcurrentHashMap<Object, Node<T, R>> data = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final AccessQueue<T, R> window = new AccessQueue<>();
+    private final AccessQueue<T, R> probation = new AccessQueue<>();
+    private final AccessQueue<T, R> protect = new AccessQueue<>();
+    private final long maximumWindowWeight;
+    private final long maximumProtectedWeight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private MemoizedFunction(ThrowingFunction<T, R> function, ToLongBiFunction<? super T, ? super R> weigher, long maximumWeight, long expireAfterNanos, boolean cacheFailures) {
+        this.function = function;
+        this.weigher = weigher;
+        this.maximumWeight = maximumWeight;
+        this.expireAfterNanos = expireAfterNanos;
+        this.cacheFailures = cacheFailures;
+        this.sketch = new FrequencySketch();
+        this.maximumWindowWeight = Math.max(1, maximumWeight / 100);
+        this.maximumProtectedWeight = (maximumWeight - maximumWindowWeight) * 8 / 10;
+    }
+
+    /**
+     * Creates new instance with given function and maximum number of entries.
+     *
+     * @param function the function
+     * @param maximumSize the maximum number of entries
+     * @return new instance
+     * @throws NullPointerException if function is null
+     * @throws IllegalArgumentException if maximumSize is less than 1
+     * @param <T> the input's type
+     * @param <R> the output's type
+     */
+    public static <T, R> MemoizedFunction<T, R> of(ThrowingFunction<T, R> function, long maximumSize) {
+        Objects.requireNonNull(function);
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be greater than 0");
+        }
+        return new MemoizedFunction<>(function, (key, value) -> 1, maximumSize, 0, false);
+    }
+
+    /**
+     * Returns a new instance, with an empty cache, which limits the sum of the weights of the entries.
+     * <p>
+     * The weight of a failure is always 1.
+     *
+     * @param weigher the function which computes the weight of an entry
+     * @param maximumWeight the maximum sum of the weights
+     * @return new instance
+     * @throws NullPointerException if weigher is null
+     * @throws IllegalArgumentException if maximumWeight is less than 1
+     */
+    public MemoizedFunction<T, R> withWeigher(ToLongBiFunction<? super T, ? super R> weigher, long maximumWeight) {
+        Objects.requireNonNull(weigher);
+        if (maximumWeight < 1) {
+            throw new IllegalArgumentException("maximumWeight must be greater than 0");
+        }
+        return new MemoizedFunction<>(function, weigher, maximumWeight, expireAfterNanos, cacheFailures);
+    }
+
+    /**
+     * Returns a new instance, with an empty cache, which expires the entries after the given time since they have been added.
+     *
+     * @param duration the time to live of the entries
+     * @return new instance
+     * @throws NullPointerException if duration is null
+     * @throws IllegalArgumentException if duration is not positive
+     */
+    public MemoizedFunction<T, R> withExpiry(Duration duration) {
+        Objects.requireNonNull(duration);
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("duration must be positive");
+        }
+        return new MemoizedFunction<>(function, weigher, maximumWeight, duration.toNanos(), cacheFailures);
+    }
+
+    /**
+     * Returns a new instance, with an empty cache, which caches the failures too.
+     *
+     * @return new instance
+     */
+    public MemoizedFunction<T, R> withCachedFailures() {
+        return new MemoizedFunction<>(function, weigher, maximumWeight, expireAfterNanos, true);
+    }
+
+    /**
+     * Returns the cached output or applies the function to the given input.
+     * <p>
+     * The function must not invoke this method with the same input, because the invocation would wait for itself.
+     *
+     * @param value the input
+     * @return the output
+     * @throws IllegalStateException if the function invokes this method with the same input
+     * @throws InterruptedException if the current thread has been interrupted while waiting for another invocation
+     * @throws Exception some error
+     */
+    @Override
+    public R apply(T value) throws Exception {
+        final Object key = value != null ? value : NULL;
+
+        while (true) {
+            final Node<T, R> node = data.get(key);
+
+            if (node == null) {
+                final Node<T, R> created = new Node<>(value, key.hashCode());
+                if (data.putIfAbsent(key, created) == null) {
+                    misses.increment();
+                    return compute(key, created).orThrow().get();
+                }
+            } else if (node.isExpired(expireAfterNanos)) {
+                remove(key, node);
+            } else {
+                hits.increment();
+                final Either<R> result = node.await();
+                onAccess(node);
+                return result.orThrow().get();
+            }
+        }
+    }
+
+    /**
+     * Removes the cached output for the given input.
+     *
+     * @param value the input
+     */
+    public void invalidate(T value) {
+        final Object key = value != null ? value : NULL;
+        final Node<T, R> node = data.get(key);
+        if (node != null) {
+            remove(key, node);
+        }
+    }
+
+    /**
+     * Removes all the cached outputs.
+     */
+    public void invalidateAll() {
+        data.forEach(this::remove);
+    }
+
+    /**
+     * Returns the number of cached entries.
+     *
+     * @return the number of entries
+     */
+    public long size() {
+        return data.mappingCount();
+    }
+
+    /**
+     * Returns a snapshot of the statistics.
+     *
+     * @return the statistics
+     */
+    public Statistics statistics() {
+        return new Statistics(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private Either<R> compute(Object key, Node<T, R> node) {
+        Either<R> result;
+        try {
+            result = Either.success(function.apply(node.value));
+        } catch (Exception e) {
+            result = Either.failure(e);
+        } catch (Throwable e) {
+            // the waiters receive the error as a failure, and the error is never cached
+            node.complete(Either.failure(new ExecutionException(e)));
+            data.remove(key, node);
+            throw e;
+        }
+
+        node.complete(result);
+
+        if (result.isFailure() && !cacheFailures) {
+            data.remove(key, node);
+        } else {
+            node.weight = result.isSuccess() ? Math.max(0, weigher.applyAsLong(node.value, result.get())) : 1;
+            onAdd(key, node);
+        }
+
+        return result;
+    }
+
+    private void remove(Object key, Node<T, R> node) {
+        if (data.remove(key, node)) {
+            lock.lock();
+            try {
+                unlink(node);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void onAccess(Node<T, R> node) {
+        // accesses are recorded only when the lock is free, because the policy tolerates lost accesses
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            sketch.increment(node.hash);
+            if (node.queue == window) {
+                window.moveToTail(node);
+            } else if (node.queue == probation) {
+                probation.remove(node);
+                protect.add(node);
+                while (protect.weight > maximumProtectedWeight) {
+                    final Node<T, R> demoted = protect.head();
+                    protect.remove(demoted);
+                    probation.add(demoted);
+                }
+            } else if (node.queue == protect) {
+                protect.moveToTail(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onAdd(Object key, Node<T, R> node) {
+        lock.lock();
+        try {
+            node.key = key;
+            // the sketch is sized by the number of entries, which is unrelated to the maximum weight when a weigher is set
+            sketch.ensureCapacity(Math.min(data.mappingCount(), maximumWeight));
+            sketch.increment(node.hash);
+            if (data.get(key) != node) {
+                // the node has been removed while it was computed
+                return;
+            }
+            window.add(node);
+            while (window.weight > maximumWindowWeight && window.head() != null) {
+                final Node<T, R> candidate = window.head();
+                window.remove(candidate);
+                probation.add(candidate);
+                evict(candidate);
+            }
+            evict(null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evict(Node<T, R> candidate) {
+        while (window.weight + probation.weight + protect.weight > maximumWeight) {
+            Node<T, R> victim = probation.head();
+            if (victim == null) {
+                victim = protect.head();
+            }
+            if (victim == null) {
+                victim = window.head();
+            }
+            if (victim == null) {
+                return;
+            }
+            if (candidate != null && victim != candidate && candidate.queue == probation) {
+                if (sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+                    discard(victim);
+                } else {
+                    discard(candidate);
+                    candidate = null;
+                }
+            } else {
+                discard(victim);
+            }
+        }
+    }
+
+    private void discard(Node<T, R> node) {
+        unlink(node);
+        if (data.remove(node.key, node)) {
+            evictions.increment();
+        }
+    }
+
+    private void unlink(Node<T, R> node) {
+        if (node.queue != null) {
+            node.queue.remove(node);
+        }
+    }
+
+    /**
+     * Statistics represents a snapshot of the statistics of the cache.
+     */
+    public static final class Statistics {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        private Statistics(long hits, long misses, long evictions) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        /**
+         * Returns the number of invocations which returned a cached output.
+         *
+         * @return the number of hits
+         */
+        public long hits() {
+            return hits;
+        }
+
+        /**
+         * Returns the number of invocations which applied the function.
+         *
+         * @return the number of misses
+         */
+        public long misses() {
+            return misses;
+        }
+
+        /**
+         * Returns the number of entries evicted because of the size of the cache.
+         *
+         * @return the number of evictions
+         */
+        public long evictions() {
+            return evictions;
+        }
+
+        /**
+         * Returns the ratio of hits to invocations.
+         *
+         * @return the hit rate, or 0 if there are no invocations
+         */
+        public double hitRate() {
+            final long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    private static final class Node<T, R> {
+        private final T value;
+        private final int hash;
+        private final Thread owner = Thread.currentThread();
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile Either<R> result;
+        private volatile long time;
+        private Object key;
+        private long weight;
+        private AccessQueue<T, R> queue;
+        private Node<T, R> prev;
+        private Node<T, R> next;
+
+        private Node(T value, int hash) {
+            this.value = value;
+            this.hash = hash;
+        }
+
+        private void complete(Either<R> result) {
+            this.time = System.nanoTime();
+            this.result = result;
+            latch.countDown();
+        }
+
+        private Either<R> await() throws InterruptedException {
+            final Either<R> current = result;
+            if (current != null) {
+                return current;
+            }
+            if (owner == Thread.currentThread()) {
+                // the node is completed by the thread which has created it
+                throw new IllegalStateException("Recursive invocation with the same input");
+            }
+            latch.await();
+            return result;
+        }
+
+        private boolean isExpired(long expireAfterNanos) {
+            return expireAfterNanos > 0 && result != null && System.nanoTime() - time >= expireAfterNanos;
+        }
+    }
+
+    private static final class AccessQueue<T, R> {
+        private Node<T, R> head;
+        private Node<T, R> tail;
+        private long weight;
+
+        private Node<T, R> head() {
+            return head;
+        }
+
+        private void add(Node<T, R> node) {
+            node.queue = this;
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            weight += node.weight;
+        }
+
+        private void remove(Node<T, R> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            node.queue = null;
+            weight -= node.weight;
+        }
+
+        private void moveToTail(Node<T, R> node) {
+            if (tail != node) {
+                remove(node);
+                add(node);
+            }
+        }
+    }
+}
@@ -43,6 +43,30 @@ public interface ThrowingFunction<T, R> {
         return (T t) -> after.apply(apply(t));
     }
 
+    /**
+     * Returns a function which caches the outputs of this function in a bounded cache.
+     *
+     * @param maximumSize the maximum number of cached outputs
+     * @return the memoized function
+     * @throws IllegalArgumentException if maximumSize is less than 1
+     * @see MemoizedFunction
+     */
+    default MemoizedFunction<T, R> memoize(long maximumSize) {
+        return MemoizedFunction.of(this, maximumSize);
+    }
+
+    /**
+     * Applies this function to each input and returns the outputs in a compact container.
+     *
+     * @param inputs the inputs
+     * @return the outputs
+     * @throws NullPointerException if inputs is null
+     * @see BulkResult
+     */
+    default BulkResult<R> applyAll(T[] inputs) {
+        return BulkResult.of(this, inputs);
+    }
+
     /**
      * Returns an function that always returns its input argument.
      *
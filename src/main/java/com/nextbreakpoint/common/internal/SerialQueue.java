@@ -0,0 +1,135 @@
+package com.nextbreakpoint.common.internal;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * SerialQueue processes items on an executor in the order they have been offered, by at most one thread at a time.
+ * <p>
+ * The queue is lock-free and bounded, and it is drained in batches by a task of the executor, which is scheduled again
+ * if more items are pending, so that a busy queue doesn't hold a thread of the executor forever. An item is counted as
+ * pending until it has been processed. When the executor rejects the task, the pending items are passed to the rejection
+ * handler. An error thrown by the processor is propagated to the thread of the executor, and the queue keeps draining
+ * the remaining items.
+ * <p>
+ * This class is not part of the public API.
+ *
+ * @param <T> the item's type
+ */
+public final class SerialQueue<T> {
+    private static final int BATCH_SIZE = 64;
+
+    private final Executor executor;
+    private final int capacity;
+    private final Consumer<? super T> processor;
+    private final BiConsumer<? super T, RejectedExecutionException> rejectionHandler;
+
+    private final ConcurrentLinkedQueue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private SerialQueue(Executor executor, int capacity, Consumer<? super T> processor, BiConsumer<? super T, RejectedExecutionException> rejectionHandler) {
+        this.executor = executor;
+        this.capacity = capacity;
+        this.processor = processor;
+        this.rejectionHandler = rejectionHandler;
+    }
+
+    /**
+     * Creates new instance with given executor, capacity, processor and rejection handler.
+     *
+     * @param executor the executor which drains the queue
+     * @param capacity the maximum number of pending items
+     * @param processor the processor of the items
+     * @param rejectionHandler the handler of the items which are pending when the executor rejects the task
+     * @return new instance
+     * @throws NullPointerException if executor, processor or rejectionHandler is null
+     * @throws IllegalArgumentException if capacity is less than 1
+     * @param <T> the item's type
+     */
+    public static <T> SerialQueue<T> of(Executor executor, int capacity, Consumer<? super T> processor, BiConsumer<? super T, RejectedExecutionException> rejectionHandler) {
+        Objects.requireNonNull(executor);
+        Objects.requireNonNull(processor);
+        Objects.requireNonNull(rejectionHandler);
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be greater than 0");
+        }
+        return new SerialQueue<>(executor, capacity, processor, rejectionHandler);
+    }
+
+    /**
+     * Adds the item to the queue, unless the queue is full.
+     *
+     * @param item the item
+     * @return true if the item has been added
+     * @throws NullPointerException if item is null
+     */
+    public boolean offer(T item) {
+        Objects.requireNonNull(item);
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            return false;
+        }
+        queue.offer(item);
+        schedule();
+        return true;
+    }
+
+    /**
+     * Returns the number of pending items, including the item being processed.
+     *
+     * @return the number of pending items
+     */
+    public int size() {
+        return size.get();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                reject(e);
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                final T item = queue.poll();
+                if (item == null) {
+                    break;
+                }
+                try {
+                    processor.accept(item);
+                } finally {
+                    size.decrementAndGet();
+                }
+            }
+        } finally {
+            // the queue is released even if the processor has thrown an error
+            scheduled.set(false);
+
+            // an item might have been added after the last poll
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    private void reject(RejectedExecutionException exception) {
+        T item;
+        while ((item = queue.poll()) != null) {
+            size.decrementAndGet();
+            rejectionHandler.accept(item, exception);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.nextbreakpoint.common.metrics;
+
+import com.nextbreakpoint.common.command.DeadlineScheduler;
+import com.nextbreakpoint.common.command.ObjectPool;
+import com.nextbreakpoint.common.command.StaleWhileRevalidate;
+import com.nextbreakpoint.common.command.WorkStealingExecutor;
+
+import java.util.Objects;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Collector writes the current values of some metrics when the metrics are scraped.
+ * <p>
+ * A collector should only read counters and snapshots which are maintained by the hot paths anyway,
+ * so that scraping the metrics doesn't block or slow down the commands.
+ */
+@FunctionalInterface
+public interface Collector {
+    /**
+     * Writes the samples of the metrics.
+     *
+     * @param samples the samples
+     */
+    void collect(Samples samples);
+
+    /**
+     * Creates new collector which writes a gauge.
+     *
+     * @param name the name of the metric
+     * @param help the description of the metric
+     * @param supplier the supplier of the value
+     * @return new instance
+     * @throws NullPointerException if name, help or supplier is null
+     */
+    static Collector gauge(String name, String help, DoubleSupplier supplier) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(help);
+        Objects.requireNonNull(supplier);
+        return samples -> samples.gauge(name, help, supplier.getAsDouble());
+    }
+
+    /**
+     * Creates new collector which writes the statistics of a scheduler.
+     *
+     * @param name the value of the label scheduler
+     * @param scheduler the scheduler
+     * @return new instance
+     * @throws NullPointerException if name or scheduler is null
+     */
+    static Collector of(String name, DeadlineScheduler scheduler) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(scheduler);
+        return samples -> {
+            final DeadlineScheduler.Statistics statistics = scheduler.statistics();
+            samples.counter("scheduler_executed_total", "Commands executed by the scheduler", statistics.executed(), "scheduler", name);
+            samples.counter("scheduler_expired_total", "Commands not executed because their deadline had expired", statistics.expired(), "scheduler", name);
+            samples.counter("scheduler_shed_total", "Commands shed because the queueing delay was above the target", statistics.shed(), "scheduler", name);
+            samples.counter("scheduler_rejected_total", "Commands rejected because the queue was full", statistics.rejected(), "scheduler", name);
+            samples.gauge("scheduler_queued", "Commands waiting in the queue", scheduler.size(), "scheduler", name);
+        };
+    }
+
+    /**
+     * Creates new collector which writes the statistics of a pool.
+     *
+     * @param name the value of the label pool
+     * @param pool the pool
+     * @return new instance
+     * @throws NullPointerException if name or pool is null
+     */
+    static Collector of(String name, ObjectPool<?> pool) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(pool);
+        return samples -> {
+            final ObjectPool.Statistics statistics = pool.statistics();
+            samples.gauge("pool_objects", "Objects in the pool, idle or in use", statistics.size(), "pool", name);
+            samples.gauge("pool_idle_objects", "Idle objects in the pool", statistics.idle(), "pool", name);
+            samples.counter("pool_created_total", "Objects created by the pool", statistics.created(), "pool", name);
+            samples.counter("pool_destroyed_total", "Objects destroyed by the pool", statistics.destroyed(), "pool", name);
+            samples.counter("pool_acquired_total", "Objects lent by the pool", statistics.acquired(), "pool", name);
+            samples.counter("pool_local_hits_total", "Objects lent from the cache of the thread", statistics.localHits(), "pool", name);
+            samples.counter("pool_timeouts_total", "Commands failed because the pool was exhausted", statistics.timeouts(), "pool", name);
+            samples.counter("pool_invalid_total", "Objects destroyed because they were not valid", statistics.invalid(), "pool", name);
+        };
+    }
+
+    /**
+     * Creates new collector which writes the statistics of a cache.
+     *
+     * @param name the value of the label cache
+     * @param cache the cache
+     * @return new instance
+     * @throws NullPointerException if name or cache is null
+     */
+    static Collector of(String name, StaleWhileRevalidate cache) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(cache);
+        return samples -> {
+            final StaleWhileRevalidate.Statistics statistics = cache.statistics();
+            samples.counter("cache_requests_total", "Cache requests by result", statistics.freshHits(), "cache", name, "result", "fresh");
+            samples.counter("cache_requests_total", "Cache requests by result", statistics.staleHits(), "cache", name, "result", "stale");
+            samples.counter("cache_requests_total", "Cache requests by result", statistics.misses(), "cache", name, "result", "miss");
+            samples.counter("cache_refreshes_total", "Background refreshes of the cache", statistics.refreshes(), "cache", name);
+            samples.counter("cache_failures_total", "Failed loads of the cache", statistics.failures(), "cache", name);
+        };
+    }
+
+    /**
+     * Creates new collector which writes the statistics of an executor.
+     *
+     * @param name the value of the label executor
+     * @param executor the executor
+     * @return new instance
+     * @throws NullPointerException if name or executor is null
+     */
+    static Collector of(String name, WorkStealingExecutor executor) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(executor);
+        return samples -> {
+            final WorkStealingExecutor.Statistics statistics = executor.statistics();
+            samples.counter("executor_executed_total", "Tasks executed by the executor", statistics.executed(), "executor", name);
+            samples.counter("executor_stolen_total", "Tasks stolen from another worker", statistics.stolen(), "executor", name);
+        };
+    }
+}
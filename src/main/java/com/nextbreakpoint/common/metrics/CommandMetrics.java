@@ -0,0 +1,144 @@
+package com.nextbreakpoint.common.metrics;
+
+import com.nextbreakpoint.common.command.Interceptor;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CommandMetrics counts the executions of commands, their failures by exception class, and their latency.
+ * <p>
+ * The metrics are recorded by an interceptor, which can be installed as global interceptor or on specific commands,
+ * and only the executions are measured, not the single stages. The latency is recorded in a histogram with fixed
+ * buckets, and each bucket is a separate counter, therefore recording never blocks and scraping reads a snapshot of
+ * the counters. The number of exception classes is bounded, and the failures of the other classes are counted together.
+ */
+public final class CommandMetrics implements Interceptor, Collector {
+    private static final String OTHER = "other";
+    private static final double[] DEFAULT_BUCKETS = { 0.0001, 0.0005, 0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1, 5 };
+
+    private final String name;
+    private final double[] buckets;
+    private final long[] bucketNanos;
+    private final int maxExceptions;
+
+    private final LongAdder[] counts;
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+    private CommandMetrics(String name, double[] buckets, int maxExceptions) {
+        this.name = name;
+        this.buckets = buckets;
+        this.maxExceptions = maxExceptions;
+        this.bucketNanos = new long[buckets.length];
+        this.counts = new LongAdder[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            bucketNanos[i] = (long) (buckets[i] * 1e9);
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Creates new instance with given name, the default buckets from 100 microseconds to 5 seconds,
+     * and up to 50 exception classes.
+     *
+     * @param name the value of the label command
+     * @return new instance
+     * @throws NullPointerException if name is null
+     */
+    public static CommandMetrics of(String name) {
+        Objects.requireNonNull(name);
+        return new CommandMetrics(name, DEFAULT_BUCKETS, 50);
+    }
+
+    /**
+     * Returns a new instance with given buckets.
+     *
+     * @param buckets the upper bounds of the buckets in seconds
+     * @return new instance
+     * @throws NullPointerException if buckets is null
+     * @throws IllegalArgumentException if buckets is empty or not strictly increasing
+     */
+    public CommandMetrics withBuckets(double... buckets) {
+        Objects.requireNonNull(buckets);
+        if (buckets.length == 0) {
+            throw new IllegalArgumentException("buckets must not be empty");
+        }
+        for (int i = 1; i < buckets.length; i++) {
+            if (!(buckets[i] > buckets[i - 1])) {
+                throw new IllegalArgumentException("buckets must be strictly increasing");
+            }
+        }
+        return new CommandMetrics(name, Arrays.copyOf(buckets, buckets.length), maxExceptions);
+    }
+
+    /**
+     * Returns a new instance with given maximum number of exception classes.
+     *
+     * @param maxExceptions the maximum number of exception classes
+     * @return new instance
+     * @throws IllegalArgumentException if maxExceptions is less than 1
+     */
+    public CommandMetrics withMaxExceptions(int maxExceptions) {
+        if (maxExceptions < 1) {
+            throw new IllegalArgumentException("maxExceptions must be greater than 0");
+        }
+        return new CommandMetrics(name, buckets, maxExceptions);
+    }
+
+    @Override
+    public Object intercept(Invocation<?> invocation) throws Exception {
+        if (invocation.kind() != Kind.EXECUTE) {
+            return invocation.proceed();
+        }
+        final long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } catch (Exception e) {
+            failure(e);
+            throw e;
+        } finally {
+            record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void collect(Samples samples) {
+        final long[] cumulative = new long[counts.length];
+        long count = 0;
+        for (int i = 0; i < counts.length; i++) {
+            count += counts[i].sum();
+            cumulative[i] = count;
+        }
+        // the total is read after the buckets, therefore it is never less than the last bucket
+        final long total = Math.max(executions.sum(), count);
+        samples.counter("command_executions_total", "Executions of commands", total, "command", name);
+        failures.forEach((exception, counter) -> samples.counter("command_failures_total", "Failed executions of commands by exception class", counter.sum(), "command", name, "exception", exception));
+        samples.histogram("command_latency_seconds", "Latency of the executions of commands", buckets, cumulative, sumNanos.sum() / 1e9, total, "command", name);
+    }
+
+    private void record(long nanos) {
+        for (int i = 0; i < bucketNanos.length; i++) {
+            if (nanos <= bucketNanos[i]) {
+                counts[i].increment();
+                break;
+            }
+        }
+        sumNanos.add(nanos);
+        executions.increment();
+    }
+
+    private void failure(Exception exception) {
+        final String kind = exception.getClass().getName();
+        LongAdder counter = failures.get(kind);
+        if (counter == null) {
+            // the size is checked before adding, therefore concurrent threads can exceed the limit slightly
+            counter = failures.size() < maxExceptions ? failures.computeIfAbsent(kind, key -> new LongAdder()) : failures.computeIfAbsent(OTHER, key -> new LongAdder());
+        }
+        counter.increment();
+    }
+}
@@ -0,0 +1,115 @@
+package com.nextbreakpoint.common.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * PrometheusExporter serves the metrics of a list of collectors in the Prometheus text format.
+ * <p>
+ * The metrics are collected when they are scraped, reading the counters maintained by the collectors,
+ * therefore the exporter doesn't add any cost to the hot paths. The endpoint is served by the HTTP server
+ * of the JDK, which is provided by the module jdk.httpserver. The module is optional, and it must be added
+ * to the application, for instance with --add-modules jdk.httpserver, only when the endpoint is started.
+ */
+public final class PrometheusExporter implements AutoCloseable {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final Collector[] collectors;
+    private HttpServer server;
+
+    private PrometheusExporter(Collector[] collectors) {
+        this.collectors = collectors;
+    }
+
+    /**
+     * Creates new instance with given collectors.
+     *
+     * @param collectors the collectors
+     * @return new instance
+     * @throws NullPointerException if collectors is null or contains null
+     */
+    public static PrometheusExporter of(Collector... collectors) {
+        Objects.requireNonNull(collectors);
+        for (Collector collector : collectors) {
+            Objects.requireNonNull(collector);
+        }
+        return new PrometheusExporter(Arrays.copyOf(collectors, collectors.length));
+    }
+
+    /**
+     * Collects the metrics, and returns them in the Prometheus text format.
+     *
+     * @return the metrics
+     */
+    public String scrape() {
+        final Samples samples = new Samples();
+        for (Collector collector : collectors) {
+            collector.collect(samples);
+        }
+        final StringBuilder builder = new StringBuilder();
+        samples.write(builder);
+        return builder.toString();
+    }
+
+    /**
+     * Starts the HTTP server which serves the metrics on the path /metrics.
+     *
+     * @param address the address of the server, with port 0 for any free port
+     * @return the address of the server
+     * @throws NullPointerException if address is null
+     * @throws IllegalStateException if the server has been started already
+     * @throws IOException if the server can't be started
+     */
+    public synchronized InetSocketAddress start(InetSocketAddress address) throws IOException {
+        Objects.requireNonNull(address);
+        if (server != null) {
+            throw new IllegalStateException("Exporter already started");
+        }
+        final HttpServer httpServer = HttpServer.create(address, 0);
+        httpServer.createContext("/metrics", this::handle);
+        httpServer.start();
+        server = httpServer;
+        return httpServer.getAddress();
+    }
+
+    /**
+     * Stops the HTTP server, if it has been started.
+     */
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            final byte[] body;
+            try {
+                body = scrape().getBytes(StandardCharsets.UTF_8);
+            } catch (RuntimeException e) {
+                exchange.sendResponseHeaders(500, -1);
+                throw e;
+            }
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
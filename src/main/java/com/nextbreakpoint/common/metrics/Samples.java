@@ -0,0 +1,154 @@
+package com.nextbreakpoint.common.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Samples collects the samples of the metrics during a scrape, and formats them in the Prometheus text format.
+ * <p>
+ * The samples of a metric are grouped together with its description and type, even when they are written
+ * by different collectors, for instance by many collectors with different labels.
+ */
+public final class Samples {
+    private static final Pattern NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+    private static final Pattern LABEL = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_]*");
+
+    private final Map<String, Family> families = new LinkedHashMap<>();
+
+    Samples() {}
+
+    /**
+     * Writes a sample of a counter.
+     *
+     * @param name the name of the metric
+     * @param help the description of the metric
+     * @param value the value
+     * @param labels the names and values of the labels, alternated
+     * @throws NullPointerException if name, help or labels is null, or labels contains null
+     * @throws IllegalArgumentException if name or a label is not valid, or the metric has a different type
+     */
+    public void counter(String name, String help, double value, String... labels) {
+        family(name, help, "counter").sample(name, labels, value);
+    }
+
+    /**
+     * Writes a sample of a gauge.
+     *
+     * @param name the name of the metric
+     * @param help the description of the metric
+     * @param value the value
+     * @param labels the names and values of the labels, alternated
+     * @throws NullPointerException if name, help or labels is null, or labels contains null
+     * @throws IllegalArgumentException if name or a label is not valid, or the metric has a different type
+     */
+    public void gauge(String name, String help, double value, String... labels) {
+        family(name, help, "gauge").sample(name, labels, value);
+    }
+
+    /**
+     * Writes the samples of a histogram.
+     *
+     * @param name the name of the metric
+     * @param help the description of the metric
+     * @param bounds the upper bounds of the buckets, in increasing order
+     * @param counts the cumulative count of each bucket
+     * @param sum the sum of the observed values
+     * @param count the number of observed values
+     * @param labels the names and values of the labels, alternated
+     * @throws NullPointerException if name, help, bounds, counts or labels is null, or labels contains null
+     * @throws IllegalArgumentException if name or a label is not valid, bounds and counts have different length,
+     * or the metric has a different type
+     */
+    public void histogram(String name, String help, double[] bounds, long[] counts, double sum, long count, String... labels) {
+        Objects.requireNonNull(bounds);
+        Objects.requireNonNull(counts);
+        if (bounds.length != counts.length) {
+            throw new IllegalArgumentException("bounds and counts must have the same length");
+        }
+        final Family family = family(name, help, "histogram");
+        final String[] bucketLabels = new String[labels.length + 2];
+        System.arraycopy(labels, 0, bucketLabels, 0, labels.length);
+        bucketLabels[labels.length] = "le";
+        for (int i = 0; i < bounds.length; i++) {
+            bucketLabels[labels.length + 1] = format(bounds[i]);
+            family.sample(name + "_bucket", bucketLabels, counts[i]);
+        }
+        bucketLabels[labels.length + 1] = "+Inf";
+        family.sample(name + "_bucket", bucketLabels, count);
+        family.sample(name + "_sum", labels, sum);
+        family.sample(name + "_count", labels, count);
+    }
+
+    void write(StringBuilder builder) {
+        families.forEach((name, family) -> {
+            builder.append("# HELP ").append(name).append(' ').append(family.help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+            builder.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+            builder.append(family.lines);
+        });
+    }
+
+    private Family family(String name, String help, String type) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(help);
+        if (!NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("name is not valid: " + name);
+        }
+        final Family family = families.computeIfAbsent(name, key -> new Family(help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("metric " + name + " has type " + family.type + " already");
+        }
+        return family;
+    }
+
+    private static String format(double value) {
+        if (value == Double.POSITIVE_INFINITY) {
+            return "+Inf";
+        }
+        if (value == Double.NEGATIVE_INFINITY) {
+            return "-Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static final class Family {
+        private final String help;
+        private final String type;
+        private final StringBuilder lines = new StringBuilder();
+
+        private Family(String help, String type) {
+            this.help = help;
+            this.type = type;
+        }
+
+        private void sample(String name, String[] labels, double value) {
+            Objects.requireNonNull(labels);
+            if (labels.length % 2 != 0) {
+                throw new IllegalArgumentException("labels must contain names and values");
+            }
+            lines.append(name);
+            if (labels.length > 0) {
+                lines.append('{');
+                for (int i = 0; i < labels.length; i += 2) {
+                    if (!LABEL.matcher(Objects.requireNonNull(labels[i])).matches()) {
+                        throw new IllegalArgumentException("label is not valid: " + labels[i]);
+                    }
+                    if (i > 0) {
+                        lines.append(',');
+                    }
+                    lines.append(labels[i]).append("=\"").append(escape(Objects.requireNonNull(labels[i + 1]))).append('"');
+                }
+                lines.append('}');
+            }
+            lines.append(' ').append(format(value)).append('\n');
+        }
+
+        private static String escape(String value) {
+            return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        }
+    }
+}
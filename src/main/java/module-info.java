@@ -2,8 +2,10 @@
  * Common module
  */
 module com.nextbreakpoint.common {
-    requires java.logging;
+    requires transitive java.logging;
+    requires static jdk.httpserver;
     exports com.nextbreakpoint.common.either;
     exports com.nextbreakpoint.common.command;
     exports com.nextbreakpoint.common.function;
+    exports com.nextbreakpoint.common.metrics;
 }
\ No newline at end of file
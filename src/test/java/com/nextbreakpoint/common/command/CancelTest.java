@@ -0,0 +1,123 @@
+package com.nextbreakpoint.common.command;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class CancelTest {
+	@Test
+	void shouldThrowNullPointerExceptionWhenTokenIsNull() {
+		assertThatThrownBy(() -> Command.value("X").execute(null)).isInstanceOf(NullPointerException.class);
+	}
+
+	@Test
+	void shouldReturnSuccessWhenTokenIsNotCancelled() {
+		assertThat(Command.value("X").map(String::toLowerCase).execute(CancellationToken.create()).get()).isEqualTo("x");
+	}
+
+	@Test
+	void shouldReturnCancelledFailureWhenTokenIsAlreadyCancelled() {
+		final CancellationToken token = CancellationToken.create();
+		token.cancel();
+		assertThat(Command.value("X").execute(token).exception()).isInstanceOf(CancellationException.class);
+	}
+
+	@Test
+	void shouldSkipRemainingStagesWhenTokenIsCancelled() {
+		final CancellationToken token = CancellationToken.create();
+		Function<String, String> function = mock(Function.class);
+		final Command<String> command = Command.value("X")
+				.map(x -> {
+					token.cancel();
+					return x;
+				})
+				.map(function);
+		assertThat(command.execute(token).exception()).isInstanceOf(CancellationException.class);
+		verify(function, never()).apply(any());
+	}
+
+	@Test
+	void shouldSkipRemainingStagesOfNestedCommandWhenTokenIsCancelled() {
+		final CancellationToken token = CancellationToken.create();
+		Function<String, String> function = mock(Function.class);
+		final Command<String> command = Command.value("X")
+				.flatMap(x -> Command.value(x).map(y -> {
+					token.cancel();
+					return y;
+				}).map(function));
+		assertThat(command.execute(token).exception()).isInstanceOf(CancellationException.class);
+		verify(function, never()).apply(any());
+	}
+
+	@Test
+	void shouldInterruptBlockedStageWhenTokenIsCancelled() throws InterruptedException {
+		final CancellationToken token = CancellationToken.create();
+		final CountDownLatch started = new CountDownLatch(1);
+		final Command<String> command = Command.of(() -> {
+			started.countDown();
+			Thread.sleep(10000);
+			return "X";
+		});
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final var future = executor.submit(() -> command.execute(token));
+			assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+			token.cancel();
+			assertThat(future.get(10, TimeUnit.SECONDS).exception()).isInstanceOf(CancellationException.class);
+		} catch (Exception e) {
+			throw new AssertionError(e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void shouldNotLeaveCurrentThreadInterrupted() {
+		final CancellationToken token = CancellationToken.create();
+		Command.value("X").map(x -> {
+			token.cancel();
+			return x;
+		}).execute(token);
+		assertThat(Thread.interrupted()).isFalse();
+	}
+
+	@Test
+	void shouldCancelHedgedAttemptsWhenTokenIsCancelled() throws InterruptedException {
+		final ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			final CancellationToken token = CancellationToken.create();
+			final CountDownLatch started = new CountDownLatch(1);
+			final CountDownLatch interrupted = new CountDownLatch(1);
+			final Command<String> command = Command.of(() -> {
+				started.countDown();
+				try {
+					Thread.sleep(10000);
+				} catch (InterruptedException e) {
+					interrupted.countDown();
+					throw e;
+				}
+				return "X";
+			});
+			final Command<String> hedged = Hedging.of(executor, Duration.ofSeconds(10)).apply(command);
+			executor.submit(() -> hedged.execute(token));
+			assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+			token.cancel();
+			assertThat(interrupted.await(10, TimeUnit.SECONDS)).isTrue();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
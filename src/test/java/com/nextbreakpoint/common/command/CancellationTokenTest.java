@@ -0,0 +1,84 @@
+package com.nextbreakpoint.common.command;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CancellationTokenTest {
+	@Test
+	void shouldNotBeCancelledWhenCreated() {
+		assertThat(CancellationToken.create().isCancelled()).isFalse();
+	}
+
+	@Test
+	void shouldBeCancelledWhenCancelled() {
+		final CancellationToken token = CancellationToken.create();
+		assertThat(token.cancel()).isTrue();
+		assertThat(token.cancel()).isFalse();
+		assertThat(token.isCancelled()).isTrue();
+	}
+
+	@Test
+	void shouldNeverCancelNoneToken() {
+		assertThat(CancellationToken.none().cancel()).isFalse();
+		assertThat(CancellationToken.none().isCancelled()).isFalse();
+	}
+
+	@Test
+	void shouldThrowNullPointerExceptionWhenListenerIsNull() {
+		assertThatThrownBy(() -> CancellationToken.create().onCancel(null)).isInstanceOf(NullPointerException.class);
+	}
+
+	@Test
+	void shouldInvokeListenerOnceWhenCancelled() {
+		final Runnable listener = mock(Runnable.class);
+		final CancellationToken token = CancellationToken.create();
+		token.onCancel(listener);
+		token.cancel();
+		token.cancel();
+		verify(listener, times(1)).run();
+	}
+
+	@Test
+	void shouldInvokeListenerImmediatelyWhenAlreadyCancelled() {
+		final Runnable listener = mock(Runnable.class);
+		final CancellationToken token = CancellationToken.create();
+		token.cancel();
+		token.onCancel(listener);
+		verify(listener, times(1)).run();
+	}
+
+	@Test
+	void shouldNotInvokeListenerWhenRegistrationIsClosed() {
+		final Runnable listener = mock(Runnable.class);
+		final CancellationToken token = CancellationToken.create();
+		token.onCancel(listener).close();
+		token.cancel();
+		verify(listener, never()).run();
+	}
+
+	@Test
+	void shouldClearInterruptDeliveredByToken() {
+		final CancellationToken token = CancellationToken.create();
+		final CancellationToken.Registration registration = token.interruptOnCancel();
+		token.cancel();
+		assertThat(Thread.currentThread().isInterrupted()).isTrue();
+		registration.close();
+		assertThat(Thread.interrupted()).isFalse();
+	}
+
+	@Test
+	void shouldPreserveInterruptDeliveredBySomeoneElse() {
+		final CancellationToken token = CancellationToken.create();
+		final CancellationToken.Registration registration = token.interruptOnCancel();
+		Thread.currentThread().interrupt();
+		token.cancel();
+		registration.close();
+		assertThat(Thread.interrupted()).isTrue();
+	}
+}
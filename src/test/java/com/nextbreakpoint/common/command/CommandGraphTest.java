@@ -0,0 +1,142 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CommandGraphTest {
+	private static final CommandGraph.Key<Integer> A = CommandGraph.Key.of("a");
+	private static final CommandGraph.Key<Integer> B = CommandGraph.Key.of("b");
+	private static final CommandGraph.Key<Integer> C = CommandGraph.Key.of("c");
+	private static final CommandGraph.Key<Integer> D = CommandGraph.Key.of("d");
+	private static final CommandGraph.Key<Integer> E = CommandGraph.Key.of("e");
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	@AfterEach
+	void teardown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenKeyIsDuplicated() {
+		assertThatThrownBy(() -> CommandGraph.create().with(A, Command.value(1)).with(A, Command.value(2))).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenDependencyIsMissing() {
+		assertThatThrownBy(() -> CommandGraph.create().with(C, List.of(A), results -> Command.value(1))).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldReturnEmptyResultsWhenGraphIsEmpty() {
+		assertThat(CommandGraph.create().command(executor).execute().get().isSuccess()).isTrue();
+	}
+
+	@Test
+	void shouldExecuteEachNodeOnceWithValuesOfDependencies() {
+		final AtomicInteger executions = new AtomicInteger();
+		final CommandGraph graph = CommandGraph.create()
+				.with(A, Command.of(() -> executions.incrementAndGet() * 0 + 1))
+				.with(B, Command.of(() -> executions.incrementAndGet() * 0 + 2))
+				.with(C, List.of(A, B), results -> Command.value(results.value(A) + results.value(B)))
+				.with(D, List.of(B), results -> Command.value(results.value(B) * 10))
+				.with(E, List.of(C, D), results -> Command.value(results.value(C) + results.value(D)));
+		final CommandGraph.Results results = graph.command(executor).execute().get();
+		assertThat(results.isSuccess()).isTrue();
+		assertThat(results.value(C)).isEqualTo(3);
+		assertThat(results.value(D)).isEqualTo(20);
+		assertThat(results.value(E)).isEqualTo(23);
+		assertThat(executions.get()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldExecuteIndependentNodesInParallel() {
+		final CountDownLatch latch = new CountDownLatch(2);
+		final Command<Integer> command = Command.of(() -> {
+			latch.countDown();
+			// both nodes must be running at the same time to pass the latch
+			return latch.await(5, TimeUnit.SECONDS) ? 1 : 0;
+		});
+		final CommandGraph.Results results = CommandGraph.create().with(A, command).with(B, command).command(executor).execute().get();
+		assertThat(results.value(A)).isEqualTo(1);
+		assertThat(results.value(B)).isEqualTo(1);
+	}
+
+	@Test
+	void shouldNotExecuteDependentsWhenNodeFails() {
+		final Exception exception = new Exception();
+		final AtomicInteger executions = new AtomicInteger();
+		final CommandGraph graph = CommandGraph.create()
+				.with(A, Command.error(exception))
+				.with(B, Command.value(2))
+				.with(C, List.of(A, B), results -> Command.of(executions::incrementAndGet))
+				.with(D, List.of(B), results -> Command.value(results.value(B) * 10))
+				.with(E, List.of(C), results -> Command.of(executions::incrementAndGet));
+		final CommandGraph.Results results = graph.command(executor).execute().get();
+		assertThat(results.isSuccess()).isFalse();
+		assertThat(results.get(A).exception()).isEqualTo(exception);
+		assertThat(results.get(C).exception()).isEqualTo(exception);
+		assertThat(results.get(E).exception()).isEqualTo(exception);
+		assertThat(results.value(D)).isEqualTo(20);
+		assertThat(executions.get()).isEqualTo(0);
+	}
+
+	@Test
+	void shouldReturnFailureWhenFunctionThrowsException() {
+		final RuntimeException exception = new RuntimeException();
+		final CommandGraph graph = CommandGraph.create()
+				.with(A, Command.value(1))
+				.with(B, List.of(A), results -> {
+					throw exception;
+				});
+		assertThat(graph.command(executor).execute().get().get(B).exception()).isEqualTo(exception);
+	}
+
+	@Test
+	void shouldCompleteNodeWhenFunctionThrowsError() {
+		final CommandGraph graph = CommandGraph.create()
+				.with(A, Command.value(1))
+				.with(B, List.of(A), results -> {
+					throw new AssertionError();
+				})
+				.with(C, List.of(B), results -> Command.value(results.value(B) + 1));
+		final CommandGraph.Results results = graph.command(executor).execute().get();
+		assertThat(results.isSuccess()).isFalse();
+		assertThat(results.get(B).exception()).hasCauseInstanceOf(AssertionError.class);
+		assertThat(results.get(C).exception()).hasCauseInstanceOf(AssertionError.class);
+	}
+
+	@Test
+	void shouldCancelNodesWhenTokenIsCancelled() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CommandGraph graph = CommandGraph.create()
+				.with(A, Command.of(() -> {
+					started.countDown();
+					Thread.sleep(10000);
+					return 1;
+				}));
+		final CancellationToken token = CancellationToken.create();
+		final CountDownLatch done = new CountDownLatch(1);
+		final Either<?>[] result = new Either<?>[1];
+		executor.execute(() -> {
+			result[0] = graph.command(executor).execute(token);
+			done.countDown();
+		});
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		token.cancel();
+		assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(result[0].exception()).isInstanceOf(CancellationException.class);
+	}
+}
@@ -0,0 +1,68 @@
+package com.nextbreakpoint.common.command;
+
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Measures the cost of propagating a context per hop.
+ * <p>
+ * A hop is a task submitted to an executor which runs it in the caller thread, therefore the measure
+ * includes capturing the context, wrapping the task and binding the context, but not the thread handoff.
+ */
+class ContextBenchmark {
+    private static final Logger LOG = Logger.getLogger(ContextBenchmark.class.getName());
+
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURE_ITERATIONS = 10;
+    private static final int OPERATIONS = 1_000_000;
+
+    private static final Context.Key<String> TRACE_ID = Context.Key.of("traceId");
+
+    private static final Executor DIRECT = Runnable::run;
+
+    private static long sink;
+
+    public static void main(String[] args) throws Exception {
+        final Context context = Context.empty().with(TRACE_ID, "1");
+
+        run("plain hop", () -> DIRECT.execute(ContextBenchmark::task));
+        run("propagating hop, empty context", () -> Context.propagating(DIRECT).execute(ContextBenchmark::task));
+        // the task is wrapped with a context which is not bound to the current thread, as in a thread of an executor
+        run("wrapped task, bind and restore", () -> context.wrap(ContextBenchmark::task).run());
+        context.call(() -> {
+            // the task runs inline, therefore the context is already bound and only the capture and the wrapper are measured
+            run("propagating hop, same thread", () -> Context.propagating(DIRECT).execute(ContextBenchmark::task));
+            return null;
+        });
+        run("command with context", () -> sink += Command.value(1).withContext(context).execute().get());
+    }
+
+    private static void task() {
+        sink += 1;
+    }
+
+    private static void run(String name, Runnable operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            measure(operation);
+        }
+
+        long elapsed = 0;
+
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            final long time = System.nanoTime();
+            measure(operation);
+            elapsed += System.nanoTime() - time;
+        }
+
+        final double operations = (double) OPERATIONS * MEASURE_ITERATIONS;
+
+        LOG.log(Level.INFO, String.format("%-35s %8.2f ns/op", name, elapsed / operations));
+    }
+
+    private static void measure(Runnable operation) {
+        for (int i = 0; i < OPERATIONS; i++) {
+            operation.run();
+        }
+    }
+}
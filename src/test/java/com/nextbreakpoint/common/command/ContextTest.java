@@ -0,0 +1,85 @@
+package com.nextbreakpoint.common.command;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContextTest {
+	private static final Context.Key<String> TRACE_ID = Context.Key.of("traceId");
+	private static final Context.Key<String> TENANT = Context.Key.of("tenant");
+
+	@Test
+	void shouldThrowNullPointerExceptionWhenValueIsNull() {
+		assertThatThrownBy(() -> Context.empty().with(TRACE_ID, null)).isInstanceOf(NullPointerException.class);
+	}
+
+	@Test
+	void shouldReturnValuesOfKeys() {
+		final Context context = Context.empty().with(TRACE_ID, "1").with(TENANT, "A").with(TRACE_ID, "2");
+		assertThat(context.get(TRACE_ID)).isEqualTo("2");
+		assertThat(context.get(TENANT)).isEqualTo("A");
+		assertThat(context.get(Context.Key.<String>of("traceId"))).isNull();
+		assertThat(context.isEmpty()).isFalse();
+		assertThat(Context.empty().isEmpty()).isTrue();
+	}
+
+	@Test
+	void shouldBindContextWhileCallableIsInvoked() throws Exception {
+		final Context context = Context.empty().with(TRACE_ID, "1");
+		assertThat(context.call(() -> Context.current().get(TRACE_ID))).isEqualTo("1");
+		assertThat(Context.current().isEmpty()).isTrue();
+	}
+
+	@Test
+	void shouldBindContextWhileStagesAreEvaluated() {
+		final Context context = Context.empty().with(TRACE_ID, "1");
+		final Command<String> command = Command.of(() -> Context.current().get(TRACE_ID))
+				.withContext(context)
+				.map(value -> value + Context.current().get(TRACE_ID))
+				.flatMap(value -> Command.of(() -> value + Context.current().get(TRACE_ID)));
+		assertThat(command.execute().get()).isEqualTo("111");
+		assertThat(Context.current().isEmpty()).isTrue();
+	}
+
+	@Test
+	void shouldPropagateContextToExecutor() throws Exception {
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final AtomicReference<String> value = new AtomicReference<>();
+			final CompletableFuture<Void> future = new CompletableFuture<>();
+			Context.empty().with(TRACE_ID, "1").call(() -> {
+				Context.propagating(executor).execute(() -> {
+					value.set(Context.current().get(TRACE_ID));
+					future.complete(null);
+				});
+				return null;
+			});
+			future.get(5, TimeUnit.SECONDS);
+			assertThat(value.get()).isEqualTo("1");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void shouldPropagateContextToCommandsOfKeyedExecutor() throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			final KeyedExecutor keyedExecutor = KeyedExecutor.of(executor, 4, 100);
+			final Command<String> command = Command.of(() -> Context.current().get(TRACE_ID));
+			final CompletableFuture<?> future1 = Context.empty().with(TRACE_ID, "1").call(() -> keyedExecutor.submit("A", command));
+			final CompletableFuture<?> future2 = Context.empty().with(TRACE_ID, "2").call(() -> keyedExecutor.submit("A", command));
+			assertThat(future1.get(5, TimeUnit.SECONDS)).extracting("value").isEqualTo("1");
+			assertThat(future2.get(5, TimeUnit.SECONDS)).extracting("value").isEqualTo("2");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
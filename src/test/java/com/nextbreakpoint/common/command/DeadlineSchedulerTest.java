@@ -0,0 +1,214 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadlineSchedulerTest {
+	private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		executor.shutdownNow();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenPrioritiesIsZero() {
+		assertThatThrownBy(() -> DeadlineScheduler.of(executor, 1, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenPriorityIsNotValid() {
+		assertThatThrownBy(() -> DeadlineScheduler.of(executor, 1, 3).submit(Command.value("X"), 3, TIMEOUT)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldThrowNullPointerExceptionWhenCommandIsNull() {
+		assertThatThrownBy(() -> DeadlineScheduler.of(executor, 1, 3).submit(null, 0, TIMEOUT)).isInstanceOf(NullPointerException.class);
+	}
+
+	@Test
+	void shouldReturnResultOfCommand() throws Exception {
+		final DeadlineScheduler scheduler = DeadlineScheduler.of(executor, 2, 3);
+		assertThat(scheduler.submit(Command.value("X"), 1, TIMEOUT).get(10, TimeUnit.SECONDS).get()).isEqualTo("X");
+		assertThat(scheduler.statistics().executed()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldExecuteCommandsWithHigherPriorityFirst() throws Exception {
+		final DeadlineScheduler scheduler = DeadlineScheduler.of(executor, 1, 3);
+		final CountDownLatch latch = new CountDownLatch(1);
+		final List<Integer> executions = Collections.synchronizedList(new ArrayList<>());
+		final CompletableFuture<Either<Boolean>> blocker = scheduler.submit(Command.of(() -> latch.await(10, TimeUnit.SECONDS)), 0, TIMEOUT);
+		final List<CompletableFuture<Either<Integer>>> futures = new ArrayList<>();
+		for (int priority : new int[] { 2, 0, 1, 2, 0 }) {
+			futures.add(scheduler.submit(Command.of(() -> {
+				executions.add(priority);
+				return priority;
+			}), priority, TIMEOUT));
+		}
+		latch.countDown();
+		blocker.get(10, TimeUnit.SECONDS);
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+		assertThat(executions).containsExactly(0, 0, 1, 2, 2);
+	}
+
+	@Test
+	void shouldExecuteCommandsWithEarlierDeadlineFirst() throws Exception {
+		final DeadlineScheduler scheduler = DeadlineScheduler.of(executor, 1, 1);
+		final CountDownLatch latch = new CountDownLatch(1);
+		final List<Integer> executions = Collections.synchronizedList(new ArrayList<>());
+		scheduler.submit(Command.of(() -> latch.await(10, TimeUnit.SECONDS)), 0, TIMEOUT);
+		final List<CompletableFuture<Either<Integer>>> futures = new ArrayList<>();
+		for (int seconds : new int[] { 30, 10, 20 }) {
+			futures.add(scheduler.submit(Command.of(() -> {
+				executions.add(seconds);
+				return seconds;
+			}), 0, Duration.ofSeconds(seconds)));
+		}
+		latch.countDown();
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+		assertThat(executions).containsExactly(10, 20, 30);
+	}
+
+	@Test
+	void shouldPromoteCommandsWhichHaveBeenWaiting() throws Exception {
+		final DeadlineScheduler scheduler = DeadlineScheduler.of(executor, 1, 3).withAging(Duration.ofMillis(10)).withCoDel(Duration.ofSeconds(10), Duration.ofSeconds(10));
+		final CountDownLatch latch = new CountDownLatch(1);
+		final List<Integer> executions = Collections.synchronizedList(new ArrayList<>());
+		scheduler.submit(Command.of(() -> latch.await(10, TimeUnit.SECONDS)), 0, TIMEOUT);
+		final CompletableFuture<Either<Integer>> future1 = scheduler.submit(Command.of(() -> {
+			executions.add(2);
+			return 2;
+		}), 2, TIMEOUT);
+		Thread.sleep(100);
+		final CompletableFuture<Either<Integer>> future2 = scheduler.submit(Command.of(() -> {
+			executions.add(0);
+			return 0;
+		}), 0, TIMEOUT);
+		latch.countDown();
+		CompletableFuture.allOf(future1, future2).get(10, TimeUnit.SECONDS);
+		assertThat(executions).containsExactly(2, 0);
+	}
+
+	@Test
+	void shouldPromoteClassByWaitingTimeOfOldestCommand() throws Exception {
+		final DeadlineScheduler scheduler = DeadlineScheduler.of(executor, 1, 3).withAging(Duration.ofMillis(10)).withCoDel(Duration.ofSeconds(10), Duration.ofSeconds(10));
+		final CountDownLatch latch = new CountDownLatch(1);
+		final CountDownLatch started = new CountDownLatch(1);
+		final List<Integer> executions = Collections.synchronizedList(new ArrayList<>());
+		scheduler.submit(Command.of(() -> {
+			started.countDown();
+			return latch.await(10, TimeUnit.SECONDS);
+		}), 0, TIMEOUT);
+		started.await(10, TimeUnit.SECONDS);
+		final CompletableFuture<Either<Integer>> future1 = scheduler.submit(Command.of(() -> {
+			executions.add(2);
+			return 2;
+		}), 2, TIMEOUT);
+		Thread.sleep(100);
+		final CompletableFuture<Either<Integer>> future2 = scheduler.submit(Command.of(() -> {
+			executions.add(1);
+			return 1;
+		}), 2, TIMEOUT.dividedBy(2));
+		final CompletableFuture<Either<Integer>> future3 = scheduler.submit(Command.of(() -> {
+			executions.add(0);
+			return 0;
+		}), 0, TIMEOUT);
+		latch.countDown();
+		CompletableFuture.allOf(future1, future2, future3).get(10, TimeUnit.SECONDS);
+		assertThat(executions).containsExactly(1, 2, 0);
+	}
+
+	@Test
+	void shouldFailWhenDeadlineExpiresBeforeExecution() throws Exception {
+		final DeadlineScheduler scheduler = DeadlineScheduler.of(executor, 1, 1);
+		final CountDownLatch latch = new CountDownLatch(1);
+		final CountDownLatch started = new CountDownLatch(1);
+		scheduler.submit(Command.of(() -> {
+			started.countDown();
+			return latch.await(10, TimeUnit.SECONDS);
+		}), 0, TIMEOUT);
+		started.await(10, TimeUnit.SECONDS);
+		final CompletableFuture<Either<String>> future = scheduler.submit(Command.value("X"), 0, Duration.ofMillis(10));
+		Thread.sleep(50);
+		latch.countDown();
+		assertThat(future.get(10, TimeUnit.SECONDS).exception()).isInstanceOf(TimeoutException.class);
+		assertThat(scheduler.statistics().expired()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldShedCommandsWhenQueueingDelayExceedsTarget() throws Exception {
+		final DeadlineScheduler scheduler = DeadlineScheduler.of(executor, 1, 1).withCoDel(Duration.ofMillis(1), Duration.ofMillis(10));
+		final List<CompletableFuture<Either<Integer>>> futures = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			final int value = i;
+			futures.add(scheduler.submit(Command.of(() -> {
+				Thread.sleep(1);
+				return value;
+			}), 0, TIMEOUT));
+		}
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+		final long shed = futures.stream().map(CompletableFuture::join).filter(Either::isFailure)
+			.peek(either -> assertThat(either.exception()).isInstanceOf(RejectedExecutionException.class)).count();
+		assertThat(shed).isGreaterThan(0);
+		assertThat(scheduler.statistics().shed()).isEqualTo(shed);
+		assertThat(scheduler.statistics().executed()).isEqualTo(100 - shed);
+	}
+
+	@Test
+	void shouldRejectCommandsWhenQueueIsFull() throws Exception {
+		final DeadlineScheduler scheduler = DeadlineScheduler.of(executor, 1, 1).withCapacity(1).withCoDel(Duration.ofSeconds(10), Duration.ofSeconds(10));
+		final CountDownLatch latch = new CountDownLatch(1);
+		final CountDownLatch started = new CountDownLatch(1);
+		scheduler.submit(Command.of(() -> {
+			started.countDown();
+			return latch.await(10, TimeUnit.SECONDS);
+		}), 0, TIMEOUT);
+		started.await(10, TimeUnit.SECONDS);
+		final CompletableFuture<Either<String>> future1 = scheduler.submit(Command.value("X"), 0, TIMEOUT);
+		final CompletableFuture<Either<String>> future2 = scheduler.submit(Command.value("Y"), 0, TIMEOUT);
+		assertThat(future2.get(10, TimeUnit.SECONDS).exception()).isInstanceOf(RejectedExecutionException.class);
+		latch.countDown();
+		assertThat(future1.get(10, TimeUnit.SECONDS).get()).isEqualTo("X");
+		assertThat(scheduler.statistics().rejected()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldKeepExecutingCommandsWhenCommandThrowsError() throws Exception {
+		final DeadlineScheduler scheduler = DeadlineScheduler.of(executor, 1, 1);
+		final CompletableFuture<Either<String>> future1 = scheduler.submit(Command.of(() -> {
+			throw new AssertionError();
+		}), 0, TIMEOUT);
+		final CompletableFuture<Either<String>> future2 = scheduler.submit(Command.value("X"), 0, TIMEOUT);
+		assertThatThrownBy(() -> future1.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(AssertionError.class);
+		assertThat(future2.get(10, TimeUnit.SECONDS).get()).isEqualTo("X");
+	}
+
+	@Test
+	void shouldPropagateContext() throws Exception {
+		final Context.Key<String> key = Context.Key.of("user");
+		final DeadlineScheduler scheduler = DeadlineScheduler.of(executor, 1, 1);
+		final CompletableFuture<Either<String>> future = Context.empty().with(key, "alice")
+			.call(() -> scheduler.submit(Command.of(() -> Context.current().get(key)), 0, TIMEOUT));
+		assertThat(future.get(10, TimeUnit.SECONDS).get()).isEqualTo("alice");
+	}
+}
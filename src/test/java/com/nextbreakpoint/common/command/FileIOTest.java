@@ -0,0 +1,125 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileIOTest {
+	@TempDir
+	Path directory;
+
+	private final FileIO fileIO = FileIO.of(16, 4);
+
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenBufferSizeIsZero() {
+		assertThatThrownBy(() -> FileIO.of(0, 4)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenPositionIsNegative() {
+		assertThatThrownBy(() -> fileIO.read(directory.resolve("file"), -1, 4, FileIOTest::decode)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldReadRange() throws Exception {
+		final Path file = Files.write(directory.resolve("file"), "0123456789".getBytes(StandardCharsets.UTF_8));
+		assertThat(fileIO.read(file, 2, 5, FileIOTest::decode).execute().get()).isEqualTo("23456");
+	}
+
+	@Test
+	void shouldReadRangeUntilEndOfFile() throws Exception {
+		final Path file = Files.write(directory.resolve("file"), "0123456789".getBytes(StandardCharsets.UTF_8));
+		assertThat(fileIO.read(file, 7, 10, FileIOTest::decode).execute().get()).isEqualTo("789");
+	}
+
+	@Test
+	void shouldReadRangeLargerThanBuffers() throws Exception {
+		final byte[] data = new byte[1000];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+		final Path file = Files.write(directory.resolve("file"), data);
+		final Either<byte[]> result = fileIO.read(file, 0, 1000, buffer -> {
+			final byte[] bytes = new byte[buffer.remaining()];
+			buffer.get(bytes);
+			return bytes;
+		}).execute();
+		assertThat(result.get()).isEqualTo(data);
+		assertThat(fileIO.available()).isEqualTo(0);
+	}
+
+	@Test
+	void shouldReturnBufferToPool() throws Exception {
+		final Path file = Files.write(directory.resolve("file"), "0123456789".getBytes(StandardCharsets.UTF_8));
+		fileIO.read(file, 0, 10, FileIOTest::decode).execute();
+		assertThat(fileIO.available()).isEqualTo(1);
+		fileIO.read(file, 0, 10, FileIOTest::decode).execute();
+		assertThat(fileIO.available()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldReturnFailureWhenFileDoesNotExist() {
+		assertThat(fileIO.read(directory.resolve("missing"), 0, 10, FileIOTest::decode).execute().exception()).isInstanceOf(NoSuchFileException.class);
+	}
+
+	@Test
+	void shouldReturnFailureWhenFunctionThrows() throws Exception {
+		final Path file = Files.write(directory.resolve("file"), "0123456789".getBytes(StandardCharsets.UTF_8));
+		final IllegalStateException exception = new IllegalStateException();
+		assertThat(fileIO.read(file, 0, 10, buffer -> { throw exception; }).execute().exception()).isSameAs(exception);
+		assertThat(fileIO.available()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldReturnFailureWhenFunctionThrowsError() throws Exception {
+		final Path file = Files.write(directory.resolve("file"), "0123456789".getBytes(StandardCharsets.UTF_8));
+		assertThat(fileIO.readAsync(file, 0, 10, buffer -> { throw new AssertionError(); }).get(10, TimeUnit.SECONDS).exception()).hasCauseInstanceOf(AssertionError.class);
+		assertThat(fileIO.available()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldReadRangeAsynchronously() throws Exception {
+		final Path file = Files.write(directory.resolve("file"), "0123456789".getBytes(StandardCharsets.UTF_8));
+		assertThat(fileIO.readAsync(file, 0, 4, FileIOTest::decode).get(10, TimeUnit.SECONDS).get()).isEqualTo("0123");
+	}
+
+	@Test
+	void shouldWriteHeapBufferLargerThanBuffers() throws Exception {
+		final Path file = directory.resolve("file");
+		final ByteBuffer data = ByteBuffer.wrap("abcdefghijklmnopqrstuvwxyz0123456789".getBytes(StandardCharsets.UTF_8));
+		assertThat(fileIO.write(file, 0, data).execute().get()).isEqualTo(36);
+		assertThat(data.remaining()).isEqualTo(36);
+		assertThat(new String(Files.readAllBytes(file), StandardCharsets.UTF_8)).isEqualTo("abcdefghijklmnopqrstuvwxyz0123456789");
+		assertThat(fileIO.available()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldWriteDirectBufferAtPosition() throws Exception {
+		final Path file = Files.write(directory.resolve("file"), "0123456789".getBytes(StandardCharsets.UTF_8));
+		final ByteBuffer data = ByteBuffer.allocateDirect(3).put("abc".getBytes(StandardCharsets.UTF_8)).flip();
+		assertThat(fileIO.writeAsync(file, 4, data).get(10, TimeUnit.SECONDS).get()).isEqualTo(3);
+		assertThat(new String(Files.readAllBytes(file), StandardCharsets.UTF_8)).isEqualTo("0123abc789");
+	}
+
+	@Test
+	void shouldMapRange() throws Exception {
+		final Path file = Files.write(directory.resolve("file"), "0123456789".getBytes(StandardCharsets.UTF_8));
+		final ByteBuffer buffer = FileIO.map(file, 3, 4).execute().get();
+		assertThat(buffer.isReadOnly()).isTrue();
+		assertThat(decode(buffer)).isEqualTo("3456");
+	}
+
+	private static String decode(ByteBuffer buffer) {
+		return StandardCharsets.UTF_8.decode(buffer).toString();
+	}
+}
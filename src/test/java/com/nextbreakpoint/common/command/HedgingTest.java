@@ -0,0 +1,122 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgingTest {
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		executor.shutdownNow();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void shouldThrowNullPointerExceptionWhenCommandIsNull() {
+		assertThatThrownBy(() -> Hedging.of(executor, Duration.ofMillis(10)).apply(null)).isInstanceOf(NullPointerException.class);
+	}
+
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenDelayIsNegative() {
+		assertThatThrownBy(() -> Hedging.of(executor, Duration.ofMillis(-1))).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldNotHedgeWhenCommandCompletesBeforeDelay() {
+		final Hedging hedging = Hedging.of(executor, Duration.ofSeconds(10));
+		assertThat(hedging.apply(Command.value("X")).execute().get()).isEqualTo("X");
+		assertThat(hedging.hedges()).isEqualTo(0);
+	}
+
+	@Test
+	void shouldReturnResultOfHedgeWhenPrimaryIsSlow() {
+		final AtomicInteger attempts = new AtomicInteger();
+		final CountDownLatch blocked = new CountDownLatch(1);
+		final Command<String> command = Command.of(() -> {
+			if (attempts.incrementAndGet() == 1) {
+				blocked.await();
+				return "slow";
+			}
+			return "fast";
+		});
+		final Hedging hedging = Hedging.of(executor, Duration.ofMillis(10));
+		assertThat(hedging.apply(command).execute().get()).isEqualTo("fast");
+		assertThat(hedging.hedges()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldCancelPendingAttemptsWhenResultIsAvailable() throws InterruptedException {
+		final AtomicInteger attempts = new AtomicInteger();
+		final CountDownLatch interrupted = new CountDownLatch(1);
+		final Command<String> command = Command.of(() -> {
+			if (attempts.incrementAndGet() == 1) {
+				try {
+					Thread.sleep(10000);
+				} catch (InterruptedException e) {
+					interrupted.countDown();
+					throw e;
+				}
+			}
+			return "fast";
+		});
+		Hedging.of(executor, Duration.ofMillis(10)).apply(command).execute();
+		assertThat(interrupted.await(10, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void shouldReturnFailureWhenAllAttemptsFail() {
+		final Exception exception = new Exception();
+		final Either<Object> result = Hedging.of(executor, Duration.ofMillis(10)).apply(Command.error(exception)).execute();
+		assertThat(result.exception()).isEqualTo(exception);
+	}
+
+	@Test
+	void shouldNotHedgeWhenBudgetIsExhausted() {
+		final AtomicInteger attempts = new AtomicInteger();
+		final Command<String> command = Command.of(() -> {
+			attempts.incrementAndGet();
+			Thread.sleep(50);
+			return "X";
+		});
+		final Hedging hedging = Hedging.of(executor, Duration.ofMillis(1)).withBudget(0);
+		assertThat(hedging.apply(command).execute().get()).isEqualTo("X");
+		assertThat(hedging.hedges()).isEqualTo(0);
+		assertThat(attempts.get()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldNotExceedMaxAttempts() {
+		final AtomicInteger attempts = new AtomicInteger();
+		final Command<String> command = Command.of(() -> {
+			attempts.incrementAndGet();
+			Thread.sleep(100);
+			return "X";
+		});
+		final Hedging hedging = Hedging.of(executor, Duration.ofMillis(1)).withMaxAttempts(3).withBudget(1);
+		assertThat(hedging.apply(command).execute().get()).isEqualTo("X");
+		assertThat(hedging.hedges()).isEqualTo(2);
+		assertThat(attempts.get()).isEqualTo(3);
+	}
+
+	@Test
+	void shouldUsePercentileOfObservedLatencyAsDelay() {
+		final Hedging hedging = Hedging.of(executor, Duration.ofSeconds(10)).withPercentile(0.99);
+		final Command<String> command = hedging.apply(Command.value("X"));
+		for (int i = 0; i < 200; i++) {
+			command.execute();
+		}
+		assertThat(hedging.delay()).isLessThan(Duration.ofSeconds(10));
+	}
+}
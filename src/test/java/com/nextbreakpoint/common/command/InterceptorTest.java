@@ -0,0 +1,117 @@
+package com.nextbreakpoint.common.command;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InterceptorTest {
+	@Test
+	void shouldThrowNullPointerExceptionWhenInterceptorIsNull() {
+		assertThatThrownBy(() -> Command.value("X").withInterceptors((Interceptor) null)).isInstanceOf(NullPointerException.class);
+		assertThatThrownBy(() -> Command.value("X").withInterceptors((Interceptor[]) null)).isInstanceOf(NullPointerException.class);
+	}
+
+	@Test
+	void shouldInvokeInterceptorsInOrder() {
+		final List<String> calls = new ArrayList<>();
+		final Command<String> command = Command.of(() -> {
+			calls.add("stage");
+			return "X";
+		}).withInterceptors(invocation -> {
+			calls.add("A " + invocation.kind());
+			return invocation.proceed();
+		}, invocation -> {
+			calls.add("B " + invocation.kind());
+			return invocation.proceed();
+		});
+		assertThat(command.execute().get()).isEqualTo("X");
+		assertThat(calls).containsExactly("A EXECUTE", "B EXECUTE", "A STAGE", "B STAGE", "stage");
+	}
+
+	@Test
+	void shouldApplyInterceptorsToDerivedStages() {
+		final AtomicInteger stages = new AtomicInteger();
+		final Command<String> command = Command.value("X")
+				.withInterceptors(invocation -> {
+					if (invocation.kind() == Interceptor.Kind.STAGE) {
+						stages.incrementAndGet();
+					}
+					return invocation.proceed();
+				})
+				.map(value -> value + "Y")
+				.flatMap(value -> Command.value(value + "Z"));
+		assertThat(command.execute().get()).isEqualTo("XYZ");
+		assertThat(stages.get()).isEqualTo(3);
+	}
+
+	@Test
+	void shouldReturnValueOfInterceptor() {
+		assertThat(Command.value("X").withInterceptors(invocation -> "Y").execute().get()).isEqualTo("Y");
+	}
+
+	@Test
+	void shouldReturnFailureWhenInterceptorThrowsException() {
+		final Exception exception = new Exception();
+		assertThat(Command.value("X").withInterceptors(invocation -> {
+			throw exception;
+		}).execute().exception()).isEqualTo(exception);
+	}
+
+	@Test
+	void shouldRetryWhenInterceptorProceedsAgain() {
+		final AtomicInteger attempts = new AtomicInteger();
+		final AtomicInteger inner = new AtomicInteger();
+		final Command<String> command = Command.of(() -> {
+			if (attempts.incrementAndGet() < 3) {
+				throw new Exception();
+			}
+			return "X";
+		}).withInterceptors(invocation -> {
+			if (invocation.kind() == Interceptor.Kind.EXECUTE) {
+				return invocation.proceed();
+			}
+			for (int i = 0; ; i++) {
+				try {
+					return invocation.proceed();
+				} catch (Exception e) {
+					if (i == 5) {
+						throw e;
+					}
+				}
+			}
+		}, invocation -> {
+			inner.incrementAndGet();
+			return invocation.proceed();
+		});
+		assertThat(command.execute().get()).isEqualTo("X");
+		assertThat(attempts.get()).isEqualTo(3);
+		assertThat(inner.get()).isEqualTo(4);
+	}
+
+	@Test
+	void shouldInvokeGlobalInterceptorsBeforeInterceptorsOfCommand() {
+		final CancellationToken token = CancellationToken.create();
+		final List<String> calls = new ArrayList<>();
+		Command.setGlobalInterceptors(invocation -> {
+			// other tests might execute commands concurrently
+			if (invocation.token() == token) {
+				calls.add("global " + invocation.kind());
+			}
+			return invocation.proceed();
+		});
+		try {
+			Command.value("X").withInterceptors(invocation -> {
+				calls.add("local " + invocation.kind());
+				return invocation.proceed();
+			}).execute(token);
+		} finally {
+			Command.setGlobalInterceptors();
+		}
+		assertThat(calls).containsExactly("global EXECUTE", "local EXECUTE", "global STAGE", "local STAGE");
+	}
+}
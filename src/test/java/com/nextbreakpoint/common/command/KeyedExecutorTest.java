@@ -0,0 +1,111 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeyedExecutorTest {
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		executor.shutdownNow();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenBacklogIsZero() {
+		assertThatThrownBy(() -> KeyedExecutor.of(executor, 4, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldThrowNullPointerExceptionWhenKeyIsNull() {
+		assertThatThrownBy(() -> KeyedExecutor.of(executor, 4, 10).submit(null, Command.value("X"))).isInstanceOf(NullPointerException.class);
+	}
+
+	@Test
+	void shouldReturnResultOfCommand() throws Exception {
+		final KeyedExecutor keyedExecutor = KeyedExecutor.of(executor, 4, 10);
+		assertThat(keyedExecutor.submit("A", Command.value("X")).get(10, TimeUnit.SECONDS).get()).isEqualTo("X");
+	}
+
+	@Test
+	void shouldExecuteCommandsWithSameKeyInSubmissionOrder() throws Exception {
+		final KeyedExecutor keyedExecutor = KeyedExecutor.of(executor, 16, 100000);
+		final List<List<Integer>> executions = new ArrayList<>();
+		for (int k = 0; k < 8; k++) {
+			executions.add(Collections.synchronizedList(new ArrayList<>()));
+		}
+		final List<CompletableFuture<Either<Integer>>> futures = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			final int key = i % 8;
+			final int value = i;
+			futures.add(keyedExecutor.submit(key, Command.of(() -> {
+				executions.get(key).add(value);
+				return value;
+			})));
+		}
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+		for (int k = 0; k < 8; k++) {
+			assertThat(executions.get(k)).hasSize(1250).isSorted();
+		}
+	}
+
+	@Test
+	void shouldExecuteCommandsWithDifferentKeysInParallel() throws Exception {
+		final KeyedExecutor keyedExecutor = KeyedExecutor.of(executor, 16, 10);
+		final CountDownLatch latch = new CountDownLatch(2);
+		final Command<Boolean> command = Command.of(() -> {
+			latch.countDown();
+			return latch.await(10, TimeUnit.SECONDS);
+		});
+		final CompletableFuture<Either<Boolean>> future1 = keyedExecutor.submit(1, command);
+		final CompletableFuture<Either<Boolean>> future2 = keyedExecutor.submit(2, command);
+		assertThat(future1.get(10, TimeUnit.SECONDS).get()).isTrue();
+		assertThat(future2.get(10, TimeUnit.SECONDS).get()).isTrue();
+	}
+
+	@Test
+	void shouldKeepExecutingCommandsWhenCommandThrowsError() throws Exception {
+		final KeyedExecutor keyedExecutor = KeyedExecutor.of(executor, 4, 10);
+		final CompletableFuture<Either<String>> future1 = keyedExecutor.submit("A", Command.of(() -> {
+			throw new AssertionError();
+		}));
+		final CompletableFuture<Either<String>> future2 = keyedExecutor.submit("A", Command.value("X"));
+		assertThatThrownBy(() -> future1.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(AssertionError.class);
+		assertThat(future2.get(10, TimeUnit.SECONDS).get()).isEqualTo("X");
+	}
+
+	@Test
+	void shouldRejectCommandWhenBacklogIsFull() throws Exception {
+		final KeyedExecutor keyedExecutor = KeyedExecutor.of(executor, 1, 2);
+		final CountDownLatch latch = new CountDownLatch(1);
+		final CompletableFuture<Either<Boolean>> future1 = keyedExecutor.submit("A", Command.of(() -> latch.await(10, TimeUnit.SECONDS)));
+		keyedExecutor.submit("A", Command.value(true));
+		final CompletableFuture<Either<Boolean>> future3 = keyedExecutor.submit("A", Command.value(true));
+		final Either<Boolean> result = future3.get(10, TimeUnit.SECONDS);
+		latch.countDown();
+		assertThat(future1.get(10, TimeUnit.SECONDS).get()).isTrue();
+		assertThat(result.exception()).isInstanceOf(RejectedExecutionException.class);
+	}
+
+	@Test
+	void shouldRejectCommandsWhenExecutorIsShutdown() throws Exception {
+		executor.shutdown();
+		final KeyedExecutor keyedExecutor = KeyedExecutor.of(executor, 1, 2);
+		assertThat(keyedExecutor.submit("A", Command.value(true)).get(10, TimeUnit.SECONDS).exception()).isInstanceOf(RejectedExecutionException.class);
+	}
+}
@@ -0,0 +1,31 @@
+package com.nextbreakpoint.common.command;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyHistogramTest {
+	@Test
+	void shouldReturnMinusOneWhenEmpty() {
+		assertThat(new LatencyHistogram(100).percentile(0.5)).isEqualTo(-1);
+	}
+
+	@Test
+	void shouldReturnPercentileWithinRelativeError() {
+		final LatencyHistogram histogram = new LatencyHistogram(1000000);
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i * 1000L);
+		}
+		assertThat(histogram.percentile(0.5)).isBetween(500000L, 625000L);
+		assertThat(histogram.percentile(0.99)).isBetween(990000L, 1237500L);
+	}
+
+	@Test
+	void shouldDecayWhenWindowIsReached() {
+		final LatencyHistogram histogram = new LatencyHistogram(100);
+		for (int i = 0; i < 100; i++) {
+			histogram.record(10);
+		}
+		assertThat(histogram.count()).isEqualTo(50);
+	}
+}
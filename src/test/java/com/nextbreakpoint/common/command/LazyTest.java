@@ -0,0 +1,38 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LazyTest {
+	@Test
+	void shouldNotInvokeCallableWhenResultIsNotAccessed() throws Exception {
+		Callable<String> callable = mock(Callable.class);
+		Command.of(callable).lazy();
+		verify(callable, never()).call();
+	}
+
+	@Test
+	void shouldInvokeCallableOnlyOnceWhenResultIsAccessed() throws Exception {
+		Callable<String> callable = mock(Callable.class);
+		when(callable.call()).thenReturn("X");
+		final Either<String> either = Command.of(callable).lazy();
+		assertThat(either.isSuccess()).isTrue();
+		assertThat(either.get()).isEqualTo("X");
+		verify(callable, times(1)).call();
+	}
+
+	@Test
+	void shouldReturnFailureWhenCallableThrowsAnException() {
+		final Exception exception = new Exception();
+		assertThat(Command.of(() -> { throw exception; }).lazy().exception()).isEqualTo(exception);
+	}
+}
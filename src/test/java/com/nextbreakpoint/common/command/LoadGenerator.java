@@ -0,0 +1,284 @@
+package com.nextbreakpoint.common.command;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Generates load on a command pipeline, and reports throughput and latency percentiles.
+ * <p>
+ * With a target rate the load is open loop: each request has an intended start time, and its latency is measured from
+ * the intended start, so that the time spent waiting behind slow requests is included and the percentiles are corrected
+ * for coordinated omission. The service time, measured from the actual start, is reported as well for comparison.
+ * Without a target rate the load is closed loop, and each thread executes the next request as soon as the previous one
+ * has completed. The failures and the latency are injected by an interceptor, before executing the pipeline.
+ * <p>
+ * Usage: LoadGenerator [--threads N] [--virtual] [--rate N] [--duration SECONDS] [--failures P] [--latency P MILLIS]
+ */
+class LoadGenerator {
+    private static final Logger LOG = Logger.getLogger(LoadGenerator.class.getName());
+
+    private static final double[] PERCENTILES = { 0.5, 0.9, 0.99, 0.999, 1.0 };
+
+    private final Supplier<Command<?>> pipeline;
+    private final int threads;
+    private final boolean virtualThreads;
+    private final int rate;
+    private final Duration duration;
+    private final double failureRate;
+    private final double latencyRate;
+    private final Duration latency;
+
+    private LoadGenerator(Supplier<Command<?>> pipeline, int threads, boolean virtualThreads, int rate, Duration duration, double failureRate, double latencyRate, Duration latency) {
+        this.pipeline = pipeline;
+        this.threads = threads;
+        this.virtualThreads = virtualThreads;
+        this.rate = rate;
+        this.duration = duration;
+        this.failureRate = failureRate;
+        this.latencyRate = latencyRate;
+        this.latency = latency;
+    }
+
+    static LoadGenerator of(Supplier<Command<?>> pipeline) {
+        Objects.requireNonNull(pipeline);
+        return new LoadGenerator(pipeline, 1, false, 0, Duration.ofSeconds(10), 0, 0, Duration.ZERO);
+    }
+
+    LoadGenerator withThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be greater than 0");
+        }
+        return new LoadGenerator(pipeline, threads, virtualThreads, rate, duration, failureRate, latencyRate, latency);
+    }
+
+    /**
+     * Executes the requests on virtual threads, which requires a runtime with virtual threads.
+     */
+    LoadGenerator withVirtualThreads() {
+        return new LoadGenerator(pipeline, threads, true, rate, duration, failureRate, latencyRate, latency);
+    }
+
+    /**
+     * Sets the target rate in requests per second, or 0 for a closed loop.
+     */
+    LoadGenerator withRate(int rate) {
+        if (rate < 0) {
+            throw new IllegalArgumentException("rate must not be negative");
+        }
+        return new LoadGenerator(pipeline, threads, virtualThreads, rate, duration, failureRate, latencyRate, latency);
+    }
+
+    LoadGenerator withDuration(Duration duration) {
+        Objects.requireNonNull(duration);
+        return new LoadGenerator(pipeline, threads, virtualThreads, rate, duration, failureRate, latencyRate, latency);
+    }
+
+    LoadGenerator withFailureInjection(double failureRate) {
+        return new LoadGenerator(pipeline, threads, virtualThreads, rate, duration, failureRate, latencyRate, latency);
+    }
+
+    LoadGenerator withLatencyInjection(double latencyRate, Duration latency) {
+        Objects.requireNonNull(latency);
+        return new LoadGenerator(pipeline, threads, virtualThreads, rate, duration, failureRate, latencyRate, latency);
+    }
+
+    Report run() throws Exception {
+        final ExecutorService executor = virtualThreads ? newVirtualThreadExecutor() : Executors.newFixedThreadPool(threads);
+        try {
+            final Interceptor injector = this::inject;
+            final long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+            final long end = start + duration.toNanos();
+            final List<Future<Recorder>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final int index = i;
+                futures.add(executor.submit(() -> generate(index, start, end, injector)));
+            }
+            final Recorder total = new Recorder();
+            for (Future<Recorder> future : futures) {
+                total.add(future.get());
+            }
+            return new Report(total, Math.max(System.nanoTime(), end) - start);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Recorder generate(int index, long start, long end, Interceptor injector) {
+        final Recorder recorder = new Recorder();
+        final double periodNanos = rate > 0 ? 1e9 / rate : 0;
+        for (long request = index; ; request += threads) {
+            final long intended = rate > 0 ? start + (long) (request * periodNanos) : System.nanoTime();
+            if (intended - end >= 0) {
+                break;
+            }
+            long now;
+            while ((now = System.nanoTime()) - intended < 0) {
+                LockSupport.parkNanos(intended - now);
+            }
+            final boolean success = pipeline.get().withInterceptors(injector).execute().isSuccess();
+            final long completed = System.nanoTime();
+            recorder.record(completed - intended, completed - now, success);
+        }
+        return recorder;
+    }
+
+    private Object inject(Interceptor.Invocation<?> invocation) throws Exception {
+        if (invocation.kind() == Interceptor.Kind.EXECUTE) {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (latencyRate > 0 && random.nextDouble() < latencyRate) {
+                Thread.sleep(latency.toMillis(), latency.toNanosPart() % 1_000_000);
+            }
+            if (failureRate > 0 && random.nextDouble() < failureRate) {
+                throw new Exception("Injected failure");
+            }
+        }
+        return invocation.proceed();
+    }
+
+    private ExecutorService newVirtualThreadExecutor() throws Exception {
+        // the library targets Java 11, therefore virtual threads are looked up at runtime
+        final Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        return (ExecutorService) method.invoke(null);
+    }
+
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private long[] serviceTimes = new long[1024];
+        private int count;
+        private long failures;
+
+        private void record(long latency, long serviceTime, boolean success) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+                serviceTimes = Arrays.copyOf(serviceTimes, count * 2);
+            }
+            latencies[count] = latency;
+            serviceTimes[count] = serviceTime;
+            count += 1;
+            if (!success) {
+                failures += 1;
+            }
+        }
+
+        private void add(Recorder other) {
+            latencies = Arrays.copyOf(latencies, count + other.count);
+            serviceTimes = Arrays.copyOf(serviceTimes, count + other.count);
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            System.arraycopy(other.serviceTimes, 0, serviceTimes, count, other.count);
+            count += other.count;
+            failures += other.failures;
+        }
+    }
+
+    static final class Report {
+        private final long requests;
+        private final long failures;
+        private final long elapsedNanos;
+        private final long[] latencies;
+        private final long[] serviceTimes;
+
+        private Report(Recorder recorder, long elapsedNanos) {
+            this.requests = recorder.count;
+            this.failures = recorder.failures;
+            this.elapsedNanos = elapsedNanos;
+            this.latencies = Arrays.copyOf(recorder.latencies, recorder.count);
+            this.serviceTimes = Arrays.copyOf(recorder.serviceTimes, recorder.count);
+            Arrays.sort(latencies);
+            Arrays.sort(serviceTimes);
+        }
+
+        long requests() {
+            return requests;
+        }
+
+        long failures() {
+            return failures;
+        }
+
+        double throughput() {
+            return requests * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Returns the latency measured from the intended start, corrected for coordinated omission.
+         */
+        long latency(double percentile) {
+            return percentile(latencies, percentile);
+        }
+
+        /**
+         * Returns the latency measured from the actual start.
+         */
+        long serviceTime(double percentile) {
+            return percentile(serviceTimes, percentile);
+        }
+
+        private static long percentile(long[] values, double percentile) {
+            if (values.length == 0) {
+                return -1;
+            }
+            return values[Math.max(0, (int) Math.ceil(percentile * values.length) - 1)];
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder builder = new StringBuilder();
+            builder.append(String.format("requests %d, failures %d, throughput %.0f req/s", requests, failures, throughput()));
+            for (double percentile : PERCENTILES) {
+                builder.append(String.format("%n  p%-6s latency %10.3f ms  service time %10.3f ms", percentile * 100, latency(percentile) / 1e6, serviceTime(percentile) / 1e6));
+            }
+            return builder.toString();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadGenerator generator = LoadGenerator.of(LoadGenerator::pipeline);
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads":
+                    generator = generator.withThreads(Integer.parseInt(args[++i]));
+                    break;
+                case "--virtual":
+                    generator = generator.withVirtualThreads();
+                    break;
+                case "--rate":
+                    generator = generator.withRate(Integer.parseInt(args[++i]));
+                    break;
+                case "--duration":
+                    generator = generator.withDuration(Duration.ofSeconds(Long.parseLong(args[++i])));
+                    break;
+                case "--failures":
+                    generator = generator.withFailureInjection(Double.parseDouble(args[++i]));
+                    break;
+                case "--latency":
+                    final double probability = Double.parseDouble(args[++i]);
+                    generator = generator.withLatencyInjection(probability, Duration.ofMillis(Long.parseLong(args[++i])));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        LOG.log(Level.INFO, generator.run().toString());
+    }
+
+    private static Command<?> pipeline() {
+        return Command.of(() -> ThreadLocalRandom.current().nextInt(1000))
+            .map(value -> value * 31 + 7)
+            .flatMap(value -> Command.value(Integer.toHexString(value)))
+            .map(String::length);
+    }
+}
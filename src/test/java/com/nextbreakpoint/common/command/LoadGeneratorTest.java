@@ -0,0 +1,40 @@
+package com.nextbreakpoint.common.command;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadGeneratorTest {
+	@Test
+	void shouldGenerateRequestsAtTargetRate() throws Exception {
+		final LoadGenerator.Report report = LoadGenerator.of(() -> Command.value(1)).withThreads(2).withRate(1000).withDuration(Duration.ofMillis(200)).run();
+		assertThat(report.requests()).isEqualTo(200);
+		assertThat(report.failures()).isEqualTo(0);
+	}
+
+	@Test
+	void shouldInjectFailures() throws Exception {
+		final LoadGenerator.Report report = LoadGenerator.of(() -> Command.value(1)).withRate(1000).withDuration(Duration.ofMillis(100)).withFailureInjection(1).run();
+		assertThat(report.failures()).isEqualTo(report.requests());
+	}
+
+	@Test
+	void shouldInjectLatency() throws Exception {
+		final LoadGenerator.Report report = LoadGenerator.of(() -> Command.value(1)).withRate(100).withDuration(Duration.ofMillis(100)).withLatencyInjection(1, Duration.ofMillis(5)).run();
+		assertThat(report.serviceTime(0.5)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+	}
+
+	@Test
+	void shouldIncludeWaitingTimeInLatency() throws Exception {
+		// the requests are slower than the target rate, therefore they start later than intended
+		final LoadGenerator.Report report = LoadGenerator.of(() -> Command.of(() -> {
+			Thread.sleep(10);
+			return 1;
+		})).withRate(1000).withDuration(Duration.ofMillis(100)).run();
+		assertThat(report.requests()).isEqualTo(100);
+		assertThat(report.latency(0.99)).isGreaterThan(report.serviceTime(0.99) * 10);
+	}
+}
@@ -0,0 +1,161 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ObjectPoolTest {
+	private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+	private final AtomicInteger counter = new AtomicInteger();
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		executor.shutdownNow();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenMaxSizeIsZero() {
+		assertThatThrownBy(() -> ObjectPool.of(StringBuilder::new, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldReturnResultOfCommand() {
+		final ObjectPool<StringBuilder> pool = ObjectPool.of(StringBuilder::new, 2);
+		assertThat(pool.bracket(builder -> Command.of(() -> builder.append("X").toString())).execute().get()).isEqualTo("X");
+		assertThat(pool.statistics().idle()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldReuseObjectInSameThread() {
+		final ObjectPool<Integer> pool = ObjectPool.of(counter::incrementAndGet, 2);
+		final Command<Integer> command = pool.bracket(Command::value);
+		assertThat(command.execute().get()).isEqualTo(1);
+		assertThat(command.execute().get()).isEqualTo(1);
+		assertThat(pool.statistics().created()).isEqualTo(1);
+		assertThat(pool.statistics().localHits()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldReleaseObjectWhenCommandFails() {
+		final ObjectPool<Integer> pool = ObjectPool.of(counter::incrementAndGet, 1);
+		final Either<Object> result = pool.bracket(value -> Command.error(new IllegalStateException())).execute();
+		assertThat(result.exception()).isInstanceOf(IllegalStateException.class);
+		assertThat(pool.bracket(Command::value).execute().get()).isEqualTo(1);
+		assertThat(pool.statistics().idle()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldFailWhenPoolIsExhausted() throws Exception {
+		final ObjectPool<Integer> pool = ObjectPool.of(counter::incrementAndGet, 1).withMaxWait(Duration.ofMillis(10));
+		final CountDownLatch acquired = new CountDownLatch(1);
+		final CountDownLatch latch = new CountDownLatch(1);
+		final Future<Either<Boolean>> future = executor.submit(() -> pool.bracket(value -> Command.of(() -> {
+			acquired.countDown();
+			return latch.await(10, TimeUnit.SECONDS);
+		})).execute());
+		assertThat(acquired.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(pool.bracket(Command::value).execute().exception()).isInstanceOf(RejectedExecutionException.class);
+		latch.countDown();
+		assertThat(future.get(10, TimeUnit.SECONDS).get()).isTrue();
+		assertThat(pool.statistics().timeouts()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldNotLendSameObjectToConcurrentCommands() throws Exception {
+		final ObjectPool<Integer> pool = ObjectPool.of(counter::incrementAndGet, 4).withMaxWait(Duration.ofSeconds(10));
+		final Set<Integer> inUse = ConcurrentHashMap.newKeySet();
+		final AtomicInteger conflicts = new AtomicInteger();
+		final Command<Integer> command = pool.bracket(value -> Command.of(() -> {
+			if (!inUse.add(value)) {
+				conflicts.incrementAndGet();
+			}
+			Thread.yield();
+			inUse.remove(value);
+			return value;
+		}));
+		final List<Future<Either<Integer>>> futures = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			futures.add(executor.submit(() -> command.execute()));
+		}
+		for (Future<Either<Integer>> future : futures) {
+			assertThat(future.get(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+		}
+		assertThat(conflicts.get()).isEqualTo(0);
+		assertThat(pool.statistics().size()).isLessThanOrEqualTo(4);
+		assertThat(pool.statistics().acquired()).isEqualTo(10000);
+	}
+
+	@Test
+	void shouldReplaceInvalidObject() {
+		final List<Integer> destroyed = new ArrayList<>();
+		final ObjectPool<Integer> pool = ObjectPool.of(counter::incrementAndGet, 1).withValidator(value -> value > 1).withDestroyer(destroyed::add);
+		assertThat(pool.bracket(Command::value).execute().get()).isEqualTo(2);
+		assertThat(destroyed).containsExactly(1);
+		assertThat(pool.statistics().invalid()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldDestroyObjectWhenValidatorThrowsError() {
+		final List<Integer> destroyed = new ArrayList<>();
+		final ObjectPool<Integer> pool = ObjectPool.of(counter::incrementAndGet, 1).withValidator(value -> {
+			if (value == 1) {
+				throw new AssertionError();
+			}
+			return true;
+		}).withDestroyer(destroyed::add);
+		assertThatThrownBy(() -> pool.bracket(Command::value).execute()).isInstanceOf(AssertionError.class);
+		assertThat(destroyed).containsExactly(1);
+		assertThat(pool.statistics().size()).isEqualTo(0);
+		assertThat(pool.bracket(Command::value).execute().get()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldEvictIdleObjects() throws Exception {
+		final List<Integer> destroyed = new ArrayList<>();
+		final ObjectPool<Integer> pool = ObjectPool.of(counter::incrementAndGet, 2).withMaxIdle(Duration.ofMillis(10)).withDestroyer(destroyed::add);
+		pool.bracket(Command::value).execute();
+		assertThat(pool.evict()).isEqualTo(0);
+		Thread.sleep(50);
+		assertThat(pool.evict()).isEqualTo(1);
+		assertThat(destroyed).containsExactly(1);
+		assertThat(pool.statistics().size()).isEqualTo(0);
+		assertThat(pool.bracket(Command::value).execute().get()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldNotLendExpiredObject() throws Exception {
+		final ObjectPool<Integer> pool = ObjectPool.of(counter::incrementAndGet, 2).withMaxIdle(Duration.ofMillis(10));
+		pool.bracket(Command::value).execute();
+		Thread.sleep(50);
+		assertThat(pool.bracket(Command::value).execute().get()).isEqualTo(2);
+		assertThat(pool.statistics().destroyed()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldDestroyObjectsWhenClosed() {
+		final List<Integer> destroyed = new ArrayList<>();
+		final ObjectPool<Integer> pool = ObjectPool.of(counter::incrementAndGet, 2).withDestroyer(destroyed::add);
+		pool.bracket(Command::value).execute();
+		pool.close();
+		assertThat(destroyed).containsExactly(1);
+		assertThat(pool.bracket(Command::value).execute().exception()).isInstanceOf(IllegalStateException.class);
+	}
+}
@@ -0,0 +1,99 @@
+package com.nextbreakpoint.common.command;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PersistentCacheTest {
+	@TempDir
+	Path directory;
+
+	@Test
+	void shouldThrowNullPointerExceptionWhenKeyIsNull() throws Exception {
+		try (PersistentCache<String, String> cache = open()) {
+			assertThatThrownBy(() -> cache.apply(null, Command.value("X"))).isInstanceOf(NullPointerException.class);
+		}
+	}
+
+	@Test
+	void shouldExecuteCommandOnlyOnce() throws Exception {
+		final AtomicInteger counter = new AtomicInteger();
+		try (PersistentCache<String, String> cache = open()) {
+			final Command<String> command = cache.apply("A", Command.of(() -> "X" + counter.incrementAndGet()));
+			assertThat(command.execute().get()).isEqualTo("X1");
+			assertThat(command.execute().get()).isEqualTo("X1");
+			assertThat(cache.size()).isEqualTo(1);
+		}
+		assertThat(counter.get()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldReturnStoredResultsAfterReopening() throws Exception {
+		try (PersistentCache<String, String> cache = open()) {
+			cache.apply("A", Command.value("X")).execute();
+			cache.apply("B", Command.value(null)).execute();
+		}
+		final AtomicInteger counter = new AtomicInteger();
+		try (PersistentCache<String, String> cache = open()) {
+			assertThat(cache.size()).isEqualTo(2);
+			assertThat(cache.apply("A", Command.of(() -> "Y" + counter.incrementAndGet())).execute().get()).isEqualTo("X");
+			assertThat(cache.apply("B", Command.of(() -> "Y" + counter.incrementAndGet())).execute().get()).isNull();
+		}
+		assertThat(counter.get()).isEqualTo(0);
+	}
+
+	@Test
+	void shouldReturnResultsAppendedAfterMapping() throws Exception {
+		final String value = "X".repeat(10000);
+		try (PersistentCache<String, String> cache = open()) {
+			for (int i = 0; i < 300; i++) {
+				final String key = "K" + i;
+				assertThat(cache.apply(key, Command.value(value + i)).execute().get()).isEqualTo(value + i);
+				assertThat(cache.apply(key, Command.value("Y")).execute().get()).isEqualTo(value + i);
+			}
+			for (int i = 0; i < 300; i++) {
+				assertThat(cache.apply("K" + i, Command.value("Y")).execute().get()).isEqualTo(value + i);
+			}
+		}
+	}
+
+	@Test
+	void shouldNotStoreFailures() throws Exception {
+		final Exception exception = new Exception();
+		try (PersistentCache<String, String> cache = open()) {
+			assertThat(cache.apply("A", Command.<String>error(exception)).execute().exception()).isEqualTo(exception);
+			assertThat(cache.size()).isEqualTo(0);
+		}
+	}
+
+	@Test
+	void shouldIgnoreCorruptedRecords() throws Exception {
+		try (PersistentCache<String, String> cache = open()) {
+			cache.apply("A", Command.value("X")).execute();
+			cache.apply("B", Command.value("Y")).execute();
+		}
+		try (FileChannel channel = FileChannel.open(directory.resolve("cache.log"), StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 1);
+		}
+		try (PersistentCache<String, String> cache = open()) {
+			assertThat(cache.size()).isEqualTo(1);
+			assertThat(cache.apply("B", Command.value("Z")).execute().get()).isEqualTo("Z");
+		}
+		try (PersistentCache<String, String> cache = open()) {
+			assertThat(cache.size()).isEqualTo(2);
+			assertThat(cache.apply("A", Command.value("W")).execute().get()).isEqualTo("X");
+			assertThat(cache.apply("B", Command.value("W")).execute().get()).isEqualTo("Z");
+		}
+	}
+
+	private PersistentCache<String, String> open() throws Exception {
+		return PersistentCache.open(directory.resolve("cache.log"), PersistentCache.Codec.string(), PersistentCache.Codec.string());
+	}
+}
@@ -0,0 +1,82 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Result;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ResultCommandTest {
+	private enum Error { NOT_FOUND, CONFLICT }
+
+	@Test
+	void shouldReturnValue() {
+		assertThat(ResultCommand.<String, Error>value("X").map(value -> value + "Y").execute().get().get()).isEqualTo("XY");
+	}
+
+	@Test
+	void shouldReturnError() {
+		assertThat(ResultCommand.<String, Error>error(Error.NOT_FOUND).execute().get().error()).isEqualTo(Error.NOT_FOUND);
+	}
+
+	@Test
+	void shouldNotCallFunctionWhenError() {
+		Function<String, ResultCommand<String, Error>> function = mock(Function.class);
+		final var result = ResultCommand.<String, Error>error(Error.NOT_FOUND).flatMap(function).execute();
+		verify(function, never()).apply(any());
+		assertThat(result.isSuccess()).isTrue();
+		assertThat(result.get().error()).isEqualTo(Error.NOT_FOUND);
+	}
+
+	@Test
+	void shouldReturnErrorOfFunction() {
+		final var result = ResultCommand.<String, Error>of(() -> Result.success("X"))
+				.flatMap(value -> ResultCommand.<String, Error>error(Error.CONFLICT))
+				.execute();
+		assertThat(result.get().error()).isEqualTo(Error.CONFLICT);
+	}
+
+	@Test
+	void shouldReturnExceptionWhenCallableThrowsException() {
+		final Exception exception = new Exception();
+		final var result = ResultCommand.<String, Error>of(() -> { throw exception; }).execute();
+		assertThat(result.exception()).isEqualTo(exception);
+	}
+
+	@Test
+	void shouldReturnExceptionWhenCommandFails() {
+		final Exception exception = new Exception();
+		assertThat(ResultCommand.<String, Error>of(Command.error(exception)).execute().exception()).isEqualTo(exception);
+		assertThat(ResultCommand.<String, Error>of(Command.value("X")).execute().get().get()).isEqualTo("X");
+	}
+
+	@Test
+	void shouldReturnExceptionWhenCancelled() {
+		final CancellationToken token = CancellationToken.create();
+		token.cancel();
+		assertThat(ResultCommand.<String, Error>value("X").execute(token).exception()).isInstanceOf(CancellationException.class);
+	}
+
+	@Test
+	void shouldMapError() {
+		assertThat(ResultCommand.<String, Error>error(Error.NOT_FOUND).mapError(Error::name).execute().get().error()).isEqualTo("NOT_FOUND");
+	}
+
+	@Test
+	void shouldFoldOutcome() {
+		assertThat(ResultCommand.<String, Error>value("X").fold(value -> 1, error -> 2).execute().get()).isEqualTo(1);
+		assertThat(ResultCommand.<String, Error>error(Error.NOT_FOUND).fold(value -> 1, error -> 2).execute().get()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldConvertToCommand() {
+		assertThat(ResultCommand.<String, Error>value("X").toCommand(error -> new Exception(error.name())).execute().get()).isEqualTo("X");
+		assertThat(ResultCommand.<String, Error>error(Error.NOT_FOUND).toCommand(error -> new Exception(error.name())).execute().exception()).hasMessage("NOT_FOUND");
+	}
+}
@@ -0,0 +1,129 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StaleWhileRevalidateTest {
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		executor.shutdownNow();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenHardTtlIsLessThanSoftTtl() {
+		assertThatThrownBy(() -> StaleWhileRevalidate.of(executor, Duration.ofSeconds(2), Duration.ofSeconds(1))).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldReturnCachedResultWhenFresh() {
+		final AtomicInteger counter = new AtomicInteger();
+		final StaleWhileRevalidate policy = StaleWhileRevalidate.of(executor, Duration.ofSeconds(60), Duration.ofSeconds(120));
+		final Command<Integer> command = policy.apply(Command.of(counter::incrementAndGet));
+		assertThat(command.execute().get()).isEqualTo(1);
+		assertThat(command.execute().get()).isEqualTo(1);
+		assertThat(policy.statistics().misses()).isEqualTo(1);
+		assertThat(policy.statistics().freshHits()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldReturnStaleResultAndRefreshInBackground() throws InterruptedException {
+		final AtomicInteger counter = new AtomicInteger();
+		final StaleWhileRevalidate policy = StaleWhileRevalidate.of(executor, Duration.ofMillis(10), Duration.ofSeconds(60));
+		final Command<Integer> command = policy.apply(Command.of(counter::incrementAndGet));
+		assertThat(command.execute().get()).isEqualTo(1);
+		Thread.sleep(20);
+		assertThat(command.execute().get()).isEqualTo(1);
+		final long deadline = System.currentTimeMillis() + 10000;
+		while (counter.get() < 2 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(1);
+		}
+		Thread.sleep(5);
+		assertThat(command.execute().get()).isEqualTo(2);
+		assertThat(policy.statistics().staleHits()).isGreaterThanOrEqualTo(1);
+		assertThat(policy.statistics().refreshes()).isGreaterThanOrEqualTo(1);
+	}
+
+	@Test
+	void shouldReturnStaleResultWhileRefreshesFail() throws InterruptedException {
+		final AtomicBoolean failing = new AtomicBoolean();
+		final StaleWhileRevalidate policy = StaleWhileRevalidate.of(executor, Duration.ofMillis(1), Duration.ofSeconds(60));
+		final Command<String> command = policy.apply(Command.of(() -> {
+			if (failing.get()) {
+				throw new Exception();
+			}
+			return "X";
+		}));
+		assertThat(command.execute().get()).isEqualTo("X");
+		failing.set(true);
+		for (int i = 0; i < 10; i++) {
+			Thread.sleep(2);
+			assertThat(command.execute().get()).isEqualTo("X");
+		}
+	}
+
+	@Test
+	void shouldReturnFailureWhenResultIsOlderThanHardTtlAndCommandFails() throws InterruptedException {
+		final AtomicBoolean failing = new AtomicBoolean();
+		final StaleWhileRevalidate policy = StaleWhileRevalidate.of(executor, Duration.ofMillis(1), Duration.ofMillis(10));
+		final Command<String> command = policy.apply(Command.of(() -> {
+			if (failing.get()) {
+				throw new Exception();
+			}
+			return "X";
+		}));
+		assertThat(command.execute().get()).isEqualTo("X");
+		failing.set(true);
+		Thread.sleep(20);
+		assertThat(command.execute().isFailure()).isTrue();
+	}
+
+	@Test
+	void shouldNotCacheFailures() {
+		final AtomicInteger counter = new AtomicInteger();
+		final StaleWhileRevalidate policy = StaleWhileRevalidate.of(executor, Duration.ofSeconds(60), Duration.ofSeconds(120));
+		final Command<Object> command = policy.apply(Command.of(() -> {
+			counter.incrementAndGet();
+			throw new Exception();
+		}));
+		assertThat(command.execute().isFailure()).isTrue();
+		assertThat(command.execute().isFailure()).isTrue();
+		assertThat(counter.get()).isEqualTo(2);
+		assertThat(policy.statistics().failures()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldKeepLoadingWhenWaiterIsCancelled() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final StaleWhileRevalidate policy = StaleWhileRevalidate.of(executor, Duration.ofSeconds(60), Duration.ofSeconds(120));
+		final Command<String> command = policy.apply(Command.of(() -> {
+			started.countDown();
+			release.await();
+			return "value";
+		}));
+		final CancellationToken token = CancellationToken.create();
+		final Future<Either<String>> cancelled = executor.submit(() -> command.execute(token));
+		assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+		final Future<Either<String>> waiting = executor.submit(() -> command.execute());
+		token.cancel();
+		assertThat(cancelled.get(10, TimeUnit.SECONDS).isFailure()).isTrue();
+		release.countDown();
+		assertThat(waiting.get(10, TimeUnit.SECONDS).get()).isEqualTo("value");
+	}
+}
@@ -0,0 +1,144 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingExecutorTest {
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		executor.shutdownNow();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenWindowIsZero() {
+		assertThatThrownBy(() -> StreamingExecutor.of(executor, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldReturnResultsInOrderOfCommands() {
+		final Stream<Command<Integer>> commands = IntStream.range(0, 100)
+				.mapToObj(i -> Command.of(() -> {
+					Thread.sleep((100 - i) % 7);
+					return i;
+				}));
+		final List<Integer> results = StreamingExecutor.of(executor, 8).execute(commands)
+				.map(Either::get)
+				.collect(Collectors.toList());
+		assertThat(results).isEqualTo(IntStream.range(0, 100).boxed().collect(Collectors.toList()));
+	}
+
+	@Test
+	void shouldReturnAllResultsWhenUnordered() {
+		final Stream<Command<Integer>> commands = IntStream.range(0, 100)
+				.mapToObj(i -> Command.of(() -> {
+					Thread.sleep((100 - i) % 7);
+					return i;
+				}));
+		final List<Integer> results = StreamingExecutor.of(executor, 8).unordered().execute(commands)
+				.map(Either::get)
+				.collect(Collectors.toList());
+		assertThat(results).containsExactlyInAnyOrderElementsOf(IntStream.range(0, 100).boxed().collect(Collectors.toList()));
+	}
+
+	@Test
+	void shouldNotExceedWindow() {
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		final Iterator<Command<Integer>> commands = IntStream.range(0, 200)
+				.mapToObj(i -> Command.of(() -> {
+					maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+					Thread.sleep(1);
+					running.decrementAndGet();
+					return i;
+				}))
+				.iterator();
+		final Iterator<Either<Integer>> results = StreamingExecutor.of(executor, 3).execute(commands);
+		int count = 0;
+		while (results.hasNext()) {
+			assertThat(results.next().isSuccess()).isTrue();
+			count += 1;
+		}
+		assertThat(count).isEqualTo(200);
+		assertThat(maxRunning.get()).isLessThanOrEqualTo(3);
+	}
+
+	@Test
+	void shouldPullCommandsOnlyWhenResultsAreConsumed() {
+		final AtomicInteger pulled = new AtomicInteger();
+		final Iterator<Command<Integer>> commands = IntStream.range(0, 1000000)
+				.peek(i -> pulled.incrementAndGet())
+				.mapToObj(Command::value)
+				.iterator();
+		final Iterator<Either<Integer>> results = StreamingExecutor.of(executor, 4).execute(commands);
+		assertThat(results.next().get()).isEqualTo(0);
+		assertThat(pulled.get()).isLessThanOrEqualTo(5);
+	}
+
+	@Test
+	void shouldReturnFailureOfCommand() {
+		final Exception exception = new Exception();
+		final Iterator<Either<Object>> results = StreamingExecutor.of(executor, 4).execute(List.of(Command.error(exception)).iterator());
+		assertThat(results.next().exception()).isEqualTo(exception);
+		assertThat(results.hasNext()).isFalse();
+	}
+
+	@Test
+	void shouldReturnFailureWhenCommandThrowsError() {
+		final Stream<Command<Integer>> commands = IntStream.range(0, 10)
+				.mapToObj(i -> Command.of(() -> {
+					if (i == 3) {
+						throw new AssertionError();
+					}
+					return i;
+				}));
+		final List<Either<Integer>> ordered = StreamingExecutor.of(executor, 4).execute(commands).collect(Collectors.toList());
+		assertThat(ordered).hasSize(10);
+		assertThat(ordered.get(3).exception()).hasCauseInstanceOf(AssertionError.class);
+		final Stream<Command<Integer>> moreCommands = IntStream.range(0, 10)
+				.mapToObj(i -> Command.of(() -> {
+					if (i == 3) {
+						throw new AssertionError();
+					}
+					return i;
+				}));
+		final List<Either<Integer>> unordered = StreamingExecutor.of(executor, 4).unordered().execute(moreCommands).collect(Collectors.toList());
+		assertThat(unordered).hasSize(10);
+		assertThat(unordered).filteredOn(Either::isFailure).hasSize(1);
+	}
+
+	@Test
+	void shouldStopPullingCommandsWhenTokenIsCancelled() {
+		final CancellationToken token = CancellationToken.create();
+		final Iterator<Command<Integer>> commands = IntStream.range(0, 1000)
+				.mapToObj(Command::value)
+				.iterator();
+		final Iterator<Either<Integer>> results = StreamingExecutor.of(executor, 4).execute(commands, token);
+		results.next();
+		token.cancel();
+		int count = 0;
+		while (results.hasNext()) {
+			final Either<Integer> result = results.next();
+			assertThat(result.isSuccess() || result.exception() instanceof CancellationException).isTrue();
+			count += 1;
+		}
+		assertThat(count).isLessThanOrEqualTo(4);
+	}
+}
@@ -0,0 +1,199 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimerWheelTest {
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	private final TimerWheel timerWheel = TimerWheel.of(executor).withTick(Duration.ofMillis(1)).withSlots(64);
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		timerWheel.close();
+		executor.shutdownNow();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenDelayIsNegative() {
+		assertThatThrownBy(() -> timerWheel.schedule(Command.value("X"), Duration.ofMillis(-1))).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenPeriodIsZero() {
+		assertThatThrownBy(() -> timerWheel.scheduleAtFixedRate(Command.value("X"), Duration.ZERO, Duration.ZERO, either -> {})).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldThrowIllegalStateExceptionWhenClosed() {
+		timerWheel.close();
+		assertThatThrownBy(() -> timerWheel.schedule(Command.value("X"), Duration.ZERO)).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void shouldExecuteCommandAfterDelay() throws Exception {
+		final long start = System.nanoTime();
+		final CompletableFuture<Either<String>> future = timerWheel.schedule(Command.value("X"), Duration.ofMillis(50));
+		assertThat(future.get(10, TimeUnit.SECONDS).get()).isEqualTo("X");
+		assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+		assertThat(timerWheel.pending()).isEqualTo(0);
+	}
+
+	@Test
+	void shouldExecuteCommandAfterMoreThanOneRevolution() throws Exception {
+		final long start = System.nanoTime();
+		final CompletableFuture<Either<String>> future = timerWheel.schedule(Command.value("X"), Duration.ofMillis(150));
+		assertThat(future.get(10, TimeUnit.SECONDS).get()).isEqualTo("X");
+		assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(150));
+	}
+
+	@Test
+	void shouldExecuteCommandsInOrderOfDelay() throws Exception {
+		final List<Integer> executions = new ArrayList<>();
+		final CountDownLatch latch = new CountDownLatch(3);
+		for (int delay : new int[] { 60, 20, 40 }) {
+			timerWheel.schedule(Command.value(delay), Duration.ofMillis(delay), either -> {
+				synchronized (executions) {
+					executions.add(either.get());
+				}
+				latch.countDown();
+			});
+		}
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(executions).containsExactly(20, 40, 60);
+	}
+
+	@Test
+	void shouldExecuteManyTimers() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(100000);
+		for (int i = 0; i < 100000; i++) {
+			timerWheel.schedule(Command.value(i), Duration.ofMillis(i % 200), either -> latch.countDown());
+		}
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(timerWheel.pending()).isEqualTo(0);
+	}
+
+	@Test
+	void shouldNotExecuteCommandWhenCancelled() throws Exception {
+		final AtomicInteger counter = new AtomicInteger();
+		final TimerWheel.Timeout timeout = timerWheel.schedule(Command.of(counter::incrementAndGet), Duration.ofMillis(20), either -> {});
+		assertThat(timeout.cancel()).isTrue();
+		assertThat(timeout.cancel()).isFalse();
+		Thread.sleep(100);
+		assertThat(counter.get()).isEqualTo(0);
+		assertThat(timeout.isCancelled()).isTrue();
+		assertThat(timerWheel.pending()).isEqualTo(0);
+	}
+
+	@Test
+	void shouldCancelTimerWhenFutureIsCancelled() throws Exception {
+		final AtomicInteger counter = new AtomicInteger();
+		final CompletableFuture<Either<Integer>> future = timerWheel.schedule(Command.of(counter::incrementAndGet), Duration.ofMillis(20));
+		future.cancel(false);
+		Thread.sleep(100);
+		assertThat(counter.get()).isEqualTo(0);
+		assertThat(timerWheel.pending()).isEqualTo(0);
+	}
+
+	@Test
+	void shouldExecuteCommandAtFixedRateUntilCancelled() throws Exception {
+		final AtomicInteger counter = new AtomicInteger();
+		final CountDownLatch latch = new CountDownLatch(5);
+		final TimerWheel.Timeout timeout = timerWheel.scheduleAtFixedRate(Command.of(counter::incrementAndGet), Duration.ZERO, Duration.ofMillis(10), either -> latch.countDown());
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(timeout.cancel()).isTrue();
+		Thread.sleep(50);
+		final int executions = counter.get();
+		Thread.sleep(50);
+		assertThat(counter.get()).isEqualTo(executions);
+		assertThat(timeout.isDone()).isTrue();
+	}
+
+	@Test
+	void shouldNotInvokeCallbackWhenCancelledDuringExecution() throws Exception {
+		final AtomicInteger callbacks = new AtomicInteger();
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final TimerWheel.Timeout timeout = timerWheel.scheduleAtFixedRate(Command.of(() -> {
+			started.countDown();
+			release.await();
+			return "X";
+		}), Duration.ZERO, Duration.ofMillis(10), either -> callbacks.incrementAndGet());
+		assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(timeout.cancel()).isTrue();
+		release.countDown();
+		Thread.sleep(100);
+		assertThat(callbacks.get()).isEqualTo(0);
+		assertThat(timeout.isCancelled()).isTrue();
+		assertThat(timerWheel.pending()).isEqualTo(0);
+	}
+
+	@Test
+	void shouldNotRescheduleTimerWhenCancelledDuringCallback() throws Exception {
+		final AtomicInteger callbacks = new AtomicInteger();
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final TimerWheel.Timeout timeout = timerWheel.scheduleAtFixedRate(Command.value("X"), Duration.ZERO, Duration.ofMillis(10), either -> {
+			callbacks.incrementAndGet();
+			started.countDown();
+			awaitQuietly(release);
+		});
+		assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(timeout.cancel()).isTrue();
+		release.countDown();
+		Thread.sleep(100);
+		assertThat(callbacks.get()).isEqualTo(1);
+		assertThat(timeout.isCancelled()).isTrue();
+		assertThat(timerWheel.pending()).isEqualTo(0);
+	}
+
+	@Test
+	void shouldCompletePendingTimersWhenClosed() throws Exception {
+		final CompletableFuture<Either<String>> future = timerWheel.schedule(Command.value("X"), Duration.ofSeconds(60));
+		timerWheel.close();
+		assertThat(future.get(10, TimeUnit.SECONDS).exception()).isInstanceOf(CancellationException.class);
+		assertThat(timerWheel.pending()).isEqualTo(0);
+	}
+
+	@Test
+	void shouldRestoreInterruptWhenInterruptedWhileClosing() throws Exception {
+		final CompletableFuture<Either<String>> future = timerWheel.schedule(Command.value("X"), Duration.ofSeconds(60));
+		Thread.currentThread().interrupt();
+		timerWheel.close();
+		assertThat(Thread.interrupted()).isTrue();
+		assertThat(timerWheel.awaitTermination(Duration.ofSeconds(10))).isTrue();
+		assertThat(future.get(10, TimeUnit.SECONDS).exception()).isInstanceOf(CancellationException.class);
+	}
+
+	@Test
+	void shouldPropagateContext() throws Exception {
+		final Context.Key<String> key = Context.Key.of("user");
+		final CompletableFuture<Either<String>> future = Context.empty().with(key, "alice")
+			.call(() -> timerWheel.schedule(Command.of(() -> Context.current().get(key)), Duration.ofMillis(10)));
+		assertThat(future.get(10, TimeUnit.SECONDS).get()).isEqualTo("alice");
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.nextbreakpoint.common.command;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Compares the throughput of executors on short command pipelines.
+ * <p>
+ * Each round submits a batch of pipelines, where each pipeline maps and flat maps a value a few times, and then
+ * submits a continuation from the thread which has produced the value, as a callback would do. The round completes
+ * when all the continuations have completed, therefore the measure includes the fan-out and the handoffs.
+ */
+class WorkStealingExecutorBenchmark {
+    private static final Logger LOG = Logger.getLogger(WorkStealingExecutorBenchmark.class.getName());
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURE_ITERATIONS = 5;
+    private static final int ROUNDS = 200;
+    private static final int BATCH_SIZE = 1000;
+
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    private static final LongAdder sink = new LongAdder();
+
+    public static void main(String[] args) throws Exception {
+        final ExecutorService threadPool = new ThreadPoolExecutor(PARALLELISM, PARALLELISM, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        final ForkJoinPool forkJoinPool = new ForkJoinPool(PARALLELISM);
+
+        try (WorkStealingExecutor workStealing = WorkStealingExecutor.of(PARALLELISM)) {
+            run("ThreadPoolExecutor", threadPool, tasks -> tasks.forEach(threadPool::execute));
+            run("ForkJoinPool", forkJoinPool, tasks -> tasks.forEach(forkJoinPool::execute));
+            run("WorkStealingExecutor", workStealing, tasks -> tasks.forEach(workStealing::execute));
+            run("WorkStealingExecutor, batched", workStealing, workStealing::executeAll);
+        } finally {
+            threadPool.shutdown();
+            forkJoinPool.shutdown();
+        }
+    }
+
+    private static void run(String name, Executor executor, Consumer<List<Runnable>> submitter) throws InterruptedException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            measure(executor, submitter);
+        }
+
+        long elapsed = 0;
+
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            final long time = System.nanoTime();
+            measure(executor, submitter);
+            elapsed += System.nanoTime() - time;
+        }
+
+        final double operations = (double) ROUNDS * BATCH_SIZE * MEASURE_ITERATIONS;
+
+        LOG.log(Level.INFO, String.format("%-35s %8.2f ns/op %12.0f ops/s", name, elapsed / operations, operations * 1e9 / elapsed));
+    }
+
+    private static void measure(Executor executor, Consumer<List<Runnable>> submitter) throws InterruptedException {
+        for (int round = 0; round < ROUNDS; round++) {
+            final CountDownLatch latch = new CountDownLatch(BATCH_SIZE);
+            final List<Runnable> tasks = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                final int value = i;
+                tasks.add(() -> {
+                    final Integer result = pipeline(value).execute().get();
+                    // the continuation is submitted by the thread which has produced the value
+                    executor.execute(() -> {
+                        sink.add(result);
+                        latch.countDown();
+                    });
+                });
+            }
+            submitter.accept(tasks);
+            latch.await();
+        }
+    }
+
+    private static Command<Integer> pipeline(int value) {
+        return Command.value(value)
+            .map(x -> x * 31 + 7)
+            .flatMap(x -> Command.value(x ^ (x >>> 3)))
+            .map(x -> x % 1024);
+    }
+}
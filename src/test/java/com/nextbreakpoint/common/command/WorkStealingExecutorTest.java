@@ -0,0 +1,191 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkStealingExecutorTest {
+	private final WorkStealingExecutor executor = WorkStealingExecutor.of(4);
+
+	@AfterEach
+	void tearDown() {
+		executor.close();
+	}
+
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenParallelismIsZero() {
+		assertThatThrownBy(() -> WorkStealingExecutor.of(0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldReturnResultOfCommand() throws Exception {
+		assertThat(executor.submit(Command.value("X").map(String::toLowerCase)).get(10, TimeUnit.SECONDS).get()).isEqualTo("x");
+	}
+
+	@Test
+	void shouldExecuteAllCommandsOfBatch() throws Exception {
+		final List<Command<Integer>> commands = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			commands.add(Command.value(i).map(value -> value * 2));
+		}
+		final List<CompletableFuture<Either<Integer>>> futures = executor.submitAll(commands);
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+		for (int i = 0; i < 10000; i++) {
+			assertThat(futures.get(i).get().get()).isEqualTo(i * 2);
+		}
+	}
+
+	@Test
+	void shouldExecuteTaskSubmittedByWorkerOnSameWorker() throws Exception {
+		final CountDownLatch ready = new CountDownLatch(3);
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch completed = new CountDownLatch(1);
+		final AtomicReference<Thread> parent = new AtomicReference<>();
+		final AtomicReference<Thread> child = new AtomicReference<>();
+		final List<Runnable> tasks = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			tasks.add(() -> {
+				ready.countDown();
+				await(release);
+			});
+		}
+		tasks.add(() -> {
+			// the other workers are busy, therefore the task can't be stolen
+			await(ready);
+			parent.set(Thread.currentThread());
+			executor.execute(() -> {
+				child.set(Thread.currentThread());
+				completed.countDown();
+			});
+		});
+		executor.executeAll(tasks);
+		assertThat(completed.await(10, TimeUnit.SECONDS)).isTrue();
+		release.countDown();
+		assertThat(child.get()).isSameAs(parent.get());
+	}
+
+	@Test
+	void shouldStealTasksFromBusyWorker() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(1);
+		final AtomicInteger counter = new AtomicInteger();
+		final CountDownLatch completed = new CountDownLatch(100);
+		executor.execute(() -> {
+			final List<Runnable> tasks = new ArrayList<>();
+			for (int i = 0; i < 100; i++) {
+				tasks.add(() -> {
+					counter.incrementAndGet();
+					completed.countDown();
+				});
+			}
+			executor.executeAll(tasks);
+			// the worker which has submitted the batch is blocked, therefore the tasks are executed by the other workers
+			await(latch);
+		});
+		assertThat(completed.await(10, TimeUnit.SECONDS)).isTrue();
+		latch.countDown();
+		assertThat(counter.get()).isEqualTo(100);
+		assertThat(executor.statistics().stolen()).isGreaterThanOrEqualTo(100);
+	}
+
+	@Test
+	void shouldPropagateContext() throws Exception {
+		final Context.Key<String> key = Context.Key.of("user");
+		final CompletableFuture<Either<String>> future = Context.empty().with(key, "alice")
+			.call(() -> executor.submit(Command.of(() -> Context.current().get(key))));
+		assertThat(future.get(10, TimeUnit.SECONDS).get()).isEqualTo("alice");
+	}
+
+	@Test
+	void shouldExecuteSubmittedTasksAndRejectNewTasksWhenClosed() throws Exception {
+		final AtomicInteger counter = new AtomicInteger();
+		for (int i = 0; i < 1000; i++) {
+			executor.execute(counter::incrementAndGet);
+		}
+		executor.close();
+		assertThat(counter.get()).isEqualTo(1000);
+		assertThat(executor.statistics().executed()).isEqualTo(1000);
+		assertThatThrownBy(() -> executor.execute(counter::incrementAndGet)).isInstanceOf(RejectedExecutionException.class);
+	}
+
+	@Test
+	void shouldExecuteOrRejectEachTaskWhenClosedConcurrently() throws Exception {
+		for (int i = 0; i < 200; i++) {
+			final WorkStealingExecutor otherExecutor = WorkStealingExecutor.of(2);
+			final AtomicInteger executed = new AtomicInteger();
+			final AtomicInteger rejected = new AtomicInteger();
+			final Thread producer = new Thread(() -> {
+				for (int j = 0; j < 100; j++) {
+					try {
+						otherExecutor.execute(executed::incrementAndGet);
+					} catch (RejectedExecutionException e) {
+						rejected.incrementAndGet();
+					}
+				}
+			});
+			producer.start();
+			otherExecutor.close();
+			producer.join();
+			assertThat(executed.get() + rejected.get()).isEqualTo(100);
+		}
+	}
+
+	@Test
+	void shouldKeepWorkerAliveWhenTaskThrowsError() throws Exception {
+		final List<Throwable> errors = new CopyOnWriteArrayList<>();
+		final WorkStealingExecutor singleWorker = WorkStealingExecutor.of(1, runnable -> {
+			final Thread thread = new Thread(runnable);
+			thread.setDaemon(true);
+			thread.setUncaughtExceptionHandler((t, e) -> errors.add(e));
+			return thread;
+		});
+		try {
+			final CompletableFuture<Either<String>> future1 = singleWorker.submit(Command.of(() -> {
+				throw new AssertionError();
+			}));
+			assertThatThrownBy(() -> future1.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(AssertionError.class);
+			final CompletableFuture<Either<String>> future2 = singleWorker.submit(Command.value("X"));
+			assertThat(future2.get(10, TimeUnit.SECONDS).get()).isEqualTo("X");
+		} finally {
+			singleWorker.close();
+		}
+		assertThat(errors).hasSize(1);
+		assertThat(singleWorker.statistics().executed()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldRestoreInterruptWhenInterruptedWhileClosing() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		executor.execute(() -> {
+			started.countDown();
+			await(release);
+		});
+		assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+		Thread.currentThread().interrupt();
+		executor.close();
+		assertThat(Thread.interrupted()).isTrue();
+		release.countDown();
+		assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
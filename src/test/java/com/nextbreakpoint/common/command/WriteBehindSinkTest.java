@@ -0,0 +1,140 @@
+package com.nextbreakpoint.common.command;
+
+import com.nextbreakpoint.common.either.Either;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WriteBehindSinkTest {
+	private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+
+	private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		scheduler.shutdownNow();
+		scheduler.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenBatchSizeIsZero() {
+		assertThatThrownBy(() -> WriteBehindSink.of(scheduler, this::store, 0, Duration.ofMillis(10), 10)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldWriteBatchWhenMaxBatchSizeIsReached() {
+		final WriteBehindSink<String> sink = WriteBehindSink.of(scheduler, this::store, 3, Duration.ofSeconds(60), 10);
+		final Command<Void> command1 = sink.write("A");
+		final Command<Void> command2 = sink.write("B");
+		final Command<Void> command3 = sink.write("C");
+		assertThat(command1.execute().isSuccess()).isTrue();
+		assertThat(command2.execute().isSuccess()).isTrue();
+		assertThat(command3.execute().isSuccess()).isTrue();
+		assertThat(batches).containsExactly(List.of("A", "B", "C"));
+	}
+
+	@Test
+	void shouldWriteBatchWhenMaxDelayIsReached() {
+		final WriteBehindSink<String> sink = WriteBehindSink.of(scheduler, this::store, 100, Duration.ofMillis(20), 10);
+		final Command<Void> command1 = sink.write("A");
+		final Command<Void> command2 = sink.write("B");
+		assertThat(command1.execute().isSuccess()).isTrue();
+		assertThat(command2.execute().isSuccess()).isTrue();
+		assertThat(batches).containsExactly(List.of("A", "B"));
+	}
+
+	@Test
+	void shouldReturnFailureOfBatchForEachItem() {
+		final Exception exception = new Exception();
+		final WriteBehindSink<String> sink = WriteBehindSink.of(scheduler, items -> Command.error(exception), 2, Duration.ofSeconds(60), 10);
+		final Command<Void> command1 = sink.write("A");
+		final Command<Void> command2 = sink.write("B");
+		assertThat(command1.execute().exception()).isEqualTo(exception);
+		assertThat(command2.execute().exception()).isEqualTo(exception);
+	}
+
+	@Test
+	void shouldReturnFailureForEachItemWhenFunctionThrowsError() {
+		final WriteBehindSink<String> sink = WriteBehindSink.of(scheduler, items -> {
+			throw new AssertionError();
+		}, 2, Duration.ofSeconds(60), 2);
+		final Command<Void> command1 = sink.write("A");
+		final Command<Void> command2 = sink.write("B");
+		assertThat(command1.execute().exception()).hasCauseInstanceOf(AssertionError.class);
+		assertThat(command2.execute().exception()).hasCauseInstanceOf(AssertionError.class);
+		final Command<Void> command3 = sink.write("C");
+		sink.close();
+		assertThat(command3.execute().exception()).hasCauseInstanceOf(AssertionError.class);
+	}
+
+	@Test
+	void shouldBlockWriterWhenSinkIsFull() throws InterruptedException {
+		final CountDownLatch release = new CountDownLatch(1);
+		final WriteBehindSink<String> sink = WriteBehindSink.of(scheduler, items -> Command.of(() -> {
+			release.await();
+			return null;
+		}), 1, Duration.ofSeconds(60), 1);
+		sink.write("A");
+		final AtomicBoolean written = new AtomicBoolean();
+		final Thread writer = new Thread(() -> {
+			sink.write("B");
+			written.set(true);
+		});
+		writer.start();
+		writer.join(100);
+		assertThat(written.get()).isFalse();
+		release.countDown();
+		writer.join(10000);
+		assertThat(written.get()).isTrue();
+	}
+
+	@Test
+	void shouldWritePendingItemsWhenClosed() {
+		final WriteBehindSink<String> sink = WriteBehindSink.of(scheduler, this::store, 100, Duration.ofSeconds(60), 10);
+		final Command<Void> command = sink.write("A");
+		sink.close();
+		assertThat(batches).containsExactly(List.of("A"));
+		assertThat(command.execute().isSuccess()).isTrue();
+	}
+
+	@Test
+	void shouldRejectItemsWhenClosed() {
+		final WriteBehindSink<String> sink = WriteBehindSink.of(scheduler, this::store, 100, Duration.ofSeconds(60), 10);
+		sink.close();
+		final Either<Void> result = sink.write("A").execute();
+		assertThat(result.exception()).isInstanceOf(RejectedExecutionException.class);
+		assertThat(batches).isEmpty();
+	}
+
+	@Test
+	void shouldRestoreInterruptWhenInterruptedWhileClosing() throws InterruptedException {
+		final CountDownLatch release = new CountDownLatch(1);
+		final WriteBehindSink<String> sink = WriteBehindSink.of(scheduler, items -> Command.of(() -> release.await(10, TimeUnit.SECONDS)).map(ignored -> null), 100, Duration.ofSeconds(60), 10);
+		sink.write("A");
+		Thread.currentThread().interrupt();
+		sink.close();
+		assertThat(Thread.interrupted()).isTrue();
+		release.countDown();
+		assertThat(sink.awaitTermination(Duration.ofSeconds(10))).isTrue();
+	}
+
+	private Command<Void> store(List<String> items) {
+		return Command.of(() -> {
+			batches.add(items);
+			return null;
+		});
+	}
+}
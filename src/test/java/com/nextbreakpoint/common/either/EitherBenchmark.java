@@ -0,0 +1,108 @@
+package com.nextbreakpoint.common.either;
+
+import java.lang.reflect.Method;
+import java.util.function.ToIntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Measures time and allocated bytes per operation of short Either chains.
+ * <p>
+ * When the chain is fully inlined, escape analysis replaces the intermediate instances with scalars
+ * and the allocated bytes per operation drop to zero. Run again with -XX:-DoEscapeAnalysis to compare.
+ */
+class EitherBenchmark {
+    private static final Logger LOG = Logger.getLogger(EitherBenchmark.class.getName());
+
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURE_ITERATIONS = 10;
+    private static final int OPERATIONS = 1_000_000;
+
+    private static final Exception ERROR = new Exception("Error");
+
+    private static final String[] VALUES = new String[] { "A", "AB", "ABC", "ABCD", "ABCDE", "ABCDEF", "ABCDEFG", "ABCDEFGH" };
+
+    private static long sink;
+
+    public static void main(String[] args) throws Exception {
+        run("success.map.map.orElse", EitherBenchmark::successChain);
+        run("success.flatMap.map.orElse", EitherBenchmark::flatMapChain);
+        run("failure.map.map.orElse", EitherBenchmark::failureChain);
+        run("failure.or.map.get", EitherBenchmark::recoverChain);
+    }
+
+    private static int successChain(String value) {
+        return Either.success(value)
+                .map(String::length)
+                .map(x -> x * 2)
+                .orElse(0);
+    }
+
+    private static int flatMapChain(String value) {
+        return Either.success(value)
+                .flatMap(x -> Either.success(x.length()))
+                .map(x -> x * 2)
+                .orElse(0);
+    }
+
+    private static int failureChain(String value) {
+        return Either.<String>failure(ERROR)
+                .map(String::length)
+                .map(x -> x * 2)
+                .orElse(value.length());
+    }
+
+    private static int recoverChain(String value) {
+        return Either.<String>failure(ERROR)
+                .or(() -> Either.success(value))
+                .map(String::length)
+                .get();
+    }
+
+    private static void run(String name, ToIntFunction<String> operation) throws Exception {
+        final AllocationCounter counter = new AllocationCounter();
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            measure(operation);
+        }
+
+        long elapsed = 0;
+        long allocated = 0;
+
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            final long bytes = counter.allocatedBytes();
+            final long time = System.nanoTime();
+            measure(operation);
+            elapsed += System.nanoTime() - time;
+            allocated += counter.allocatedBytes() - bytes;
+        }
+
+        final double operations = (double) OPERATIONS * MEASURE_ITERATIONS;
+
+        LOG.log(Level.INFO, String.format("%-30s %8.2f ns/op %8.2f B/op", name, elapsed / operations, allocated / operations));
+    }
+
+    private static void measure(ToIntFunction<String> operation) {
+        long result = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            // small integers come from the Integer cache, therefore only the Either instances can allocate
+            result += operation.applyAsInt(VALUES[i & (VALUES.length - 1)]);
+        }
+        sink += result;
+    }
+
+    private static class AllocationCounter {
+        private final Object bean;
+        private final Method method;
+
+        private AllocationCounter() throws Exception {
+            final Class<?> factory = Class.forName("java.lang.management.ManagementFactory");
+            bean = factory.getMethod("getThreadMXBean").invoke(null);
+            method = Class.forName("com.sun.management.ThreadMXBean").getMethod("getCurrentThreadAllocatedBytes");
+        }
+
+        private long allocatedBytes() throws Exception {
+            return (long) method.invoke(bean);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.nextbreakpoint.common.either;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FailureReporterTest {
+	private final List<LogRecord> records = new CopyOnWriteArrayList<>();
+
+	private Logger logger;
+
+	@BeforeEach
+	void setup() {
+		logger = Logger.getLogger("test." + UUID.randomUUID());
+		logger.setUseParentHandlers(false);
+		logger.addHandler(new Handler() {
+			@Override
+			public void publish(LogRecord record) {
+				records.add(record);
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+		});
+	}
+
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenWindowIsZero() {
+		assertThatThrownBy(() -> FailureReporter.of(logger, Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenSampleRateIsInvalid() {
+		assertThatThrownBy(() -> FailureReporter.of(logger, Duration.ofSeconds(1)).withSampleRate(2)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldLogFirstFailureOfEachKindWithStackTrace() {
+		final FailureReporter reporter = FailureReporter.of(logger, Duration.ofHours(1)).withSampleRate(0);
+		for (int i = 0; i < 1000; i++) {
+			reporter.accept(new IOException("Connection " + i + " refused"));
+		}
+		reporter.accept(new IllegalStateException());
+		assertThat(records).hasSize(2);
+		assertThat(records.get(0).getMessage()).isEqualTo("Failure java.io.IOException: Connection # refused");
+		assertThat(records.get(0).getThrown()).hasMessage("Connection 0 refused");
+		assertThat(records.get(1).getMessage()).isEqualTo("Failure java.lang.IllegalStateException");
+	}
+
+	@Test
+	void shouldSampleFirstFailureOfEachKindWhenConfigured() {
+		final FailureReporter reporter = FailureReporter.of(logger, Duration.ofHours(1)).withSampleRate(0).withSampledFirstFailures();
+		reporter.accept(new IOException());
+		reporter.accept(new IllegalStateException());
+		assertThat(records).isEmpty();
+		reporter.flush();
+		assertThat(records).hasSize(1);
+	}
+
+	@Test
+	void shouldLogSummaryOfWindow() {
+		final FailureReporter reporter = FailureReporter.of(logger, Duration.ofHours(1)).withSampleRate(0);
+		for (int i = 0; i < 10; i++) {
+			reporter.accept(new IOException("Error " + i));
+		}
+		reporter.accept(new IllegalStateException());
+		records.clear();
+		reporter.flush();
+		assertThat(records).hasSize(1);
+		assertThat(records.get(0).getLevel()).isEqualTo(Level.WARNING);
+		assertThat(records.get(0).getMessage()).isEqualTo("Failures in last window: 11\n  10 x java.io.IOException: Error #\n  1 x java.lang.IllegalStateException");
+		records.clear();
+		reporter.flush();
+		assertThat(records).isEmpty();
+	}
+
+	@Test
+	void shouldLogSummaryWhenWindowEnds() throws InterruptedException {
+		final FailureReporter reporter = FailureReporter.of(logger, Duration.ofMillis(10)).withSampleRate(0);
+		reporter.accept(new IOException());
+		Thread.sleep(50);
+		reporter.accept(new IOException());
+		assertThat(records).extracting(LogRecord::getMessage).containsExactly("Failure java.io.IOException", "Failures in last window: 1\n  1 x java.io.IOException", "Failure java.io.IOException");
+	}
+
+	@Test
+	void shouldNotLoseFailuresWhenFlushedConcurrently() throws InterruptedException {
+		final FailureReporter reporter = FailureReporter.of(logger, Duration.ofHours(1)).withSampleRate(0).withSampledFirstFailures();
+		final List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			final Thread thread = new Thread(() -> {
+				for (int j = 0; j < 10000; j++) {
+					reporter.accept(new IOException());
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (int i = 0; i < 100; i++) {
+			reporter.flush();
+			Thread.yield();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		reporter.flush();
+		final long total = records.stream()
+				.map(LogRecord::getMessage)
+				.map(message -> message.split("\n")[0])
+				.mapToLong(line -> Long.parseLong(line.substring("Failures in last window: ".length())))
+				.sum();
+		assertThat(total).isEqualTo(40000);
+	}
+
+	@Test
+	void shouldLogSampledFailures() {
+		final FailureReporter reporter = FailureReporter.of(logger, Duration.ofHours(1)).withSampleRate(1);
+		reporter.accept(new IOException());
+		reporter.accept(new IOException());
+		assertThat(records).extracting(LogRecord::getMessage).containsExactly("Failure java.io.IOException", "Failure java.io.IOException (sampled)");
+	}
+
+	@Test
+	void shouldCountOtherKindsTogetherWhenLimitIsReached() {
+		final FailureReporter reporter = FailureReporter.of(logger, Duration.ofHours(1)).withSampleRate(0).withMaxKinds(1);
+		reporter.accept(new IOException());
+		reporter.accept(new IllegalStateException());
+		reporter.accept(new IllegalArgumentException());
+		records.clear();
+		reporter.flush();
+		assertThat(records.get(0).getMessage()).isEqualTo("Failures in last window: 3\n  2 x other\n  1 x java.io.IOException");
+	}
+
+	@Test
+	void shouldReportFailuresOfObservable() {
+		final FailureReporter reporter = FailureReporter.of(logger, Duration.ofHours(1));
+		Either.failure(new IOException()).observe().onFailure(reporter).get();
+		assertThat(records).hasSize(1);
+	}
+}
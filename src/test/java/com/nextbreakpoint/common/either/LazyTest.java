@@ -0,0 +1,96 @@
+package com.nextbreakpoint.common.either;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LazyTest {
+	@Test
+	void shouldThrowNullPointerExceptionWhenSupplierIsNull() {
+		assertThatThrownBy(() -> Either.lazy(null)).isInstanceOf(NullPointerException.class);
+	}
+
+	@Test
+	void shouldNotInvokeSupplierWhenNotAccessed() {
+		Supplier<Either<String>> supplier = mock(Supplier.class);
+		Either.lazy(supplier);
+		verify(supplier, never()).get();
+	}
+
+	@Test
+	void shouldNotInvokeSupplierWhenUsedAsUnusedAlternative() {
+		Supplier<Either<String>> supplier = mock(Supplier.class);
+		assertThat(Either.success("X").or(() -> Either.lazy(supplier)).get()).isEqualTo("X");
+		verify(supplier, never()).get();
+	}
+
+	@Test
+	void shouldInvokeSupplierOnlyOnce() {
+		Supplier<Either<String>> supplier = mock(Supplier.class);
+		when(supplier.get()).thenReturn(Either.success("X"));
+		final Either<String> either = Either.lazy(supplier);
+		assertThat(either.isSuccess()).isTrue();
+		assertThat(either.get()).isEqualTo("X");
+		assertThat(either.map(String::toLowerCase).get()).isEqualTo("x");
+		verify(supplier, times(1)).get();
+	}
+
+	@Test
+	void shouldReturnFailureWhenSupplierReturnsFailure() {
+		final Exception exception = new Exception();
+		final Either<String> either = Either.lazy(() -> Either.failure(exception));
+		assertThat(either.isFailure()).isTrue();
+		assertThat(either.exception()).isEqualTo(exception);
+		assertThatThrownBy(either::orThrow).isEqualTo(exception);
+	}
+
+	@Test
+	void shouldReturnFailureWhenSupplierThrowsException() {
+		final RuntimeException exception = new RuntimeException();
+		final Either<String> either = Either.lazy(() -> { throw exception; });
+		assertThat(either.isFailure()).isTrue();
+		assertThat(either.exception()).isEqualTo(exception);
+	}
+
+	@Test
+	void shouldReturnFailureWhenSupplierReturnsNull() {
+		final Either<String> either = Either.lazy(() -> null);
+		assertThat(either.isFailure()).isTrue();
+		assertThat(either.exception()).isInstanceOf(NullPointerException.class);
+	}
+
+	@Test
+	void shouldInvokeSupplierOnlyOnceWhenAccessedConcurrently() throws Exception {
+		final AtomicInteger counter = new AtomicInteger();
+		final CountDownLatch latch = new CountDownLatch(1);
+		final Either<Integer> either = Either.lazy(() -> Either.success(counter.incrementAndGet()));
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			for (int i = 0; i < 8; i++) {
+				executor.submit(() -> {
+					latch.await();
+					return either.get();
+				});
+			}
+			latch.countDown();
+		} finally {
+			executor.shutdown();
+			assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		}
+		assertThat(either.get()).isEqualTo(1);
+		assertThat(counter.get()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,126 @@
+package com.nextbreakpoint.common.either;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ObserverTest {
+	@Test
+	void shouldThrowNullPointerExceptionWhenListenerIsNull() {
+		assertThatThrownBy(() -> Observer.create().onSuccess(null)).isInstanceOf(NullPointerException.class);
+		assertThatThrownBy(() -> Observer.create().onFailure(null)).isInstanceOf(NullPointerException.class);
+	}
+
+	@Test
+	void shouldInvokeSuccessListenersInOrder() {
+		final List<String> calls = new ArrayList<>();
+		final Consumer<Exception> failure = mock(Consumer.class);
+		final Observer<String> observer = Observer.<String>create()
+				.onSuccess(value -> calls.add("A" + value))
+				.onSuccess(value -> calls.add("B" + value))
+				.onFailure(failure);
+		assertThat(Either.success("X").observe(observer).get()).isEqualTo("X");
+		assertThat(observer.observe(Either.success("Y")).get()).isEqualTo("Y");
+		assertThat(calls).containsExactly("AX", "BX", "AY", "BY");
+		verify(failure, never()).accept(any());
+	}
+
+	@Test
+	void shouldInvokeFailureListeners() {
+		final Exception exception = new Exception();
+		final List<Exception> calls = new ArrayList<>();
+		final Observer<String> observer = Observer.<String>create().onFailure(calls::add).onFailure(calls::add);
+		Either.<String>failure(exception).observe(observer);
+		assertThat(calls).containsExactly(exception, exception);
+	}
+
+	@Test
+	void shouldInvokeListenersOnExecutor() throws InterruptedException {
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final CountDownLatch latch = new CountDownLatch(100);
+			final List<String> values = new CopyOnWriteArrayList<>();
+			final List<Thread> threads = new CopyOnWriteArrayList<>();
+			final Observer.Async<String> observer = Observer.<String>create()
+					.onSuccess(values::add)
+					.onSuccess(value -> {
+						threads.add(Thread.currentThread());
+						latch.countDown();
+					})
+					.async(executor, 1000);
+			for (int i = 0; i < 100; i++) {
+				observer.observe(Either.success("X" + i));
+			}
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(values).hasSize(100);
+			assertThat(values.get(0)).isEqualTo("X0");
+			assertThat(values.get(99)).isEqualTo("X99");
+			assertThat(threads).doesNotContain(Thread.currentThread());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void shouldDropInstancesWhenQueueIsFull() throws InterruptedException {
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final CountDownLatch started = new CountDownLatch(1);
+			final CountDownLatch release = new CountDownLatch(1);
+			final Observer.Async<String> observer = Observer.<String>create().onSuccess(value -> {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}).async(executor, 2);
+			observer.observe(Either.success("A"));
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			observer.observe(Either.success("B"));
+			observer.observe(Either.success("C"));
+			assertThat(observer.pending()).isEqualTo(2);
+			assertThat(observer.dropped()).isEqualTo(1);
+			release.countDown();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void shouldContinueWhenListenerThrowsExceptionOnExecutor() throws InterruptedException {
+		final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+			final Thread thread = new Thread(runnable);
+			thread.setUncaughtExceptionHandler((t, e) -> {});
+			return thread;
+		});
+		try {
+			final CountDownLatch latch = new CountDownLatch(2);
+			final Observer.Async<String> observer = Observer.<String>create()
+					.onSuccess(value -> {
+						throw new IllegalStateException();
+					})
+					.onSuccess(value -> latch.countDown())
+					.async(executor, 10);
+			observer.observe(Either.success("A"));
+			observer.observe(Either.success("B"));
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package com.nextbreakpoint.common.either;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ResultTest {
+	private enum Error { NOT_FOUND, CONFLICT }
+
+	@Test
+	void shouldThrowNullPointerExceptionWhenErrorIsNull() {
+		assertThatThrownBy(() -> Result.failure(null)).isInstanceOf(NullPointerException.class);
+	}
+
+	@Test
+	void shouldReturnValueWhenSuccess() {
+		final Result<String, Error> result = Result.success("X");
+		assertThat(result.isSuccess()).isTrue();
+		assertThat(result.isFailure()).isFalse();
+		assertThat(result.get()).isEqualTo("X");
+		assertThat(result.error()).isNull();
+		assertThat(result.orElse("Y")).isEqualTo("X");
+	}
+
+	@Test
+	void shouldReturnErrorWhenFailure() {
+		final Result<String, Error> result = Result.failure(Error.NOT_FOUND);
+		assertThat(result.isSuccess()).isFalse();
+		assertThat(result.isFailure()).isTrue();
+		assertThat(result.get()).isNull();
+		assertThat(result.error()).isEqualTo(Error.NOT_FOUND);
+		assertThat(result.orElse("Y")).isEqualTo("Y");
+		assertThat(result.orElseGet(() -> "Z")).isEqualTo("Z");
+		assertThat(result.or(() -> Result.success("W")).get()).isEqualTo("W");
+	}
+
+	@Test
+	void shouldMapValueWhenSuccess() {
+		assertThat(Result.<String, Error>success("X").map(value -> value + "Y").get()).isEqualTo("XY");
+	}
+
+	@Test
+	void shouldNotCallFunctionWhenFailure() {
+		Function<Object, Object> function = mock(Function.class);
+		Function<Object, Result<Object, Error>> flatFunction = mock(Function.class);
+		Result.<Object, Error>failure(Error.NOT_FOUND).map(function);
+		Result.<Object, Error>failure(Error.NOT_FOUND).flatMap(flatFunction);
+		verify(function, never()).apply(any());
+		verify(flatFunction, never()).apply(any());
+	}
+
+	@Test
+	void shouldReturnResultOfFunctionWhenSuccess() {
+		assertThat(Result.<String, Error>success("X").flatMap(value -> Result.failure(Error.CONFLICT)).error()).isEqualTo(Error.CONFLICT);
+	}
+
+	@Test
+	void shouldPropagateExceptionWhenFunctionThrowsException() {
+		final RuntimeException exception = new RuntimeException();
+		assertThatThrownBy(() -> Result.<String, Error>success("X").map(value -> { throw exception; })).isEqualTo(exception);
+	}
+
+	@Test
+	void shouldMapErrorWhenFailure() {
+		assertThat(Result.<String, Error>failure(Error.NOT_FOUND).mapError(Error::name).error()).isEqualTo("NOT_FOUND");
+		assertThat(Result.<String, Error>success("X").mapError(Error::name).get()).isEqualTo("X");
+	}
+
+	@Test
+	void shouldFoldOutcome() {
+		assertThat(Result.<String, Error>success("X").<Integer>fold(value -> 1, error -> 2)).isEqualTo(1);
+		assertThat(Result.<String, Error>failure(Error.NOT_FOUND).<Integer>fold(value -> 1, error -> 2)).isEqualTo(2);
+	}
+
+	@Test
+	void shouldConvertFromEither() {
+		final Exception exception = new Exception();
+		assertThat(Result.of(Either.success("X")).get()).isEqualTo("X");
+		assertThat(Result.of(Either.failure(exception)).error()).isEqualTo(exception);
+	}
+
+	@Test
+	void shouldConvertToEither() {
+		assertThat(Result.<String, Error>success("X").toEither(error -> new Exception(error.name())).get()).isEqualTo("X");
+		assertThat(Result.<String, Error>failure(Error.NOT_FOUND).toEither(error -> new Exception(error.name())).exception()).hasMessage("NOT_FOUND");
+	}
+}
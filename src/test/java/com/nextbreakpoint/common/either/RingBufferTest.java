@@ -0,0 +1,213 @@
+package com.nextbreakpoint.common.either;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RingBufferTest {
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenCapacityIsZero() {
+		assertThatThrownBy(() -> RingBuffer.of(0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldThrowIllegalStateExceptionWhenNotStarted() {
+		assertThatThrownBy(() -> RingBuffer.<String>of(4).publish(Either.success("X"))).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void shouldThrowIllegalStateExceptionWhenStartedTwice() throws InterruptedException {
+		final ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			final RingBuffer<String> ringBuffer = RingBuffer.of(4);
+			ringBuffer.start(executor, (either, sequence, endOfBatch) -> {});
+			assertThatThrownBy(() -> ringBuffer.start(executor, (either, sequence, endOfBatch) -> {})).isInstanceOf(IllegalStateException.class);
+			ringBuffer.close();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(RingBuffer.WaitStrategy.class)
+	void shouldBroadcastInstancesInOrderToAllConsumers(RingBuffer.WaitStrategy waitStrategy) throws InterruptedException {
+		final ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			final RingBuffer<Integer> ringBuffer = RingBuffer.<Integer>of(16).withWaitStrategy(waitStrategy);
+			final List<Integer> values1 = new ArrayList<>();
+			final List<Integer> values2 = new ArrayList<>();
+			final List<Exception> failures = new ArrayList<>();
+			ringBuffer.start(executor, (either, sequence, endOfBatch) -> {
+				if (either.isSuccess()) {
+					values1.add(either.get());
+				} else {
+					failures.add(either.exception());
+				}
+			}, (either, sequence, endOfBatch) -> values2.add(either.orElse(-1)));
+			for (int i = 0; i < 1000; i++) {
+				assertThat(ringBuffer.publish(i % 100 == 0 ? Either.failure(new Exception()) : Either.success(i))).isTrue();
+			}
+			ringBuffer.close();
+			assertThat(values1).hasSize(990);
+			assertThat(failures).hasSize(10);
+			assertThat(values2).hasSize(1000);
+			for (int i = 0; i < 1000; i++) {
+				assertThat(values2.get(i)).isEqualTo(i % 100 == 0 ? -1 : i);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(RingBuffer.WaitStrategy.class)
+	void shouldReceiveInstancesOfMultipleProducers(RingBuffer.WaitStrategy waitStrategy) throws InterruptedException {
+		final ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			final RingBuffer<Integer> ringBuffer = RingBuffer.<Integer>of(64).withMultipleProducers().withWaitStrategy(waitStrategy);
+			final AtomicLong sum = new AtomicLong();
+			final AtomicLong count = new AtomicLong();
+			final AtomicLong last = new AtomicLong(-1);
+			final AtomicLong gaps = new AtomicLong();
+			ringBuffer.start(executor, (either, sequence, endOfBatch) -> {
+				if (sequence != last.getAndSet(sequence) + 1) {
+					gaps.incrementAndGet();
+				}
+				sum.addAndGet(either.get());
+				count.incrementAndGet();
+			});
+			final CountDownLatch latch = new CountDownLatch(4);
+			for (int p = 0; p < 4; p++) {
+				executor.execute(() -> {
+					for (int i = 1; i <= 10000; i++) {
+						ringBuffer.publish(Either.success(i));
+					}
+					latch.countDown();
+				});
+			}
+			assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+			ringBuffer.close();
+			assertThat(count.get()).isEqualTo(40000);
+			assertThat(gaps.get()).isEqualTo(0);
+			assertThat(sum.get()).isEqualTo(4L * 10000 * 10001 / 2);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void shouldNotPublishWhenRingBufferIsFull() throws InterruptedException {
+		final ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			final CountDownLatch started = new CountDownLatch(1);
+			final CountDownLatch release = new CountDownLatch(1);
+			final RingBuffer<String> ringBuffer = RingBuffer.of(2);
+			ringBuffer.start(executor, (either, sequence, endOfBatch) -> {
+				started.countDown();
+				release.await();
+			});
+			assertThat(ringBuffer.tryPublish(Either.success("A"))).isTrue();
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(ringBuffer.tryPublish(Either.success("B"))).isTrue();
+			assertThat(ringBuffer.tryPublish(Either.success("C"))).isFalse();
+			assertThat(ringBuffer.pending()).isEqualTo(2);
+			release.countDown();
+			ringBuffer.close();
+			assertThat(ringBuffer.pending()).isEqualTo(0);
+			assertThat(ringBuffer.publish(Either.success("E"))).isFalse();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void shouldConsumeAvailableInstancesAsBatch() throws InterruptedException {
+		final ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			final CountDownLatch started = new CountDownLatch(1);
+			final CountDownLatch release = new CountDownLatch(1);
+			final List<Boolean> endOfBatches = new ArrayList<>();
+			final RingBuffer<String> ringBuffer = RingBuffer.of(8);
+			ringBuffer.start(executor, (either, sequence, endOfBatch) -> {
+				if (sequence == 0) {
+					started.countDown();
+					release.await();
+				} else {
+					endOfBatches.add(endOfBatch);
+				}
+			});
+			ringBuffer.publish(Either.success("A"));
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			ringBuffer.publish(Either.success("B"));
+			ringBuffer.publish(Either.success("C"));
+			ringBuffer.publish(Either.success("D"));
+			release.countDown();
+			ringBuffer.close();
+			assertThat(endOfBatches).containsExactly(false, false, true);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(RingBuffer.WaitStrategy.class)
+	void shouldConsumeEveryInstanceReportedAsPublishedWhenClosedConcurrently(RingBuffer.WaitStrategy waitStrategy) throws InterruptedException {
+		final ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			for (int i = 0; i < 50; i++) {
+				final AtomicLong consumed = new AtomicLong();
+				final AtomicLong published = new AtomicLong();
+				final RingBuffer<Integer> ringBuffer = RingBuffer.<Integer>of(64).withWaitStrategy(waitStrategy);
+				ringBuffer.start(executor, (either, sequence, endOfBatch) -> consumed.incrementAndGet());
+				final Thread producer = new Thread(() -> {
+					for (int j = 0; j < 1000; j++) {
+						if (ringBuffer.publish(Either.success(j))) {
+							published.incrementAndGet();
+						}
+					}
+				});
+				producer.start();
+				ringBuffer.close();
+				producer.join();
+				assertThat(consumed.get()).isGreaterThanOrEqualTo(published.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void shouldRestoreInterruptWhenInterruptedWhileClosing() throws InterruptedException {
+		final ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			final CountDownLatch started = new CountDownLatch(1);
+			final CountDownLatch release = new CountDownLatch(1);
+			final RingBuffer<String> ringBuffer = RingBuffer.of(8);
+			ringBuffer.start(executor, (either, sequence, endOfBatch) -> {
+				started.countDown();
+				release.await();
+			});
+			ringBuffer.publish(Either.success("A"));
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			Thread.currentThread().interrupt();
+			ringBuffer.close();
+			assertThat(Thread.interrupted()).isTrue();
+			release.countDown();
+			assertThat(ringBuffer.awaitTermination(Duration.ofSeconds(5))).isTrue();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
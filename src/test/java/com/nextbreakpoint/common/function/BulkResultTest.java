@@ -0,0 +1,85 @@
+package com.nextbreakpoint.common.function;
+
+import com.nextbreakpoint.common.either.Either;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkResultTest {
+    private static final ThrowingFunction<Integer, Integer> FUNCTION = value -> {
+        if (value % 7 == 0) {
+            throw new Exception("Error " + value);
+        }
+        return value * 2;
+    };
+
+    @Test
+    void shouldThrowNullPointerExceptionWhenInputsIsNull() {
+        assertThatThrownBy(() -> FUNCTION.applyAll(null)).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void shouldThrowIndexOutOfBoundsExceptionWhenIndexIsOutOfBounds() {
+        final BulkResult<Integer> result = FUNCTION.applyAll(new Integer[] { 1 });
+        assertThatThrownBy(() -> result.get(1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> result.isFailure(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void shouldReturnOutputsAndExceptions() {
+        final BulkResult<Integer> result = FUNCTION.applyAll(inputs(200));
+        assertThat(result.size()).isEqualTo(200);
+        assertThat(result.failureCount()).isEqualTo(29);
+        assertThat(result.isSuccess(1)).isTrue();
+        assertThat(result.get(1)).isEqualTo(2);
+        assertThat(result.exception(1)).isNull();
+        assertThat(result.isFailure(70)).isTrue();
+        assertThat(result.get(70)).isNull();
+        assertThat(result.exception(70)).hasMessage("Error 70");
+        assertThat(result.either(70).isFailure()).isTrue();
+        assertThat(result.either(71).get()).isEqualTo(142);
+    }
+
+    @Test
+    void shouldReturnSameOutputsInParallelMode() {
+        final BulkResult<Integer> expected = BulkResult.of(FUNCTION, inputs(10000));
+        final BulkResult<Integer> actual = BulkResult.parallel(FUNCTION, inputs(10000));
+        assertThat(actual.failureCount()).isEqualTo(expected.failureCount());
+        for (int i = 0; i < 10000; i++) {
+            assertThat(actual.get(i)).isEqualTo(expected.get(i));
+            assertThat(actual.isFailure(i)).isEqualTo(expected.isFailure(i));
+        }
+    }
+
+    @Test
+    void shouldVisitOutputsAndExceptionsInOrder() {
+        final BulkResult<Integer> result = FUNCTION.applyAll(inputs(150));
+        final List<Integer> successes = new ArrayList<>();
+        final List<Integer> failures = new ArrayList<>();
+        result.forEachSuccess((value, index) -> successes.add(index));
+        result.forEachFailure((exception, index) -> {
+            assertThat(exception).hasMessage("Error " + index);
+            failures.add(index);
+        });
+        assertThat(failures).containsExactlyElementsOf(() -> IntStream.range(0, 150).filter(i -> i % 7 == 0).iterator());
+        assertThat(successes).containsExactlyElementsOf(() -> IntStream.range(0, 150).filter(i -> i % 7 != 0).iterator());
+    }
+
+    @Test
+    void shouldIterateOverResults() {
+        final List<Either<Integer>> results = new ArrayList<>();
+        FUNCTION.applyAll(inputs(3)).forEach(results::add);
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).isFailure()).isTrue();
+        assertThat(results.get(2).get()).isEqualTo(4);
+    }
+
+    private static Integer[] inputs(int size) {
+        return IntStream.range(0, size).boxed().toArray(Integer[]::new);
+    }
+}
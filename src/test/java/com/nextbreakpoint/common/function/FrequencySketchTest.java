@@ -0,0 +1,52 @@
+package com.nextbreakpoint.common.function;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FrequencySketchTest {
+    @Test
+    void shouldEstimateFrequency() {
+        final FrequencySketch sketch = new FrequencySketch();
+        sketch.ensureCapacity(512);
+        for (int i = 0; i < 5; i++) {
+            sketch.increment(42);
+        }
+        assertThat(sketch.frequency(42)).isEqualTo(5);
+        assertThat(sketch.frequency(43)).isEqualTo(0);
+    }
+
+    @Test
+    void shouldNotExceedMaximumFrequency() {
+        final FrequencySketch sketch = new FrequencySketch();
+        sketch.ensureCapacity(512);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment(42);
+        }
+        assertThat(sketch.frequency(42)).isEqualTo(15);
+    }
+
+    @Test
+    void shouldHalveFrequenciesWhenSampleSizeIsReached() {
+        final FrequencySketch sketch = new FrequencySketch();
+        for (int i = 0; i < 10; i++) {
+            sketch.increment(42);
+        }
+        for (int i = 0; i < 160; i++) {
+            sketch.increment(1000 + i);
+        }
+        assertThat(sketch.frequency(42)).isLessThan(10);
+    }
+
+    @Test
+    void shouldKeepFrequenciesUntilSketchGrows() {
+        final FrequencySketch sketch = new FrequencySketch();
+        for (int i = 0; i < 5; i++) {
+            sketch.increment(42);
+        }
+        sketch.ensureCapacity(8);
+        assertThat(sketch.frequency(42)).isEqualTo(5);
+        sketch.ensureCapacity(1 << 20);
+        assertThat(sketch.frequency(42)).isEqualTo(0);
+    }
+}
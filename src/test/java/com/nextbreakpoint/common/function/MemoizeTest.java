@@ -0,0 +1,148 @@
+package com.nextbreakpoint.common.function;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MemoizeTest {
+    @Test
+    void shouldThrowIllegalArgumentExceptionWhenMaximumSizeIsZero() {
+        assertThatThrownBy(() -> ThrowingFunction.identity().memoize(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldApplyFunctionOnlyOnceForSameInput() throws Exception {
+        ThrowingFunction<String, String> function = mock(ThrowingFunction.class);
+        when(function.apply("X")).thenReturn("Y");
+        final MemoizedFunction<String, String> memoized = MemoizedFunction.of(function, 10);
+        assertThat(memoized.apply("X")).isEqualTo("Y");
+        assertThat(memoized.apply("X")).isEqualTo("Y");
+        verify(function, times(1)).apply("X");
+        assertThat(memoized.statistics().hits()).isEqualTo(1);
+        assertThat(memoized.statistics().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCacheNullInputAndOutput() throws Exception {
+        final AtomicInteger counter = new AtomicInteger();
+        final MemoizedFunction<String, String> memoized = MemoizedFunction.of(value -> {
+            counter.incrementAndGet();
+            return null;
+        }, 10);
+        assertThat(memoized.apply(null)).isNull();
+        assertThat(memoized.apply(null)).isNull();
+        assertThat(counter.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotCacheFailuresByDefault() throws Exception {
+        final Exception exception = new Exception();
+        ThrowingFunction<String, String> function = mock(ThrowingFunction.class);
+        when(function.apply("X")).thenThrow(exception);
+        final MemoizedFunction<String, String> memoized = MemoizedFunction.of(function, 10);
+        assertThatThrownBy(() -> memoized.apply("X")).isEqualTo(exception);
+        assertThatThrownBy(() -> memoized.apply("X")).isEqualTo(exception);
+        verify(function, times(2)).apply("X");
+    }
+
+    @Test
+    void shouldCacheFailuresWhenConfigured() throws Exception {
+        final Exception exception = new Exception();
+        ThrowingFunction<String, String> function = mock(ThrowingFunction.class);
+        when(function.apply("X")).thenThrow(exception);
+        final MemoizedFunction<String, String> memoized = MemoizedFunction.of(function, 10).withCachedFailures();
+        assertThatThrownBy(() -> memoized.apply("X")).isEqualTo(exception);
+        assertThatThrownBy(() -> memoized.apply("X")).isEqualTo(exception);
+        verify(function, times(1)).apply("X");
+    }
+
+    @Test
+    void shouldNotExceedMaximumSize() throws Exception {
+        final MemoizedFunction<Integer, Integer> memoized = MemoizedFunction.of((Integer value) -> value * 2, 100);
+        for (int i = 0; i < 10000; i++) {
+            assertThat(memoized.apply(i)).isEqualTo(i * 2);
+        }
+        assertThat(memoized.size()).isLessThanOrEqualTo(100);
+        assertThat(memoized.statistics().evictions()).isGreaterThanOrEqualTo(9900);
+    }
+
+    @Test
+    void shouldNotExceedMaximumWeight() throws Exception {
+        final MemoizedFunction<Integer, String> memoized = MemoizedFunction.of((Integer value) -> "X".repeat(value % 10), 1000)
+                .withWeigher((key, value) -> value.length(), 50);
+        for (int i = 0; i < 1000; i++) {
+            memoized.apply(i);
+        }
+        assertThat(memoized.size()).isLessThanOrEqualTo(50);
+    }
+
+    @Test
+    void shouldKeepFrequentlyUsedInputs() throws Exception {
+        final MemoizedFunction<Integer, Integer> memoized = MemoizedFunction.of((Integer value) -> value, 100);
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 50; i++) {
+                memoized.apply(i);
+            }
+        }
+        final long hits = memoized.statistics().hits();
+        // a scan of inputs which are used only once must not evict the frequently used inputs
+        for (int i = 1000; i < 11000; i++) {
+            memoized.apply(i);
+        }
+        for (int i = 0; i < 50; i++) {
+            memoized.apply(i);
+        }
+        assertThat(memoized.statistics().hits() - hits).isGreaterThanOrEqualTo(45);
+    }
+
+    @Test
+    void shouldApplyFunctionAgainWhenEntryIsExpired() throws Exception {
+        final AtomicInteger counter = new AtomicInteger();
+        final MemoizedFunction<String, Integer> memoized = MemoizedFunction.of((String value) -> counter.incrementAndGet(), 10)
+                .withExpiry(Duration.ofMillis(20));
+        assertThat(memoized.apply("X")).isEqualTo(1);
+        assertThat(memoized.apply("X")).isEqualTo(1);
+        Thread.sleep(50);
+        assertThat(memoized.apply("X")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldApplyFunctionAgainWhenEntryIsInvalidated() throws Exception {
+        final AtomicInteger counter = new AtomicInteger();
+        final MemoizedFunction<String, Integer> memoized = MemoizedFunction.of((String value) -> counter.incrementAndGet(), 10);
+        assertThat(memoized.apply("X")).isEqualTo(1);
+        memoized.invalidate("X");
+        assertThat(memoized.apply("X")).isEqualTo(2);
+        memoized.invalidateAll();
+        assertThat(memoized.size()).isEqualTo(0);
+    }
+
+    @Test
+    void shouldNotCacheErrors() throws Exception {
+        final AtomicInteger counter = new AtomicInteger();
+        final MemoizedFunction<String, Integer> memoized = MemoizedFunction.of((String value) -> {
+            if (counter.incrementAndGet() == 1) {
+                throw new AssertionError();
+            }
+            return counter.get();
+        }, 10);
+        assertThatThrownBy(() -> memoized.apply("X")).isInstanceOf(AssertionError.class);
+        assertThat(memoized.apply("X")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldFailWhenFunctionInvokesItselfWithSameInput() {
+        final AtomicReference<MemoizedFunction<String, String>> self = new AtomicReference<>();
+        self.set(MemoizedFunction.of((String value) -> self.get().apply(value), 10));
+        assertThatThrownBy(() -> self.get().apply("X")).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,95 @@
+package com.nextbreakpoint.common.internal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SerialQueueTest {
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		executor.shutdownNow();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenCapacityIsZero() {
+		assertThatThrownBy(() -> SerialQueue.of(executor, 0, item -> {}, (item, e) -> {})).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldProcessItemsInOrder() throws Exception {
+		final List<Integer> items = Collections.synchronizedList(new ArrayList<>());
+		final CountDownLatch latch = new CountDownLatch(1000);
+		final SerialQueue<Integer> queue = SerialQueue.of(executor, 1000, item -> {
+			items.add(item);
+			latch.countDown();
+		}, (item, e) -> {});
+		for (int i = 0; i < 1000; i++) {
+			assertThat(queue.offer(i)).isTrue();
+		}
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		for (int i = 0; i < 1000; i++) {
+			assertThat(items.get(i)).isEqualTo(i);
+		}
+	}
+
+	@Test
+	void shouldNotAddItemsWhenQueueIsFull() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch latch = new CountDownLatch(1);
+		final SerialQueue<Integer> queue = SerialQueue.of(executor, 2, item -> {
+			started.countDown();
+			awaitQuietly(latch);
+		}, (item, e) -> {});
+		assertThat(queue.offer(1)).isTrue();
+		assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(queue.offer(2)).isTrue();
+		assertThat(queue.offer(3)).isFalse();
+		assertThat(queue.size()).isEqualTo(2);
+		latch.countDown();
+	}
+
+	@Test
+	void shouldKeepProcessingItemsWhenProcessorThrowsError() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(1);
+		final SerialQueue<Integer> queue = SerialQueue.of(executor, 10, item -> {
+			if (item == 1) {
+				throw new AssertionError();
+			}
+			latch.countDown();
+		}, (item, e) -> {});
+		queue.offer(1);
+		queue.offer(2);
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void shouldRejectItemsWhenExecutorIsShutdown() {
+		final List<Integer> rejected = new ArrayList<>();
+		final SerialQueue<Integer> queue = SerialQueue.of(executor, 10, item -> {}, (item, e) -> rejected.add(item));
+		executor.shutdown();
+		assertThat(queue.offer(1)).isTrue();
+		assertThat(rejected).containsExactly(1);
+		assertThat(queue.size()).isEqualTo(0);
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package com.nextbreakpoint.common.metrics;
+
+import com.nextbreakpoint.common.command.Command;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CommandMetricsTest {
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenBucketsAreNotIncreasing() {
+		assertThatThrownBy(() -> CommandMetrics.of("test").withBuckets(0.1, 0.1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldCountExecutions() {
+		final CommandMetrics metrics = CommandMetrics.of("test").withBuckets(1, 10);
+		final Command<String> command = Command.value("X").map(String::toLowerCase).withInterceptors(metrics);
+		command.execute();
+		command.execute();
+		assertThat(scrape(metrics))
+			.contains("command_executions_total{command=\"test\"} 2\n")
+			.contains("command_latency_seconds_bucket{command=\"test\",le=\"1\"} 2\n")
+			.contains("command_latency_seconds_bucket{command=\"test\",le=\"+Inf\"} 2\n")
+			.contains("command_latency_seconds_count{command=\"test\"} 2\n")
+			.doesNotContain("command_failures_total{");
+	}
+
+	@Test
+	void shouldCountFailuresByExceptionClass() {
+		final CommandMetrics metrics = CommandMetrics.of("test");
+		Command.error(new IOException()).withInterceptors(metrics).execute();
+		Command.of(() -> { throw new IllegalStateException(); }).withInterceptors(metrics).execute();
+		Command.of(() -> { throw new IllegalStateException(); }).withInterceptors(metrics).execute();
+		assertThat(scrape(metrics))
+			.contains("command_executions_total{command=\"test\"} 3\n")
+			.contains("command_failures_total{command=\"test\",exception=\"java.io.IOException\"} 1\n")
+			.contains("command_failures_total{command=\"test\",exception=\"java.lang.IllegalStateException\"} 2\n");
+	}
+
+	@Test
+	void shouldCountOtherExceptionClassesTogether() {
+		final CommandMetrics metrics = CommandMetrics.of("test").withMaxExceptions(1);
+		Command.error(new IOException()).withInterceptors(metrics).execute();
+		Command.error(new IllegalStateException()).withInterceptors(metrics).execute();
+		Command.error(new IllegalArgumentException()).withInterceptors(metrics).execute();
+		assertThat(scrape(metrics))
+			.contains("command_failures_total{command=\"test\",exception=\"java.io.IOException\"} 1\n")
+			.contains("command_failures_total{command=\"test\",exception=\"other\"} 2\n");
+	}
+
+	private static String scrape(CommandMetrics metrics) {
+		return PrometheusExporter.of(metrics).scrape();
+	}
+}
@@ -0,0 +1,85 @@
+package com.nextbreakpoint.common.metrics;
+
+import com.nextbreakpoint.common.command.Command;
+import com.nextbreakpoint.common.command.ObjectPool;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PrometheusExporterTest {
+	@Test
+	void shouldThrowNullPointerExceptionWhenCollectorIsNull() {
+		assertThatThrownBy(() -> PrometheusExporter.of((Collector) null)).isInstanceOf(NullPointerException.class);
+	}
+
+	@Test
+	void shouldGroupSamplesOfSameMetric() {
+		final PrometheusExporter exporter = PrometheusExporter.of(
+			samples -> samples.counter("requests_total", "Requests", 1, "path", "/a"),
+			Collector.gauge("temperature", "Temperature", () -> 21.5),
+			samples -> samples.counter("requests_total", "Requests", 2, "path", "/b")
+		);
+		assertThat(exporter.scrape()).isEqualTo(
+			"# HELP requests_total Requests\n" +
+			"# TYPE requests_total counter\n" +
+			"requests_total{path=\"/a\"} 1\n" +
+			"requests_total{path=\"/b\"} 2\n" +
+			"# HELP temperature Temperature\n" +
+			"# TYPE temperature gauge\n" +
+			"temperature 21.5\n"
+		);
+	}
+
+	@Test
+	void shouldEscapeLabelValues() {
+		final PrometheusExporter exporter = PrometheusExporter.of(samples -> samples.gauge("value", "Value", 1, "label", "a\"b\\c\nd"));
+		assertThat(exporter.scrape()).contains("value{label=\"a\\\"b\\\\c\\nd\"} 1\n");
+	}
+
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenTypesAreDifferent() {
+		final PrometheusExporter exporter = PrometheusExporter.of(samples -> {
+			samples.counter("value", "Value", 1);
+			samples.gauge("value", "Value", 1);
+		});
+		assertThatThrownBy(exporter::scrape).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldThrowIllegalArgumentExceptionWhenNameIsNotValid() {
+		final PrometheusExporter exporter = PrometheusExporter.of(samples -> samples.counter("1value", "Value", 1));
+		assertThatThrownBy(exporter::scrape).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void shouldWriteStatisticsOfPool() {
+		final ObjectPool<String> pool = ObjectPool.of(() -> "X", 2);
+		pool.bracket(Command::value).execute();
+		assertThat(PrometheusExporter.of(Collector.of("parsers", pool)).scrape())
+			.contains("pool_objects{pool=\"parsers\"} 1\n")
+			.contains("pool_acquired_total{pool=\"parsers\"} 1\n");
+	}
+
+	@Test
+	void shouldServeMetrics() throws Exception {
+		try (PrometheusExporter exporter = PrometheusExporter.of(Collector.gauge("up", "Up", () -> 1))) {
+			final InetSocketAddress address = exporter.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+			final HttpURLConnection connection = (HttpURLConnection) new URL("http://" + address.getHostString() + ":" + address.getPort() + "/metrics").openConnection();
+			try (InputStream input = connection.getInputStream()) {
+				assertThat(connection.getResponseCode()).isEqualTo(200);
+				assertThat(connection.getContentType()).startsWith("text/plain; version=0.0.4");
+				assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("# HELP up Up\n# TYPE up gauge\nup 1\n");
+			} finally {
+				connection.disconnect();
+			}
+		}
+	}
+}